@@ -0,0 +1,15 @@
+package com.listings.listings.cache;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public interface ListingCacheInvalidator {
+
+    /**
+     * Evicts the cached listing pages that could be affected by any of the changes.
+     *
+     * @param changes - List of {@link ListingChange} objects applied to the listings index.
+     */
+    void invalidate(@NonNull List<ListingChange> changes);
+}
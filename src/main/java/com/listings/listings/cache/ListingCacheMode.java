@@ -0,0 +1,13 @@
+package com.listings.listings.cache;
+
+public enum ListingCacheMode {
+    /**
+     * Entries are expired after the expire-after-write time and the next read loads them again.
+     */
+    EXPIRE,
+    /**
+     * Entries older than the refresh-after-write time are still returned while they are reloaded in the background.
+     * They are expired after the expire-after-write time, which caps how stale a returned entry can be.
+     */
+    STALE_WHILE_REVALIDATE
+}
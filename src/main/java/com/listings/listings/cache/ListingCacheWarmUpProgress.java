@@ -0,0 +1,13 @@
+package com.listings.listings.cache;
+
+/**
+ * Progress of the warm-up of the listing caches.
+ *
+ * @param warm    - True once the first warm-up has finished.
+ * @param running - True while a warm-up is loading the pages.
+ * @param loaded  - Number of the pages loaded by the current or the last warm-up.
+ * @param failed  - Number of the pages that failed to load.
+ * @param total   - Number of the pages the current or the last warm-up loads.
+ */
+public record ListingCacheWarmUpProgress(boolean warm, boolean running, int loaded, int failed, int total) {
+}
@@ -0,0 +1,25 @@
+package com.listings.listings.cache;
+
+public interface ListingCacheWarmer {
+
+    /**
+     * Loads the hot pages of all the listings and the most requested search pages into the listing caches.
+     * Pages that are already cached are not loaded again.
+     */
+    void warmUp();
+
+    /**
+     * Notifies the warmer about the listing writes of a consumed record or batch. The caches are loaded again once
+     * enough writes were made.
+     *
+     * @param writes - Number of the listing writes.
+     */
+    void onIngested(int writes);
+
+    /**
+     * Returns the progress of the current or the last warm-up.
+     *
+     * @return - {@link ListingCacheWarmUpProgress} object.
+     */
+    ListingCacheWarmUpProgress getProgress();
+}
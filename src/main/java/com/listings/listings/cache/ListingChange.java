@@ -0,0 +1,52 @@
+package com.listings.listings.cache;
+
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.rest.dto.listing.ListingField;
+import lombok.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Change applied to the listings index that the cached listing pages may depend on.
+ *
+ * @param mode      - {@link ListingEventMode} of the applied change.
+ * @param listingId - Id of the changed listing.
+ * @param values    - Values of the listing fields after the change. Empty for deletes.
+ */
+public record ListingChange(ListingEventMode mode, String listingId, Map<ListingField, String> values) {
+
+    /**
+     * Creates the change from the listing that was written to the listings index.
+     *
+     * @param mode    - {@link ListingEventMode} of the applied change.
+     * @param listing - Written {@link Listing} object.
+     * @return - {@link ListingChange} object.
+     */
+    public static ListingChange of(@NonNull ListingEventMode mode, @NonNull Listing listing) {
+        Map<ListingField, String> values = new EnumMap<>(ListingField.class);
+        if (mode != ListingEventMode.DELETE) {
+            put(values, ListingField.ID, listing.getId());
+            put(values, ListingField.MAKE, listing.getMake());
+            put(values, ListingField.MODEL, listing.getModel());
+            put(values, ListingField.PRODUCTION_YEAR, listing.getProductionYear());
+            put(values, ListingField.MILEAGE, listing.getMileage());
+            put(values, ListingField.TRANSMISSION_TYPE, listing.getTransmissionType());
+            put(values, ListingField.FUEL_TYPE, listing.getFuelType());
+            if (listing.getContactInfo() != null) {
+                put(values, ListingField.CONTACT_FIRST_NAME, listing.getContactInfo().getFirstName());
+                put(values, ListingField.CONTACT_LAST_NAME, listing.getContactInfo().getLastName());
+                put(values, ListingField.CONTACT_EMAIL, listing.getContactInfo().getEmail());
+                put(values, ListingField.CONTACT_PHONE_NUMBER, listing.getContactInfo().getPhoneNumber());
+            }
+        }
+        return new ListingChange(mode, listing.getId(), values);
+    }
+
+    private static void put(Map<ListingField, String> values, ListingField field, Object value) {
+        if (value != null) {
+            values.put(field, value instanceof Enum<?> enumValue ? enumValue.name() : value.toString());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.listings.listings.cache;
+
+import com.listings.listings.rest.dto.listing.ListingPage;
+import lombok.NonNull;
+
+import java.util.Collection;
+
+public interface ListingEntityCache {
+
+    /**
+     * Creates the listing page of the cached ids page. The listings that are not cached are read from the listings
+     * index with a single multi-get and cached for the other pages they are on.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @return - {@link ListingPage} object or null if any of the listings no longer exists.
+     */
+    ListingPage getListingPage(@NonNull ListingIdsPage listingIdsPage);
+
+    /**
+     * Evicts the listings, so that they are read from the listings index on their next request.
+     *
+     * @param listingIds - Ids of the changed listings.
+     */
+    void evict(@NonNull Collection<String> listingIds);
+}
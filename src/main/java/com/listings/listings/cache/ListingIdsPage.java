@@ -0,0 +1,75 @@
+package com.listings.listings.cache;
+
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.TotalElementsRelation;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import lombok.NonNull;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Listing page as it is held by the listing caches. Only the ordered ids of its listings are kept, the listings
+ * themselves are held once by the {@link ListingEntityCache} no matter how many pages they are on.
+ *
+ * @param page                  - Page number.
+ * @param size                  - Page size.
+ * @param sort                  - {@link ListingField} the page is sorted by.
+ * @param sortDirection         - Sort direction.
+ * @param totalElements         - Total number of the listings.
+ * @param totalPages            - Total number of the pages.
+ * @param totalElementsRelation - Whether the total is exact or a lower bound. Null if the listings were not counted.
+ * @param trackTotalHits        - How the listings of the page were counted.
+ * @param search                - Search the page was created for or null for the pages of all the listings.
+ * @param listingIds            - Ids of the listings of the page in their order.
+ */
+public record ListingIdsPage(Integer page, Integer size, ListingField sort, Sort.Direction sortDirection, Long totalElements,
+                             Integer totalPages, TotalElementsRelation totalElementsRelation, TrackTotalHits trackTotalHits,
+                             SearchListingDto search, List<String> listingIds) {
+
+    /**
+     * Creates the cached form of the listing page.
+     *
+     * @param listingPage - {@link ListingPage} object.
+     * @return - {@link ListingIdsPage} object.
+     */
+    public static ListingIdsPage of(@NonNull ListingPage listingPage) {
+        return new ListingIdsPage(
+                listingPage.getPage(),
+                listingPage.getSize(),
+                listingPage.getSort(),
+                listingPage.getSortDirection(),
+                listingPage.getTotalElements(),
+                listingPage.getTotalPages(),
+                listingPage.getTotalElementsRelation(),
+                listingPage.getTrackTotalHits(),
+                listingPage.getSearch(),
+                listingPage.getContent() == null ? List.of() : listingPage.getContent().stream().map(ListingDto::getId).toList()
+        );
+    }
+
+    /**
+     * Creates the listing page with the listings of the ids.
+     *
+     * @param content - List of {@link ListingDto} objects in the order of the ids.
+     * @return - {@link ListingPage} object.
+     */
+    public ListingPage toListingPage(@NonNull List<ListingDto> content) {
+        return ListingPage
+                .builder()
+                .page(page)
+                .size(size)
+                .sort(sort)
+                .sortDirection(sortDirection)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .totalElementsRelation(totalElementsRelation)
+                .trackTotalHits(trackTotalHits)
+                .search(search)
+                .content(content)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.listings.listings.cache;
+
+import com.listings.listings.rest.dto.listing.ListingFacets;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import lombok.NonNull;
+
+public interface ListingPageLoader {
+
+    /**
+     * Loads the current version of the cached listing page from the listings index without going through
+     * the listing caches.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @return - {@link ListingPage} object with the same page, size, sort and search as the cached one.
+     */
+    ListingPage reload(@NonNull ListingIdsPage listingIdsPage);
+
+    /**
+     * Counts the cached facets again from the listings index without going through the listing caches.
+     *
+     * @param listingFacets - Cached {@link ListingFacets} object.
+     * @return - {@link ListingFacets} object with the same search and facets as the cached one.
+     */
+    ListingFacets reload(@NonNull ListingFacets listingFacets);
+}
@@ -0,0 +1,31 @@
+package com.listings.listings.cache;
+
+import com.listings.listings.data.domain.RecordedSearch;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import lombok.NonNull;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ListingSearchRecorder {
+
+    /**
+     * Counts a request of the search page.
+     *
+     * @param search        - {@link SearchListingDto} object representing the search criteria.
+     * @param page          - Page number.
+     * @param size          - Page size.
+     * @param sort          - Sort param.
+     * @param sortDirection - Sort direction.
+     */
+    void record(@NonNull SearchListingDto search, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection);
+
+    /**
+     * Returns the most requested search pages of all the instances.
+     *
+     * @param limit - Maximum number of the search pages.
+     * @return - List of {@link RecordedSearch} objects, the most requested first.
+     */
+    List<RecordedSearch> getTopSearches(int limit);
+}
@@ -0,0 +1,326 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingCacheInvalidator;
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacets;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import com.listings.listings.rest.dto.listing.TotalElementsRelation;
+import com.listings.listings.util.CacheConstants;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DefaultListingCacheInvalidator implements ListingCacheInvalidator {
+
+    private static final Set<ListingField> IMMUTABLE_SORT_FIELDS = Set.of(ListingField.ID, ListingField.DATE_CREATED);
+
+    private static final Set<ListingField> NUMERIC_FIELDS = Set.of(ListingField.PRODUCTION_YEAR, ListingField.MILEAGE);
+
+    private final CacheManager cacheManager;
+
+    private final ListingEntityCache listingEntityCache;
+
+    /**
+     * Evicts the changed listings from the entity cache before the pages, so that a page read in between gets
+     * the changed listings.
+     */
+    @Override
+    public void invalidate(@NonNull List<ListingChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        listingEntityCache.evict(changes.stream().map(ListingChange::listingId).filter(Objects::nonNull).toList());
+        invalidate(CacheConstants.ALL_LISTINGS_CACHE, changes);
+        invalidate(CacheConstants.SEARCH_LISTINGS_CACHE, changes);
+        invalidate(CacheConstants.SEARCH_FACETS_CACHE, changes);
+    }
+
+    /**
+     * Evicts the entries of the cache that could be affected by any of the changes. Caches that can not be
+     * iterated are cleared completely.
+     *
+     * @param cacheName - Name of the cache.
+     * @param changes   - List of {@link ListingChange} objects.
+     */
+    private void invalidate(@NonNull String cacheName, @NonNull List<ListingChange> changes) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        Map<?, ?> entries = entries(cache);
+        if (entries == null) {
+            log.info(String.format("Clearing [%s] cache for [%s] changes", cacheName, changes.size()));
+            cache.clear();
+            return;
+        }
+
+        List<Object> affectedKeys = new LinkedList<>();
+        entries.forEach((key, value) -> {
+            boolean affected = switch (resolve(value)) {
+                case ListingIdsPage listingIdsPage -> isAffected(listingIdsPage, changes);
+                case ListingFacets listingFacets -> isAffected(listingFacets, changes);
+                case null, default -> true;
+            };
+            if (affected) {
+                affectedKeys.add(key);
+            }
+        });
+        affectedKeys.forEach(cache::evict);
+        log.info(String.format("Evicted [%s] of [%s] entries from [%s] cache for [%s] changes", affectedKeys.size(), entries.size(), cacheName, changes.size()));
+    }
+
+    /**
+     * Returns the view of the entries of the cache, if the cache can be iterated. The entries of the asynchronous
+     * Caffeine caches are their futures, so the pages that are still being loaded are visible too. Synchronous
+     * Caffeine caches have no asynchronous view.
+     *
+     * @param cache - {@link Cache} object.
+     * @return - Map of the cached entries or null if the entries of the cache can not be iterated.
+     */
+    private Map<?, ?> entries(@NonNull Cache cache) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            try {
+                return caffeineCache.getAsyncCache().asMap();
+            } catch (IllegalStateException ex) {
+                return caffeineCache.getNativeCache().asMap();
+            }
+        }
+        if (cache.getNativeCache() instanceof Map<?, ?> entries) {
+            return entries;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the completed future of an asynchronous cache entry. Pages that are still being loaded
+     * could have been read before the changes, so they resolve to null and are evicted. The callers waiting on
+     * them still get the loaded page but it is not stored in the cache.
+     *
+     * @param value - Cached value or future of the cached value.
+     * @return - Cached value or null if it is not loaded yet.
+     */
+    private Object resolve(Object value) {
+        if (!(value instanceof CompletableFuture<?> future)) {
+            return value;
+        }
+        return future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+    }
+
+    /**
+     * Checks if the ids or the totals of the cached page could be affected by any of the changes. The changed
+     * listings themselves are evicted from the entity cache, so the pages that keep their ids are kept.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @param changes        - List of {@link ListingChange} objects.
+     * @return - True if the page has to be evicted.
+     */
+    private boolean isAffected(@NonNull ListingIdsPage listingIdsPage, @NonNull List<ListingChange> changes) {
+        Set<String> listingIds = listingIdsPage.listingIds() == null ? Set.of() : Set.copyOf(listingIdsPage.listingIds());
+
+        for (ListingChange change : changes) {
+            boolean affected;
+            if (change.listingId() != null && listingIds.contains(change.listingId())) {
+                affected = isPageOfListingAffected(listingIdsPage, change);
+            } else if (listingIdsPage.search() == null) {
+                affected = isAllListingsPageAffected(listingIdsPage, change);
+            } else {
+                affected = isSearchPageAffected(listingIdsPage, change);
+            }
+            if (affected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the counts of the cached facets could be affected by any of the changes. A created listing only
+     * counts if it matches the search and a deleted listing can only be ruled out if the search matched nothing.
+     * An update can only move a listing into or out of the search, or into another bucket, if it changes a field
+     * of the search or of the facets.
+     *
+     * @param listingFacets - Cached {@link ListingFacets} object.
+     * @param changes       - List of {@link ListingChange} objects.
+     * @return - True if the facets have to be evicted.
+     */
+    private boolean isAffected(@NonNull ListingFacets listingFacets, @NonNull List<ListingChange> changes) {
+        SearchListingDto search = listingFacets.getSearch();
+        if (search == null || listingFacets.getFacets() == null) {
+            return true;
+        }
+        Set<ListingField> fields = EnumSet.noneOf(ListingField.class);
+        if (search.getSearchListingItems() != null) {
+            search.getSearchListingItems().forEach(item -> fields.add(item.getField()));
+        }
+        listingFacets.getFacets().keySet().stream().map(ListingFacet::getField).forEach(fields::add);
+
+        for (ListingChange change : changes) {
+            boolean affected = switch (change.mode()) {
+                case CREATE -> matches(search, change);
+                case DELETE -> listingFacets.getTotalElements() == null || listingFacets.getTotalElements() > 0;
+                case UPDATE -> change.values().keySet().stream().anyMatch(fields::contains);
+            };
+            if (affected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the page that contains the changed listing could be affected by the change. An update keeps the
+     * listing on the page unless it moves it in the sort order or out of the search.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @param change         - {@link ListingChange} object.
+     * @return - True if the page has to be evicted.
+     */
+    private boolean isPageOfListingAffected(@NonNull ListingIdsPage listingIdsPage, @NonNull ListingChange change) {
+        return switch (change.mode()) {
+            case CREATE, DELETE -> true;
+            case UPDATE -> movesInSort(listingIdsPage, change)
+                    || (listingIdsPage.search() != null && !matches(listingIdsPage.search(), change));
+        };
+    }
+
+    /**
+     * Checks if the page of all the listings that does not contain the changed listing could be affected by the change.
+     * Creates and deletes shift the pages and change the total number of elements. Updates can only move a listing
+     * to another page if they change the field the page is sorted by.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @param change         - {@link ListingChange} object.
+     * @return - True if the page has to be evicted.
+     */
+    private boolean isAllListingsPageAffected(@NonNull ListingIdsPage listingIdsPage, @NonNull ListingChange change) {
+        return switch (change.mode()) {
+            case CREATE, DELETE -> true;
+            case UPDATE -> movesInSort(listingIdsPage, change);
+        };
+    }
+
+    /**
+     * Checks if the search page that does not contain the changed listing could be affected by the change.
+     * A listing that matches the search can enter it. Listings that left the search or were deleted can only
+     * be ruled out if the page holds all the listings that match the search, which only an exact total can tell.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @param change         - {@link ListingChange} object.
+     * @return - True if the page has to be evicted.
+     */
+    private boolean isSearchPageAffected(@NonNull ListingIdsPage listingIdsPage, @NonNull ListingChange change) {
+        boolean complete = listingIdsPage.page() == 0
+                && listingIdsPage.listingIds() != null
+                && listingIdsPage.totalElements() != null
+                && listingIdsPage.totalElementsRelation() == TotalElementsRelation.EXACT
+                && listingIdsPage.totalElements() <= listingIdsPage.listingIds().size();
+        return switch (change.mode()) {
+            case CREATE -> matches(listingIdsPage.search(), change);
+            case UPDATE -> !complete || matches(listingIdsPage.search(), change);
+            case DELETE -> !complete;
+        };
+    }
+
+    /**
+     * Checks if the update could move the listing in the sort order of the page. Every update sets the date
+     * the listing was updated, the other fields only change if the update has their value.
+     *
+     * @param listingIdsPage - Cached {@link ListingIdsPage} object.
+     * @param change         - {@link ListingChange} object of an update.
+     * @return - True if the listing could move.
+     */
+    private boolean movesInSort(@NonNull ListingIdsPage listingIdsPage, @NonNull ListingChange change) {
+        ListingField sort = listingIdsPage.sort();
+        if (sort == null) {
+            return true;
+        }
+        if (IMMUTABLE_SORT_FIELDS.contains(sort)) {
+            return false;
+        }
+        return sort == ListingField.DATE_UPDATED || change.values().containsKey(sort);
+    }
+
+    /**
+     * Checks if the changed listing could match the search. Fields whose value is not known are considered a match.
+     *
+     * @param search - {@link SearchListingDto} object.
+     * @param change - {@link ListingChange} object.
+     * @return - True if the listing could match the search.
+     */
+    private boolean matches(@NonNull SearchListingDto search, @NonNull ListingChange change) {
+        if (search.getSearchListingItems() == null) {
+            return true;
+        }
+        for (SearchListingItemDto item : search.getSearchListingItems()) {
+            String value = change.values().get(item.getField());
+            if (value != null && !itemMatches(item, value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the known value of the field could match the search item. Ranges of the text fields are compared
+     * by Elasticsearch in the byte order of the values and are considered a match.
+     *
+     * @param item  - {@link SearchListingItemDto} object.
+     * @param value - Value of the field of the changed listing.
+     * @return - True if the value could match the item.
+     */
+    private boolean itemMatches(@NonNull SearchListingItemDto item, @NonNull String value) {
+        ListingField field = item.getField();
+        return switch (item.getOperator()) {
+            case EQ -> valueMatches(field, value, item.getValue());
+            case IN -> item.getValues() == null || item.getValues().stream().anyMatch(searchValue -> valueMatches(field, value, searchValue));
+            case RANGE -> !NUMERIC_FIELDS.contains(field) || inRange(value, item.getFrom(), item.getTo());
+            case PREFIX -> item.getValue() == null || value.startsWith(item.getValue());
+            case EXISTS -> true;
+        };
+    }
+
+    private boolean valueMatches(@NonNull ListingField field, @NonNull String value, String searchValue) {
+        if (searchValue == null) {
+            return true;
+        }
+        if (NUMERIC_FIELDS.contains(field)) {
+            try {
+                return new BigDecimal(value.trim()).compareTo(new BigDecimal(searchValue.trim())) == 0;
+            } catch (NumberFormatException ex) {
+                return true;
+            }
+        }
+        return value.equals(searchValue);
+    }
+
+    private boolean inRange(@NonNull String value, String from, String to) {
+        try {
+            BigDecimal number = new BigDecimal(value.trim());
+            return (from == null || number.compareTo(new BigDecimal(from.trim())) >= 0)
+                    && (to == null || number.compareTo(new BigDecimal(to.trim())) <= 0);
+        } catch (NumberFormatException ex) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingCacheWarmUpProgress;
+import com.listings.listings.cache.ListingCacheWarmer;
+import com.listings.listings.cache.ListingSearchRecorder;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.RecordedSearch;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.service.ListingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the listing caches through the {@link ListingService}, so the pages are cached by the same keys as the
+ * pages requested by the clients. The first warm-up runs when the application is started, before it reports
+ * that it accepts traffic. The warm-ups after the ingestion run on their own executor, so that they do not hold
+ * up the {@link TaskScheduler} shared with the refreshes and the flow control.
+ */
+@Component
+@Slf4j
+public class DefaultListingCacheWarmer implements ListingCacheWarmer {
+
+    private final ListingService listingService;
+
+    private final ListingSearchRecorder listingSearchRecorder;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingsProperties.WarmUp warmUpProperties;
+
+    private final TrackTotalHits trackTotalHits;
+
+    private final ExecutorService executorService;
+
+    private final AtomicBoolean warm = new AtomicBoolean();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong ingestedWrites = new AtomicLong();
+
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final Timer warmUpTimer;
+
+    public DefaultListingCacheWarmer(ListingService listingService,
+                                     ListingSearchRecorder listingSearchRecorder,
+                                     TaskScheduler taskScheduler,
+                                     ListingsProperties listingsProperties,
+                                     MeterRegistry meterRegistry) {
+        this.listingService = listingService;
+        this.listingSearchRecorder = listingSearchRecorder;
+        this.taskScheduler = taskScheduler;
+        this.warmUpProperties = listingsProperties.getCache().getWarmUp();
+        this.trackTotalHits = listingsProperties.getElasticsearch().getTrackTotalHits();
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.warmUpTimer = Timer
+                .builder("listings.cache.warm-up")
+                .description("Time of the warm-ups of the listing caches")
+                .register(meterRegistry);
+        this.warm.set(!warmUpProperties.isEnabled());
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        warmUp();
+    }
+
+    @Override
+    public void warmUp() {
+        if (!warmUpProperties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            warmUpTimer.record(this::load);
+        } finally {
+            running.set(false);
+            warm.set(true);
+        }
+    }
+
+    @Override
+    public void onIngested(int writes) {
+        if (!warmUpProperties.isEnabled() || writes <= 0) {
+            return;
+        }
+        if (ingestedWrites.addAndGet(writes) >= warmUpProperties.getIngestThreshold() && scheduled.compareAndSet(false, true)) {
+            log.info(String.format("Scheduling warm-up of the listing caches after [%s] ingested writes", ingestedWrites.get()));
+            taskScheduler.schedule(() -> executorService.execute(() -> {
+                ingestedWrites.set(0);
+                scheduled.set(false);
+                warmUp();
+            }), Instant.now().plus(warmUpProperties.getIngestDelay()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Override
+    public ListingCacheWarmUpProgress getProgress() {
+        return new ListingCacheWarmUpProgress(warm.get(), running.get(), loaded.get(), failed.get(), total.get());
+    }
+
+    /**
+     * Loads the configured pages of all the listings and then the most requested search pages until all of them
+     * are loaded or the warm-up times out. The pages are counted the default way, as most of the requests are.
+     */
+    private void load() {
+        List<Runnable> loads = new ArrayList<>();
+        for (ListingsProperties.WarmUpPage page : warmUpProperties.getPages()) {
+            loads.add(() -> listingService.getAll(page.getPage(), page.getSize(), page.getSort(), page.getSortDirection(), trackTotalHits));
+        }
+        for (RecordedSearch search : getTopSearches()) {
+            loads.add(() -> listingService.searchAll(search.getSearch(), search.getPage(), search.getSize(), search.getSort(), search.getSortDirection(), trackTotalHits));
+        }
+
+        loaded.set(0);
+        failed.set(0);
+        total.set(loads.size());
+        log.info(String.format("Warming up the listing caches with [%s] pages", loads.size()));
+
+        Instant deadline = Instant.now().plus(warmUpProperties.getTimeout());
+        for (Runnable load : loads) {
+            if (Instant.now().isAfter(deadline)) {
+                log.warn(String.format("Warm-up of the listing caches timed out after [%s] of [%s] pages", loaded.get() + failed.get(), loads.size()));
+                return;
+            }
+            try {
+                load.run();
+                loaded.incrementAndGet();
+            } catch (RuntimeException ex) {
+                log.warn(String.format("Error on warming up a listing page. Error message [%s]", ex.getMessage()));
+                failed.incrementAndGet();
+            }
+        }
+        log.info(String.format("Warmed up the listing caches with [%s] pages. Failed pages [%s]", loaded.get(), failed.get()));
+    }
+
+    private List<RecordedSearch> getTopSearches() {
+        try {
+            return listingSearchRecorder.getTopSearches(warmUpProperties.getTopSearches());
+        } catch (RuntimeException ex) {
+            log.warn(String.format("Error on reading the recorded searches. Error message [%s]", ex.getMessage()));
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.listings.listings.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.mapper.ListingMapper;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.util.CacheConstants;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caffeine cache of the listings of the cached pages, bounded by their estimated size. The listings are only
+ * filled in by the multi-gets of the pages that miss them, the gets are real-time, so a listing evicted after
+ * a change is read in its changed version even before the listings index is refreshed.
+ */
+@Component
+@Slf4j
+public class DefaultListingEntityCache implements ListingEntityCache {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final ListingMapper listingMapper;
+
+    private final Cache<String, ListingDto> cache;
+
+    public DefaultListingEntityCache(ElasticsearchOperations elasticsearchOperations,
+                                     ListingMapper listingMapper,
+                                     ListingsProperties listingsProperties,
+                                     MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.listingMapper = listingMapper;
+        ListingsProperties.EntityCache entityCache = listingsProperties.getCache().getListings();
+        ListingPageWeigher weigher = new ListingPageWeigher();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(entityCache.getMaximumSize().toBytes())
+                .<String, ListingDto>weigher(weigher::weigh)
+                .expireAfterWrite(entityCache.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CacheConstants.LISTINGS_CACHE);
+    }
+
+    @Override
+    public ListingPage getListingPage(@NonNull ListingIdsPage listingIdsPage) {
+        Map<String, ListingDto> listings = cache.getAll(listingIdsPage.listingIds(), this::load);
+        List<ListingDto> content = new ArrayList<>(listingIdsPage.listingIds().size());
+        for (String listingId : listingIdsPage.listingIds()) {
+            ListingDto listing = listings.get(listingId);
+            if (listing == null) {
+                return null;
+            }
+            content.add(listing);
+        }
+        return listingIdsPage.toListingPage(content);
+    }
+
+    @Override
+    public void evict(@NonNull Collection<String> listingIds) {
+        cache.invalidateAll(listingIds);
+    }
+
+    /**
+     * Reads the listings that are not cached from the listings index with a single multi-get.
+     *
+     * @param listingIds - Ids of the listings that are not cached.
+     * @return - Map of the found listings by their ids. Listings that no longer exist are left out.
+     */
+    private Map<String, ListingDto> load(@NonNull Set<? extends String> listingIds) {
+        log.info(String.format("Getting [%s] listings that are not cached", listingIds.size()));
+        List<MultiGetItem<Listing>> items = elasticsearchOperations.multiGet(
+                NativeQuery.builder().withIds(List.copyOf(listingIds)).build(),
+                Listing.class,
+                IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+        );
+        Map<String, ListingDto> listings = new HashMap<>();
+        for (MultiGetItem<Listing> item : items) {
+            if (item.hasItem()) {
+                ListingDto listing = listingMapper.mapToListingDto(item.getItem());
+                listings.put(listing.getId(), listing);
+            }
+        }
+        return listings;
+    }
+}
@@ -0,0 +1,186 @@
+package com.listings.listings.cache.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.json.JsonData;
+import com.listings.listings.cache.ListingSearchRecorder;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.RecordedSearch;
+import com.listings.listings.data.repositories.RecordedSearchRepository;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the requested search pages in memory and periodically adds the counts to the recorded searches index
+ * with scripted upserts, so the counts of all the instances are summed up and survive the restarts. Requests
+ * counted while the counts are being recorded can be lost, the counts only have to be roughly right.
+ */
+@Component
+@Slf4j
+public class ElasticsearchListingSearchRecorder implements ListingSearchRecorder {
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    private final RecordedSearchRepository recordedSearchRepository;
+
+    private final SearchListingsKeyGenerator searchListingsKeyGenerator;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingsProperties.WarmUp warmUpProperties;
+
+    private final AtomicReference<Map<UUID, PendingSearch>> pendingSearches = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    private final Counter droppedSearches;
+
+    public ElasticsearchListingSearchRecorder(ElasticsearchClient elasticsearchClient,
+                                              ElasticsearchConverter elasticsearchConverter,
+                                              RecordedSearchRepository recordedSearchRepository,
+                                              SearchListingsKeyGenerator searchListingsKeyGenerator,
+                                              TaskScheduler taskScheduler,
+                                              ListingsProperties listingsProperties,
+                                              MeterRegistry meterRegistry) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchConverter = elasticsearchConverter;
+        this.recordedSearchRepository = recordedSearchRepository;
+        this.searchListingsKeyGenerator = searchListingsKeyGenerator;
+        this.taskScheduler = taskScheduler;
+        this.warmUpProperties = listingsProperties.getCache().getWarmUp();
+        this.droppedSearches = Counter
+                .builder("listings.cache.recorded.searches.dropped")
+                .description("Search requests that were not counted because too many distinct searches were pending")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void scheduleRecordings() {
+        if (warmUpProperties.isEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::flush, Instant.now().plus(warmUpProperties.getRecordInterval()), warmUpProperties.getRecordInterval());
+        }
+    }
+
+    @Override
+    public void record(@NonNull SearchListingDto search, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection) {
+        if (!warmUpProperties.isEnabled()) {
+            return;
+        }
+        UUID key = searchListingsKeyGenerator.generate(search, page, size, sort, sortDirection);
+        Map<UUID, PendingSearch> searches = pendingSearches.get();
+        PendingSearch pendingSearch = searches.get(key);
+        if (pendingSearch == null) {
+            if (searches.size() >= warmUpProperties.getMaxRecordedSearches()) {
+                droppedSearches.increment();
+                return;
+            }
+            pendingSearch = searches.computeIfAbsent(key, id -> new PendingSearch(RecordedSearch
+                    .builder()
+                    .id(id.toString())
+                    .search(search)
+                    .page(page)
+                    .size(size)
+                    .sort(sort)
+                    .sortDirection(sortDirection)
+                    .build(), new LongAdder()));
+        }
+        pendingSearch.count().increment();
+    }
+
+    @Override
+    public List<RecordedSearch> getTopSearches(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return recordedSearchRepository.findByLastRecordedAfter(
+                Instant.now().minus(warmUpProperties.getSearchRetention()),
+                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "count"))
+        );
+    }
+
+    /**
+     * Adds the counts of the searches requested since the last recording to the recorded searches index.
+     */
+    @PreDestroy
+    void flush() {
+        Map<UUID, PendingSearch> searches = pendingSearches.getAndSet(new ConcurrentHashMap<>());
+        if (searches.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        BulkRequest.Builder bulkRequest = new BulkRequest.Builder().index(ElasticSearchConstants.RECORDED_SEARCHES_INDEX_NAME);
+        searches.values().forEach(pendingSearch -> bulkRequest.operations(toBulkOperation(pendingSearch, now)));
+        try {
+            BulkResponse bulkResponse = elasticsearchClient.bulk(bulkRequest.build());
+            log.info(String.format("Recorded [%s] searches. Errors [%s]", searches.size(), bulkResponse.errors()));
+        } catch (ElasticsearchException | IOException ex) {
+            log.error(String.format("Error on recording [%s] searches. Error message [%s]", searches.size(), ex.getMessage()), ex);
+        }
+    }
+
+    /**
+     * Creates the upsert of the recorded search that adds the new requests to its count.
+     *
+     * @param pendingSearch - {@link PendingSearch} object.
+     * @param now           - Time of the recording.
+     * @return - {@link BulkOperation} object.
+     */
+    private BulkOperation toBulkOperation(@NonNull PendingSearch pendingSearch, @NonNull Instant now) {
+        long count = pendingSearch.count().sum();
+        RecordedSearch recordedSearch = pendingSearch.search();
+        recordedSearch.setCount(count);
+        recordedSearch.setLastRecorded(now);
+        Map<String, Object> document = new LinkedHashMap<>(elasticsearchConverter.mapObject(recordedSearch));
+        Script script = Script.of(builder -> builder
+                .inline(inline -> inline
+                        .lang("painless")
+                        .source(ElasticSearchConstants.RECORD_SEARCH_SCRIPT)
+                        .params(Map.of(
+                                "count", JsonData.of(count),
+                                "lastRecorded", JsonData.of(now.toEpochMilli())
+                        ))));
+        return BulkOperation.of(bulkOperation -> bulkOperation
+                .update(update -> update
+                        .id(recordedSearch.getId())
+                        .retryOnConflict(ElasticSearchConstants.RETRY_ON_CONFLICT)
+                        .action(action -> action
+                                .script(script)
+                                .upsert(document))));
+    }
+
+    /**
+     * Search requested on this instance since the last recording.
+     *
+     * @param search - {@link RecordedSearch} object without the count.
+     * @param count  - Number of the requests of the search.
+     */
+    private record PendingSearch(RecordedSearch search, LongAdder count) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingCacheWarmUpProgress;
+import com.listings.listings.cache.ListingCacheWarmer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the instance out of service until the first warm-up of the listing caches has finished. It is part of
+ * the readiness group, so the instance gets no traffic with cold caches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingCacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final ListingCacheWarmer listingCacheWarmer;
+
+    @Override
+    public Health health() {
+        ListingCacheWarmUpProgress progress = listingCacheWarmer.getProgress();
+        Health.Builder health = progress.warm() ? Health.up() : Health.outOfService();
+        return health
+                .withDetail("running", progress.running())
+                .withDetail("loaded", progress.loaded())
+                .withDetail("failed", progress.failed())
+                .withDetail("total", progress.total())
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.listings.listings.cache.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Asynchronous Caffeine cache of the listing pages that holds only the ids of the listings of each page and reads
+ * the listings from the {@link ListingEntityCache}. A page whose listing no longer exists is evicted and loaded
+ * again. Other values, like the facets of the searches, are held as they are. The cache counts the reads of the
+ * entries that are older than its refresh-after-write time. Such entries are returned as they are while they are
+ * reloaded.
+ */
+public class ListingPageCache extends CaffeineCache {
+
+    private final ListingEntityCache listingEntityCache;
+
+    private final Counter staleReads;
+
+    public ListingPageCache(@NonNull String name, @NonNull AsyncCache<Object, Object> cache, @NonNull ListingEntityCache listingEntityCache,
+                            @NonNull MeterRegistry meterRegistry) {
+        super(name, cache, true);
+        this.listingEntityCache = listingEntityCache;
+        this.staleReads = Counter.builder("listings.cache.stale.reads")
+                .description("Number of the cached listing pages served while they are stale")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        recordStaleRead(key);
+        return get(key, valueLoader, true);
+    }
+
+    @Override
+    protected Object lookup(@NonNull Object key) {
+        recordStaleRead(key);
+        Object cached = super.lookup(key);
+        Object value = fromCachedValue(cached);
+        if (value == null && cached != null) {
+            evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        super.put(key, toCachedValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, toCachedValue(value));
+        return existing == null ? null : toValueWrapper(fromCachedValue(existing.get()));
+    }
+
+    /**
+     * Returns the cached page or loads it. The caller that loads the page gets the loaded listings, the callers
+     * that find the page cached get the listings of the entity cache.
+     *
+     * @param key         - Key of the page.
+     * @param valueLoader - Loader of the page.
+     * @param retry       - Whether the page is evicted and loaded again if any of its listings no longer exists.
+     * @return - Cached or loaded page.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Callable<T> valueLoader, boolean retry) {
+        AtomicReference<T> loaded = new AtomicReference<>();
+        Object cached = super.get(key, () -> {
+            T value = valueLoader.call();
+            loaded.set(value);
+            return toCachedValue(value);
+        });
+        if (loaded.get() != null) {
+            return loaded.get();
+        }
+        Object value = fromCachedValue(cached);
+        if (value == null && cached != null) {
+            evict(key);
+            if (retry) {
+                return get(key, valueLoader, false);
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }
+        return (T) value;
+    }
+
+    private Object toCachedValue(Object value) {
+        return value instanceof ListingPage listingPage ? ListingIdsPage.of(listingPage) : value;
+    }
+
+    private Object fromCachedValue(Object cached) {
+        return cached instanceof ListingIdsPage listingIdsPage ? listingEntityCache.getListingPage(listingIdsPage) : cached;
+    }
+
+    private void recordStaleRead(Object key) {
+        getNativeCache().policy().refreshAfterWrite().ifPresent(refresh -> {
+            Duration age = refresh.ageOf(key).orElse(Duration.ZERO);
+            if (age.compareTo(refresh.getRefreshesAfter()) >= 0) {
+                staleReads.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.listings.listings.cache.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.rest.dto.listing.ListingFacets;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Reloads the listing pages and facets whose refresh-after-write time has passed. The pages are not loaded on a miss,
+ * the cached method computes and puts them, so only the refresh of an existing page goes through this loader.
+ * Only the ids of the reloaded page are kept, its listings are read by the {@link ListingPageCache} when they
+ * are not cached.
+ */
+public class ListingPageCacheLoader implements CacheLoader<Object, Object> {
+
+    private final ObjectProvider<ListingPageLoader> listingPageLoader;
+
+    private final Timer refreshTimer;
+
+    public ListingPageCacheLoader(@NonNull String cacheName, @NonNull ObjectProvider<ListingPageLoader> listingPageLoader, @NonNull MeterRegistry meterRegistry) {
+        this.listingPageLoader = listingPageLoader;
+        this.refreshTimer = Timer.builder("listings.cache.refresh")
+                .description("Time of the background reloads of the cached listing pages")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object load(@NonNull Object key) {
+        return null;
+    }
+
+    @Override
+    public Object reload(@NonNull Object key, @NonNull Object oldValue) {
+        return switch (oldValue) {
+            case ListingIdsPage listingIdsPage -> refreshTimer.record(() -> ListingIdsPage.of(listingPageLoader.getObject().reload(listingIdsPage)));
+            case ListingFacets listingFacets -> refreshTimer.record(() -> listingPageLoader.getObject().reload(listingFacets));
+            default -> null;
+        };
+    }
+}
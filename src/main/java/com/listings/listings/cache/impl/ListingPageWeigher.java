@@ -0,0 +1,114 @@
+package com.listings.listings.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.rest.dto.listing.ContactInfoDto;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingFacetBucket;
+import com.listings.listings.rest.dto.listing.ListingFacets;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Weighs the cached listing pages and listings by their estimated size on the heap in bytes. The estimate counts
+ * the fixed size of the page, its listing ids and the listings and the length of their strings, so the search pages
+ * with long values or large page sizes take more of the cache than the small ones.
+ */
+public class ListingPageWeigher implements Weigher<Object, Object> {
+
+    /**
+     * Estimated size of the page object, its key and the cache entry.
+     */
+    static final int PAGE_BYTES = 256;
+
+    /**
+     * Estimated size of a listing without its strings: the listing, its contact info, dates, numbers and the
+     * headers of its strings.
+     */
+    static final int LISTING_BYTES = 384;
+
+    /**
+     * Estimated size of a string of a page, a listing id or a value of the in operator, without its characters.
+     */
+    static final int STRING_BYTES = 48;
+
+    /**
+     * Estimated size of a facet bucket without its key.
+     */
+    static final int BUCKET_BYTES = 96;
+
+    /**
+     * Estimated size of a search item without its value.
+     */
+    static final int SEARCH_ITEM_BYTES = 64;
+
+    @Override
+    public int weigh(@NonNull Object key, @NonNull Object value) {
+        long bytes = switch (value) {
+            case ListingIdsPage listingIdsPage -> weigh(listingIdsPage);
+            case ListingFacets listingFacets -> weigh(listingFacets);
+            case ListingDto listing -> weigh(listing);
+            default -> PAGE_BYTES;
+        };
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private long weigh(ListingIdsPage listingIdsPage) {
+        long bytes = PAGE_BYTES;
+        if (listingIdsPage.listingIds() != null) {
+            for (String listingId : listingIdsPage.listingIds()) {
+                bytes += STRING_BYTES + length(listingId);
+            }
+        }
+        return bytes + weigh(listingIdsPage.search());
+    }
+
+    private long weigh(ListingFacets listingFacets) {
+        long bytes = PAGE_BYTES;
+        if (listingFacets.getFacets() != null) {
+            for (List<ListingFacetBucket> buckets : listingFacets.getFacets().values()) {
+                for (ListingFacetBucket bucket : buckets) {
+                    bytes += BUCKET_BYTES + length(bucket.getKey());
+                }
+            }
+        }
+        return bytes + weigh(listingFacets.getSearch());
+    }
+
+    private long weigh(SearchListingDto search) {
+        long bytes = 0;
+        if (search != null && search.getSearchListingItems() != null) {
+            for (SearchListingItemDto item : search.getSearchListingItems()) {
+                bytes += SEARCH_ITEM_BYTES + length(item.getValue()) + length(item.getFrom()) + length(item.getTo());
+                if (item.getValues() != null) {
+                    for (String value : item.getValues()) {
+                        bytes += STRING_BYTES + length(value);
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private long weigh(ListingDto listing) {
+        if (listing == null) {
+            return 0;
+        }
+        long bytes = LISTING_BYTES + length(listing.getId()) + length(listing.getMake()) + length(listing.getModel());
+        ContactInfoDto contactInfo = listing.getContactInfo();
+        if (contactInfo != null) {
+            bytes += length(contactInfo.getFirstName())
+                    + length(contactInfo.getLastName())
+                    + length(contactInfo.getEmail())
+                    + length(contactInfo.getPhoneNumber());
+        }
+        return bytes;
+    }
+
+    private int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,237 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import com.listings.listings.rest.dto.listing.SearchOperator;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.util.CacheConstants;
+import lombok.NonNull;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generates the keys of the search pages from the canonical form of the search, so the searches that differ only
+ * in the order of their items or in duplicate items share the cached page. The canonical form is hashed with
+ * SHA-256 into a 128-bit {@link UUID}. A collision would return the page of another search, so a cryptographic
+ * hash is used to keep it from being crafted. The keys of the facets of a search hash the requested facets instead
+ * of the page.
+ */
+@Component(CacheConstants.SEARCH_LISTINGS_KEY_GENERATOR)
+public class SearchListingsKeyGenerator implements KeyGenerator {
+
+    private static final Set<ListingField> NUMERIC_FIELDS = Set.of(ListingField.PRODUCTION_YEAR, ListingField.MILEAGE);
+
+    private static final Comparator<List<String>> VALUES_ORDER = (first, second) -> {
+        for (int i = 0; i < Math.min(first.size(), second.size()); i++) {
+            int order = first.get(i).compareTo(second.get(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(first.size(), second.size());
+    };
+
+    private static final Comparator<SearchListingItemDto> ITEM_ORDER = Comparator
+            .comparing(SearchListingItemDto::getField, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SearchListingItemDto::getOperator)
+            .thenComparing(SearchListingItemDto::getValue, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SearchListingItemDto::getValues, Comparator.nullsFirst(VALUES_ORDER))
+            .thenComparing(SearchListingItemDto::getFrom, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SearchListingItemDto::getTo, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object generate(@NonNull Object target, @NonNull Method method, Object... params) {
+        if (params.length == 2 && params[0] instanceof SearchListingDto search && params[1] instanceof Collection<?> facets) {
+            return generate(search, (Collection<ListingFacet>) facets);
+        }
+        if (params.length != 6 || !(params[0] instanceof SearchListingDto search)) {
+            throw new IllegalArgumentException(String.format("Method [%s] is not a search of the listings", method.getName()));
+        }
+        return generate(search, (Integer) params[1], (Integer) params[2], (ListingField) params[3], (Sort.Direction) params[4], (TrackTotalHits) params[5]);
+    }
+
+    /**
+     * Generates the key of the search page regardless of how its listings are counted.
+     *
+     * @param search        - {@link SearchListingDto} object.
+     * @param page          - Page number.
+     * @param size          - Page size.
+     * @param sort          - Sort param.
+     * @param sortDirection - Sort direction.
+     * @return - {@link UUID} representing the hash of the canonical search and the page.
+     */
+    public UUID generate(@NonNull SearchListingDto search, Integer page, Integer size, ListingField sort, Sort.Direction sortDirection) {
+        return generate(search, page, size, sort, sortDirection, null);
+    }
+
+    /**
+     * Generates the key of the search page.
+     *
+     * @param search         - {@link SearchListingDto} object.
+     * @param page           - Page number.
+     * @param size           - Page size.
+     * @param sort           - Sort param.
+     * @param sortDirection  - Sort direction.
+     * @param trackTotalHits - {@link TrackTotalHits} the listings of the page are counted with. Null for any.
+     * @return - {@link UUID} representing the hash of the canonical search, the page and the counting.
+     */
+    public UUID generate(@NonNull SearchListingDto search, Integer page, Integer size, ListingField sort, Sort.Direction sortDirection,
+                         TrackTotalHits trackTotalHits) {
+        MessageDigest digest = sha256();
+        try (DataOutputStream output = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            writeString(output, String.valueOf(page));
+            writeString(output, String.valueOf(size));
+            writeString(output, sort == null ? null : sort.name());
+            writeString(output, sortDirection == null ? null : sortDirection.name());
+            if (trackTotalHits != null) {
+                writeString(output, "trackTotalHits");
+                writeString(output, trackTotalHits.toString());
+            }
+            writeItems(output, search);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return toUuid(digest);
+    }
+
+    /**
+     * Generates the key of the facets of the search.
+     *
+     * @param search - {@link SearchListingDto} object.
+     * @param facets - Collection of the requested {@link ListingFacet} values.
+     * @return - {@link UUID} representing the hash of the canonical search and the facets.
+     */
+    public UUID generate(@NonNull SearchListingDto search, @NonNull Collection<ListingFacet> facets) {
+        MessageDigest digest = sha256();
+        try (DataOutputStream output = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            writeString(output, "facets");
+            List<ListingFacet> sortedFacets = facets.stream().distinct().sorted().toList();
+            output.writeInt(sortedFacets.size());
+            for (ListingFacet facet : sortedFacets) {
+                writeString(output, facet.name());
+            }
+            writeItems(output, search);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return toUuid(digest);
+    }
+
+    /**
+     * Returns the items of the search sorted by their field, operator and values, without the duplicates and with
+     * the numeric values in their canonical form. Only the values used by the operator are kept, the values of the
+     * in operator are sorted and an in operator with a single value is the same as the eq operator. The values of
+     * the other fields are not case-folded because all of them are mapped as keywords, which are matched
+     * case-sensitively.
+     *
+     * @param search - {@link SearchListingDto} object.
+     * @return - List of the canonical {@link SearchListingItemDto} objects.
+     */
+    List<SearchListingItemDto> canonicalItems(@NonNull SearchListingDto search) {
+        if (search.getSearchListingItems() == null) {
+            return List.of();
+        }
+        return search.getSearchListingItems()
+                .stream()
+                .map(this::canonicalItem)
+                .sorted(ITEM_ORDER)
+                .distinct()
+                .toList();
+    }
+
+    private SearchListingItemDto canonicalItem(SearchListingItemDto item) {
+        ListingField field = item.getField();
+        SearchListingItemDto.SearchListingItemDtoBuilder canonical = SearchListingItemDto.builder().field(field).operator(item.getOperator());
+        switch (item.getOperator()) {
+            case EQ, PREFIX -> canonical.value(canonicalValue(field, item.getValue()));
+            case IN -> {
+                List<String> values = item.getValues() == null
+                        ? List.of()
+                        : item.getValues().stream().map(value -> canonicalValue(field, value)).filter(Objects::nonNull).distinct().sorted().toList();
+                if (values.size() == 1) {
+                    canonical.operator(SearchOperator.EQ).value(values.get(0));
+                } else {
+                    canonical.values(values);
+                }
+            }
+            case RANGE -> canonical.from(canonicalValue(field, item.getFrom())).to(canonicalValue(field, item.getTo()));
+            case EXISTS -> {
+            }
+        }
+        return canonical.build();
+    }
+
+    private String canonicalValue(ListingField field, String value) {
+        if (value == null || !NUMERIC_FIELDS.contains(field)) {
+            return value;
+        }
+        try {
+            return new BigInteger(value).toString();
+        } catch (NumberFormatException ex) {
+            return value;
+        }
+    }
+
+    private void writeItems(DataOutputStream output, SearchListingDto search) throws IOException {
+        List<SearchListingItemDto> items = canonicalItems(search);
+        output.writeInt(items.size());
+        for (SearchListingItemDto item : items) {
+            writeString(output, item.getField() == null ? null : item.getField().name());
+            writeString(output, item.getOperator().name());
+            writeString(output, item.getValue());
+            output.writeInt(item.getValues() == null ? -1 : item.getValues().size());
+            if (item.getValues() != null) {
+                for (String value : item.getValues()) {
+                    writeString(output, value);
+                }
+            }
+            writeString(output, item.getFrom());
+            writeString(output, item.getTo());
+        }
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private UUID toUuid(MessageDigest digest) {
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new UUID(hash.getLong(), hash.getLong());
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
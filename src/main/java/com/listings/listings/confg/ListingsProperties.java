@@ -0,0 +1,477 @@
+package com.listings.listings.confg;
+
+import com.listings.listings.cache.ListingCacheMode;
+import com.listings.listings.data.refresh.RefreshStrategy;
+import com.listings.listings.data.writer.ListingWriteExecutionMode;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.util.KafkaConstants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "listings")
+public class ListingsProperties {
+
+    private Kafka kafka = new Kafka();
+
+    private Elasticsearch elasticsearch = new Elasticsearch();
+
+    private Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Kafka {
+
+        private Topic topic = new Topic();
+
+        private Producer producer = new Producer();
+
+        private Retry retry = new Retry();
+
+        private Batch batch = new Batch();
+
+        private Flow flow = new Flow();
+    }
+
+    @Getter
+    @Setter
+    public static class Topic {
+
+        /**
+         * Number of partitions of the listings topic. Partitions are the unit of parallelism of the consumers.
+         */
+        private int partitions = 6;
+
+        /**
+         * Replication factor of the listings topic.
+         */
+        private short replicationFactor = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Producer {
+
+        /**
+         * Whether the listing events are sent without waiting for the broker to acknowledge them.
+         */
+        private boolean async = true;
+
+        /**
+         * Content type the listing events are encoded with. Consumed events are decoded by the content type
+         * header of the record, so the producers can be switched once all the consumers know the new one. JSON by
+         * default, Smile is opted into with its content type.
+         */
+        private String contentType = KafkaConstants.JSON_CONTENT_TYPE;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Number of delivery attempts of a failed listing event, including the first one, before it is sent
+         * to the dead-letter topic.
+         */
+        private int attempts = 4;
+
+        /**
+         * Delay in milliseconds before the first retry.
+         */
+        private long delay = 1000;
+
+        /**
+         * Multiplier of the delay for every next retry.
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Maximum delay in milliseconds between the retries.
+         */
+        private long maxDelay = 30000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        /**
+         * Whether the listings topic is consumed by the batch listener instead of the record listener.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of records returned by a single poll (max.poll.records).
+         */
+        private int maxPollRecords = 500;
+
+        /**
+         * Minimum amount of data the broker should collect before answering a fetch (fetch.min.bytes).
+         */
+        private int fetchMinBytes = 1024;
+
+        /**
+         * Maximum time the broker waits for fetch.min.bytes to be collected (fetch.max.wait.ms).
+         */
+        private Duration maxWait = Duration.ofMillis(500);
+
+        /**
+         * Time to wait before the records that failed with a retryable error are redelivered.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * How the operations of the batch are applied to the listings index.
+         */
+        private ListingWriteExecutionMode executionMode = ListingWriteExecutionMode.BULK;
+
+        /**
+         * Maximum number of writes in flight when the batch is applied in the parallel execution mode.
+         */
+        private int parallelism = 64;
+
+        /**
+         * Whether the events of the same listing within a batch are collapsed into a single write.
+         */
+        private boolean compaction = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Flow {
+
+        /**
+         * Whether the batch size and the consumption follow the capacity of Elasticsearch.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Latency of a write request above which Elasticsearch is considered overloaded.
+         */
+        private Duration targetLatency = Duration.ofMillis(500);
+
+        /**
+         * Share of the writes of a request that may be rejected before Elasticsearch is considered overloaded.
+         */
+        private double rejectionThreshold = 0.0;
+
+        /**
+         * Smallest number of writes sent to Elasticsearch at once.
+         */
+        private int minBatchSize = 10;
+
+        /**
+         * Number of writes the batch size grows by after every write request that was not overloaded.
+         */
+        private int increaseStep = 10;
+
+        /**
+         * Factor the batch size is multiplied by after an overloaded write request.
+         */
+        private double decreaseFactor = 0.5;
+
+        /**
+         * Pause of the consumption after the writes were rejected.
+         */
+        private Duration pause = Duration.ofSeconds(1);
+
+        /**
+         * Maximum pause of the consumption while Elasticsearch keeps rejecting the writes.
+         */
+        private Duration maxPause = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Elasticsearch {
+
+        private Refresh refresh = new Refresh();
+
+        private Existence existence = new Existence();
+
+        private Facets facets = new Facets();
+
+        private Cursor cursor = new Cursor();
+
+        private Export export = new Export();
+
+        private Tombstones tombstones = new Tombstones();
+
+        /**
+         * How the listings of the pages are counted when the request does not say: exact, none or the number of
+         * the listings counted exactly before the total becomes a lower bound. Bounded or no counts let the
+         * searches stop early.
+         */
+        private TrackTotalHits trackTotalHits = TrackTotalHits.EXACT;
+    }
+
+    @Getter
+    @Setter
+    public static class Refresh {
+
+        /**
+         * How the writes to the listings index are made visible to searches.
+         */
+        private RefreshStrategy strategy = RefreshStrategy.COALESCED;
+
+        /**
+         * Interval of the explicit refreshes when the coalesced strategy is used.
+         */
+        private Duration interval = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Existence {
+
+        /**
+         * Whether the in-memory filter of the listing ids is kept. It tracks which updates and deletes target
+         * listings the instance has not seen, the writes themselves are always sent.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Minimum number of listing ids the filter is sized for. The filter is sized for twice the number of
+         * the listings in the index if that is larger.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * False positive rate of the filter once the expected number of listing ids is inserted.
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Interval of the rebuilds of the filter that drop the deleted listings from it.
+         */
+        private Duration rebuildInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Facets {
+
+        /**
+         * Maximum number of the buckets of the make, model, fuel type and transmission type facets. The values with
+         * the most listings are returned.
+         */
+        private int termsSize = 20;
+
+        /**
+         * Number of the production years counted together by the production year facet.
+         */
+        private int productionYearInterval = 1;
+
+        /**
+         * Bounds of the ranges of the mileage facet. The first range starts at zero and the last one is open.
+         */
+        private List<Long> mileageRanges = new ArrayList<>(List.of(25000L, 50000L, 100000L, 150000L, 200000L));
+    }
+
+    @Getter
+    @Setter
+    public static class Cursor {
+
+        /**
+         * Time the point in time of a cursor is kept open after each page. A cursor that is not used for longer
+         * than this time fails.
+         */
+        private Duration keepAlive = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+
+        /**
+         * Number of the slices of the listings index that are read in parallel by an export.
+         */
+        private int slices = 4;
+
+        /**
+         * Number of the listings read by a single search of a slice.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Time the point in time of an export is kept open after each search. A broken export can be resumed from
+         * its cursor only within this time, after that it has to be started again.
+         */
+        private Duration keepAlive = Duration.ofMinutes(15);
+    }
+
+    @Getter
+    @Setter
+    public static class Tombstones {
+
+        /**
+         * Time the tombstone of a deleted listing is kept. It has to be longer than the time a retried or dead-letter
+         * event can still be replayed, which is bounded by the retention of the dead-letter topic.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Interval of the removals of the tombstones older than the retention.
+         */
+        private Duration cleanupInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /**
+         * Maximum estimated size of the listing pages held by each of the listing caches. The least valuable
+         * pages are evicted once it is reached.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Expiration of the pages of all the listings. Their first page is requested the most and is served
+         * stale while it is reloaded by default.
+         */
+        private CacheSpec allListings = new CacheSpec(ListingCacheMode.STALE_WHILE_REVALIDATE, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+        /**
+         * Expiration of the search pages.
+         */
+        private CacheSpec searchListings = new CacheSpec(ListingCacheMode.EXPIRE, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+        /**
+         * Expiration of the facets of the searches.
+         */
+        private CacheSpec searchFacets = new CacheSpec(ListingCacheMode.EXPIRE, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+        /**
+         * Listings of the cached pages. The pages only hold the ids of their listings.
+         */
+        private EntityCache listings = new EntityCache();
+
+        private WarmUp warmUp = new WarmUp();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+
+        /**
+         * How the entries of the cache are expired and reloaded.
+         */
+        private ListingCacheMode mode = ListingCacheMode.EXPIRE;
+
+        /**
+         * Time after which a cached listing page is expired. It is the longest a page can be served for.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * Time after which a cached listing page is served stale and reloaded in the background on its next read.
+         * Only used by the stale-while-revalidate mode.
+         */
+        private Duration refreshAfterWrite = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class EntityCache {
+
+        /**
+         * Maximum estimated size of the cached listings. The least valuable listings are evicted once it is reached.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Time after which a cached listing is read from the listings index again. It bounds how long the changes
+         * consumed by the other instances can take to show on the pages of this one.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class WarmUp {
+
+        /**
+         * Whether the listing caches are loaded before the instance reports ready and after large ingest batches.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Pages of all the listings that are loaded by the warm-up.
+         */
+        private List<WarmUpPage> pages = new ArrayList<>(List.of(new WarmUpPage()));
+
+        /**
+         * Number of the most requested search pages that are loaded by the warm-up.
+         */
+        private int topSearches = 50;
+
+        /**
+         * Only the searches requested within this time are loaded by the warm-up.
+         */
+        private Duration searchRetention = Duration.ofDays(7);
+
+        /**
+         * Time after which the warm-up stops loading pages. The instance reports ready once it stops.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * Number of the listing writes of the batch listener after which the caches are loaded again.
+         */
+        private int ingestThreshold = 1000;
+
+        /**
+         * Delay of the warm-up after the ingest threshold is reached, so that the writes are visible to searches.
+         */
+        private Duration ingestDelay = Duration.ofSeconds(5);
+
+        /**
+         * Interval in which the searches requested on this instance are added to the recorded searches.
+         */
+        private Duration recordInterval = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of the distinct searches counted on this instance between two recordings.
+         */
+        private int maxRecordedSearches = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class WarmUpPage {
+
+        /**
+         * Page number.
+         */
+        private int page = 0;
+
+        /**
+         * Page size.
+         */
+        private int size = 10;
+
+        /**
+         * Sort param.
+         */
+        private ListingField sort = ListingField.DATE_CREATED;
+
+        /**
+         * Sort direction.
+         */
+        private Sort.Direction sortDirection = Sort.Direction.ASC;
+    }
+}
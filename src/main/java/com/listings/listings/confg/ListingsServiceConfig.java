@@ -3,20 +3,48 @@ package com.listings.listings.confg;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.listings.listings.cache.ListingCacheMode;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.cache.impl.ListingPageCache;
+import com.listings.listings.cache.impl.ListingPageCacheLoader;
+import com.listings.listings.cache.impl.ListingPageWeigher;
+import com.listings.listings.util.CacheConstants;
+import com.listings.listings.util.KafkaConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableElasticsearchRepositories
 @EnableKafka
 @EnableCaching
+@EnableScheduling
+@EnableConfigurationProperties(ListingsProperties.class)
 public class ListingsServiceConfig {
 
     @Bean
@@ -28,8 +56,42 @@ public class ListingsServiceConfig {
     }
 
     @Bean
-    public NewTopic unfilteredDataTopic() {
-        return new NewTopic("listings", 1, (short) 1);
+    public NewTopic unfilteredDataTopic(ListingsProperties listingsProperties) {
+        ListingsProperties.Topic topic = listingsProperties.getKafka().getTopic();
+        return new NewTopic(KafkaConstants.LISTINGS_TOPIC, topic.getPartitions(), topic.getReplicationFactor());
+    }
+
+    @Bean(name = KafkaConstants.BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            ListingsProperties listingsProperties) {
+        ListingsProperties.Batch batch = listingsProperties.getKafka().getBatch();
+
+        Map<String, Object> consumerProperties = new HashMap<>(consumerFactory.getConfigurationProperties());
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batch.getMaxPollRecords());
+        consumerProperties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batch.getFetchMinBytes());
+        consumerProperties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) batch.getMaxWait().toMillis());
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(consumerProperties));
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    @Bean
+    public CacheManager cacheManager(ListingsProperties listingsProperties, ObjectProvider<ListingPageLoader> listingPageLoader,
+                                     ListingEntityCache listingEntityCache, MeterRegistry meterRegistry) {
+        ListingsProperties.Cache cache = listingsProperties.getCache();
+        Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                listingPageCache(CacheConstants.ALL_LISTINGS_CACHE, cache.getAllListings(), cache, executor, listingPageLoader, listingEntityCache, meterRegistry),
+                listingPageCache(CacheConstants.SEARCH_LISTINGS_CACHE, cache.getSearchListings(), cache, executor, listingPageLoader, listingEntityCache, meterRegistry),
+                listingPageCache(CacheConstants.SEARCH_FACETS_CACHE, cache.getSearchFacets(), cache, executor, listingPageLoader, listingEntityCache, meterRegistry)
+        ));
+        return cacheManager;
     }
 
     @Bean
@@ -42,4 +104,31 @@ public class ListingsServiceConfig {
                         .license(new License().name("Apache 2.0")
                                 .url("http://springdoc.org")));
     }
+
+    /**
+     * Creates the asynchronous Caffeine cache of the ids of the listing pages that is bounded by the estimated size of the pages.
+     *
+     * @param name               - Name of the cache.
+     * @param cacheSpec          - {@link ListingsProperties.CacheSpec} object with the expiration of the cache.
+     * @param cache              - {@link ListingsProperties.Cache} object with the properties shared by the caches.
+     * @param executor           - {@link Executor} the pages are loaded and reloaded on.
+     * @param listingPageLoader  - Provider of the {@link ListingPageLoader} the stale pages are reloaded with.
+     * @param listingEntityCache - {@link ListingEntityCache} the listings of the pages are read from.
+     * @param meterRegistry      - {@link MeterRegistry} object.
+     * @return - {@link ListingPageCache} object.
+     */
+    private ListingPageCache listingPageCache(String name, ListingsProperties.CacheSpec cacheSpec, ListingsProperties.Cache cache, Executor executor,
+                                              ObjectProvider<ListingPageLoader> listingPageLoader, ListingEntityCache listingEntityCache,
+                                              MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumWeight(cache.getMaximumSize().toBytes())
+                .weigher(new ListingPageWeigher())
+                .expireAfterWrite(cacheSpec.getExpireAfterWrite())
+                .recordStats()
+                .executor(executor);
+        if (cacheSpec.getMode() == ListingCacheMode.STALE_WHILE_REVALIDATE) {
+            caffeine.refreshAfterWrite(cacheSpec.getRefreshAfterWrite());
+        }
+        return new ListingPageCache(name, caffeine.buildAsync(new ListingPageCacheLoader(name, listingPageLoader, meterRegistry)), listingEntityCache, meterRegistry);
+    }
 }
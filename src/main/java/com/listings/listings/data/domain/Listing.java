@@ -23,17 +23,17 @@ public class Listing {
     @Id
     @Field(type = FieldType.Keyword)
     private String id;
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, eagerGlobalOrdinals = true)
     private String make;
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, eagerGlobalOrdinals = true)
     private String model;
     @Field(type = FieldType.Integer)
     private Integer productionYear;
     @Field(type = FieldType.Long)
     private Long mileage;
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, eagerGlobalOrdinals = true)
     private TransmissionType transmissionType;
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, eagerGlobalOrdinals = true)
     private FuelType fuelType;
     @Field(type = FieldType.Object)
     private ContactInfo contactInfo;
@@ -41,4 +41,6 @@ public class Listing {
     private LocalDate dateCreated;
     @Field(type = FieldType.Date, format = DateFormat.basic_date, pattern = "dd.MM.uuuu")
     private LocalDate dateUpdated;
+    @Field(type = FieldType.Long)
+    private Long eventVersion;
 }
@@ -0,0 +1,35 @@
+package com.listings.listings.data.domain;
+
+import com.listings.listings.util.ElasticSearchConstants;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.Instant;
+
+/**
+ * Version of the last delete event of a listing. A deleted listing leaves no document in the listings index that
+ * the version of a replayed create could be checked against, so the version of every delete is kept here. The id
+ * is the id of the deleted listing. Tombstones are removed once the delete is older than any event that can still
+ * be retried or replayed.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Document(indexName = ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+public class ListingTombstone {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+    @Field(type = FieldType.Long)
+    private Long eventVersion;
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Instant deletedAt;
+}
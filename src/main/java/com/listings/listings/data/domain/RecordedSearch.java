@@ -0,0 +1,47 @@
+package com.listings.listings.data.domain;
+
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.util.ElasticSearchConstants;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.Instant;
+
+/**
+ * Search page requested by the clients together with the number of its requests. The id is the key of the
+ * search page in the search listings cache.
+ */
+@Builder
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Document(indexName = ElasticSearchConstants.RECORDED_SEARCHES_INDEX_NAME)
+public class RecordedSearch {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+    @Field(type = FieldType.Object, enabled = false)
+    private SearchListingDto search;
+    @Field(type = FieldType.Integer)
+    private Integer page;
+    @Field(type = FieldType.Integer)
+    private Integer size;
+    @Field(type = FieldType.Keyword)
+    private ListingField sort;
+    @Field(type = FieldType.Keyword)
+    private Sort.Direction sortDirection;
+    @Field(type = FieldType.Long)
+    private Long count;
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Instant lastRecorded;
+}
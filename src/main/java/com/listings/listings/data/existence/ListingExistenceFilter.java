@@ -0,0 +1,47 @@
+package com.listings.listings.data.existence;
+
+import lombok.NonNull;
+
+public interface ListingExistenceFilter {
+
+    /**
+     * Checks if the listing may be stored in the listings index. The filter is local to the instance, so a
+     * negative answer only means that the listing was not seen by it since the last rebuild. The listings created
+     * by the retry topics on other instances or written to the index directly are missing until the next rebuild,
+     * so the answer is a hint and an update or delete is never dropped because of it. A positive answer may be
+     * wrong with a small probability. Every listing may exist while the filter is being built.
+     *
+     * @param listingId - Id of the listing.
+     * @return - False if the listing was not seen by the filter.
+     */
+    boolean mightExist(@NonNull String listingId);
+
+    /**
+     * Adds the created listing to the filter.
+     *
+     * @param listingId - Id of the created listing.
+     */
+    void onCreated(@NonNull String listingId);
+
+    /**
+     * Records that a listing which was missing from the filter was found in the listings index and adds it to the
+     * filter, so that the misses of the listings the filter did not see can be tracked.
+     *
+     * @param listingId - Id of the listing that was found.
+     */
+    void onFound(@NonNull String listingId);
+
+    /**
+     * Records that a listing which might exist according to the filter was not found in the listings index,
+     * so that the observed false positive rate of the filter can be tracked.
+     *
+     * @param listingId - Id of the listing that was not found.
+     */
+    void onNotFound(@NonNull String listingId);
+
+    /**
+     * Schedules a rebuild of the filter from the listings index. Until the rebuild is done every listing
+     * may exist.
+     */
+    void scheduleRebuild();
+}
@@ -0,0 +1,107 @@
+package com.listings.listings.data.existence.impl;
+
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe Bloom filter of strings. The bit positions of an element are derived from two 64 bit hashes
+ * of its UTF-8 bytes with double hashing.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        this.bits = new AtomicLongArray((int) Math.ceil(bitSize / 64.0));
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Creates the filter with the optimal number of bits and hash functions for the expected number of elements
+     * and the false positive rate.
+     *
+     * @param expectedInsertions - Expected number of elements.
+     * @param falsePositiveRate  - Wanted false positive rate once the expected number of elements is inserted.
+     * @return - {@link BloomFilter} object.
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1, expectedInsertions);
+        long bitSize = Math.max(64, (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / insertions * Math.log(2)));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    void put(@NonNull String element) {
+        long[] hashes = hash(element);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hashes[0] + i * hashes[1], bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(index);
+            } while ((word & mask) == 0 && !bits.compareAndSet(index, word, word | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(@NonNull String element) {
+        long[] hashes = hash(element);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hashes[0] + i * hashes[1], bitSize);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the false positive rate of the filter for the number of the inserted elements.
+     *
+     * @return - Expected false positive rate.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions.get() / bitSize), hashFunctions);
+    }
+
+    long sizeInBytes() {
+        return bits.length() * (long) Long.BYTES;
+    }
+
+    /**
+     * Creates two independent 64 bit hashes of the element with FNV-1a and the finalizer of MurmurHash3.
+     *
+     * @param element - Element to hash.
+     * @return - Array with the two hashes. The second one is odd.
+     */
+    private static long[] hash(String element) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : element.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        long first = mix(hash);
+        long second = mix(first ^ 0x9e3779b97f4a7c15L) | 1;
+        return new long[]{first, second};
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,217 @@
+package com.listings.listings.data.existence.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Existence filter backed by a {@link BloomFilter} of the ids in the listings index. The filter is rebuilt
+ * periodically, so that the deleted listings are dropped from it and the listings created by the other instances
+ * are added to it, and whenever the partitions of the listings topic are reassigned, so that it holds the listings
+ * created by the consumers that owned them before. The rebuilds scan the whole index, so they run on their own
+ * executor and the {@link TaskScheduler} shared with the refreshes and the flow control only starts them.
+ */
+@Component
+@Slf4j
+public class BloomListingExistenceFilter implements ListingExistenceFilter {
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingsProperties.Existence existenceProperties;
+
+    private final ExecutorService executorService;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter misses;
+
+    private final Counter falseNegatives;
+
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+
+    private volatile BloomFilter building;
+
+    public BloomListingExistenceFilter(ElasticsearchOperations elasticsearchOperations,
+                                       TaskScheduler taskScheduler,
+                                       ListingsProperties listingsProperties,
+                                       MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.taskScheduler = taskScheduler;
+        this.existenceProperties = listingsProperties.getElasticsearch().getExistence();
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.misses = Counter
+                .builder("listings.existence.filter.misses")
+                .description("Updates and deletes of listings that were not in the existence filter")
+                .register(meterRegistry);
+        this.falseNegatives = Counter
+                .builder("listings.existence.filter.false.negatives")
+                .description("Listings that were not in the existence filter but were found in the listings index")
+                .register(meterRegistry);
+        this.falsePositives = Counter
+                .builder("listings.existence.filter.false.positives")
+                .description("Listings that passed the existence filter but were not found in the listings index")
+                .register(meterRegistry);
+        Gauge
+                .builder("listings.existence.filter.false.positive.rate", this, BloomListingExistenceFilter::observedFalsePositiveRate)
+                .description("Share of the missing listings that passed the existence filter")
+                .register(meterRegistry);
+        Gauge
+                .builder("listings.existence.filter.expected.false.positive.rate", this, BloomListingExistenceFilter::expectedFalsePositiveRate)
+                .description("False positive rate of the existence filter for the number of listings in it")
+                .register(meterRegistry);
+        Gauge
+                .builder("listings.existence.filter.size", this, BloomListingExistenceFilter::sizeInBytes)
+                .description("Memory used by the existence filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the periodic rebuilds of the filter if the filter is enabled.
+     */
+    @PostConstruct
+    public void scheduleRebuilds() {
+        if (existenceProperties.isEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(() -> executorService.execute(this::rebuild), Instant.now().plus(existenceProperties.getRebuildInterval()), existenceProperties.getRebuildInterval());
+        }
+    }
+
+    @Override
+    public boolean mightExist(@NonNull String listingId) {
+        BloomFilter current = filter;
+        if (!existenceProperties.isEnabled() || current == null || current.mightContain(listingId)) {
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    @Override
+    public void onCreated(@NonNull String listingId) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(listingId);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(listingId);
+        }
+    }
+
+    @Override
+    public void onFound(@NonNull String listingId) {
+        if (existenceProperties.isEnabled() && filter != null) {
+            falseNegatives.increment();
+        }
+        onCreated(listingId);
+    }
+
+    @Override
+    public void onNotFound(@NonNull String listingId) {
+        if (existenceProperties.isEnabled() && filter != null) {
+            falsePositives.increment();
+        }
+    }
+
+    @Override
+    public void scheduleRebuild() {
+        if (!existenceProperties.isEnabled()) {
+            return;
+        }
+        filter = null;
+        generation.incrementAndGet();
+        executorService.execute(() -> {
+            if (filter == null) {
+                rebuild();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Builds a new filter from the ids in the listings index. The listings created while the index is scanned are
+     * added to the new filter too, and the index is refreshed before the scan so that the writes made before it
+     * are seen. The new filter is not used if another rebuild was requested in the meantime.
+     */
+    synchronized void rebuild() {
+        long started = generation.get();
+        try {
+            long listings = elasticsearchOperations.count(Query.findAll(), Listing.class);
+            BloomFilter next = BloomFilter.create(Math.max(existenceProperties.getExpectedInsertions(), listings * 2), existenceProperties.getFalsePositiveRate());
+            building = next;
+            elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)).refresh();
+
+            NativeQuery query = NativeQuery
+                    .builder()
+                    .withQuery(queryBuilder -> queryBuilder.matchAll(matchAll -> matchAll))
+                    .withSourceFilter(new FetchSourceFilter(new String[0], new String[]{"*"}))
+                    .withPageable(PageRequest.of(0, SCAN_BATCH_SIZE))
+                    .build();
+            long ids = 0;
+            try (SearchHitsIterator<Listing> hits = elasticsearchOperations.searchForStream(query, Listing.class)) {
+                while (hits.hasNext()) {
+                    next.put(hits.next().getId());
+                    ids++;
+                }
+            }
+
+            if (generation.get() == started) {
+                filter = next;
+                log.info(String.format("Built listing existence filter with [%s] ids using [%s] bytes", ids, next.sizeInBytes()));
+            } else {
+                log.info("Dropped listing existence filter because a new rebuild was requested");
+            }
+        } catch (Exception ex) {
+            log.error(String.format("Error on building the listing existence filter. Error message [%s]", ex.getMessage()), ex);
+        } finally {
+            building = null;
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double missing = misses.count() - falseNegatives.count() + falsePositives.count();
+        return missing == 0 ? 0 : falsePositives.count() / missing;
+    }
+
+    private double expectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current != null ? current.expectedFalsePositiveRate() : 0;
+    }
+
+    private double sizeInBytes() {
+        BloomFilter current = filter;
+        return current != null ? current.sizeInBytes() : 0;
+    }
+}
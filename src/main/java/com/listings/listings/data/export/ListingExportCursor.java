@@ -0,0 +1,23 @@
+package com.listings.listings.data.export;
+
+import java.util.List;
+
+/**
+ * Position of an export of the listings index that is written to the export as an opaque cursor.
+ *
+ * @param pointInTimeId - Id of the point in time the export reads. The slices are split by the documents of the
+ *                      point in time, so the positions of the slices are only valid with the same one.
+ * @param slices        - Positions of the slices of the export. The number of the slices is kept when the export is
+ *                      resumed.
+ */
+public record ListingExportCursor(String pointInTimeId, List<Slice> slices) {
+
+    /**
+     * Position of a slice of the export.
+     *
+     * @param lastId   - Id of the last listing written from the slice. Null if the slice was not read yet.
+     * @param finished - Whether all the listings of the slice were written.
+     */
+    public record Slice(String lastId, boolean finished) {
+    }
+}
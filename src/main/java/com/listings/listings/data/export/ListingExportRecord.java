@@ -0,0 +1,38 @@
+package com.listings.listings.data.export;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import lombok.NonNull;
+
+/**
+ * Line of an export of the listings index. Every line holds either a listing or the cursor the export can be
+ * resumed from, so the listings can be told apart from the cursors by their type.
+ *
+ * @param type    - {@link Type} of the line.
+ * @param listing - Exported {@link ListingDto} object. Null for the cursor lines.
+ * @param cursor  - Cursor covering all the listings written before it. Null for the listing lines.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ListingExportRecord(Type type, ListingDto listing, String cursor) {
+
+    public static ListingExportRecord listing(@NonNull ListingDto listing) {
+        return new ListingExportRecord(Type.LISTING, listing, null);
+    }
+
+    public static ListingExportRecord cursor(@NonNull String cursor) {
+        return new ListingExportRecord(Type.CURSOR, null, cursor);
+    }
+
+    public enum Type {
+
+        /**
+         * The line holds an exported listing.
+         */
+        LISTING,
+
+        /**
+         * The line holds the cursor of the export.
+         */
+        CURSOR
+    }
+}
@@ -0,0 +1,28 @@
+package com.listings.listings.data.export;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ListingExporter {
+
+    /**
+     * Decodes the cursor of an export that is resumed.
+     *
+     * @param cursor - Cursor written to a previous export.
+     * @return - {@link ListingExportCursor} object.
+     * @throws com.listings.listings.util.ListingsException if the cursor is not valid.
+     */
+    ListingExportCursor readCursor(@NonNull String cursor);
+
+    /**
+     * Writes all the listings to the output stream as newline delimited {@link ListingExportRecord} lines as they
+     * are read. Every batch of the listings is followed by a line with the cursor the export can be resumed from.
+     *
+     * @param cursor       - {@link ListingExportCursor} the export is resumed from. Null to export all the listings.
+     * @param outputStream - {@link OutputStream} the listings are written to.
+     * @throws IOException if the listings can not be read or written.
+     */
+    void export(ListingExportCursor cursor, @NonNull OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,280 @@
+package com.listings.listings.data.export.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.export.ListingExportCursor;
+import com.listings.listings.data.export.ListingExportRecord;
+import com.listings.listings.data.export.ListingExporter;
+import com.listings.listings.mapper.ListingMapper;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.util.ElasticSearchConstants;
+import com.listings.listings.util.ExpiredExportCursorException;
+import com.listings.listings.util.ListingsException;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports the listings index from a point in time that is read in slices in parallel. The slices are split by the
+ * documents of the point in time and every slice is read in the order of the ids with search_after, so a slice can
+ * be resumed from its last id as long as the point in time of the export is open. The point in time is closed once
+ * the export is finished and is otherwise kept open for its keep alive. Resuming an export whose point in time has
+ * expired fails with {@link ExpiredExportCursorException}. Only one batch per slice is held in memory,
+ * the batches are written to the output stream as soon as they are read.
+ */
+@Component
+@Slf4j
+public class DefaultListingExporter implements ListingExporter {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    private final ListingMapper listingMapper;
+
+    private final ObjectWriter exportRecordWriter;
+
+    private final ObjectReader exportCursorReader;
+
+    private final ObjectWriter exportCursorWriter;
+
+    private final ListingsProperties.Export exportProperties;
+
+    private final ExecutorService executorService;
+
+    public DefaultListingExporter(ElasticsearchClient elasticsearchClient,
+                                  ElasticsearchConverter elasticsearchConverter,
+                                  ListingMapper listingMapper,
+                                  ObjectMapper objectMapper,
+                                  ListingsProperties listingsProperties) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchConverter = elasticsearchConverter;
+        this.listingMapper = listingMapper;
+        this.exportRecordWriter = objectMapper.writerFor(ListingExportRecord.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.exportCursorReader = objectMapper.readerFor(ListingExportCursor.class);
+        this.exportCursorWriter = objectMapper.writerFor(ListingExportCursor.class);
+        this.exportProperties = listingsProperties.getElasticsearch().getExport();
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public ListingExportCursor readCursor(@NonNull String cursor) {
+        ListingExportCursor exportCursor;
+        try {
+            exportCursor = exportCursorReader.readValue(Base64.getUrlDecoder().decode(cursor));
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new ListingsException(String.format("Export cursor [%s] is not valid.", cursor));
+        }
+        if (exportCursor == null || exportCursor.pointInTimeId() == null || exportCursor.slices() == null || exportCursor.slices().isEmpty() || exportCursor.slices().contains(null)) {
+            throw new ListingsException(String.format("Export cursor [%s] is not valid.", cursor));
+        }
+        return exportCursor;
+    }
+
+    @Override
+    public void export(ListingExportCursor cursor, @NonNull OutputStream outputStream) throws IOException {
+        if (cursor != null && isFinished(cursor)) {
+            return;
+        }
+
+        ExportProgress progress = new ExportProgress(cursor == null ? initialCursor() : cursor, outputStream);
+        String pointInTimeId = progress.getPointInTimeId();
+        log.info(String.format("Exporting listings in [%s] slices from point in time [%s]", progress.getSlices(), pointInTimeId));
+
+        List<Future<?>> futures = new ArrayList<>(progress.getSlices());
+        try {
+            for (int slice = 0; slice < progress.getSlices(); slice++) {
+                int sliceId = slice;
+                futures.add(executorService.submit(() -> {
+                    exportSlice(pointInTimeId, sliceId, progress);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            log.info(String.format("Exported [%s] listings from point in time [%s]", progress.getExported(), pointInTimeId));
+            closePointInTime(pointInTimeId);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting the listings", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ElasticsearchException elasticsearchException && elasticsearchException.status() == 404) {
+                log.warn(String.format("Point in time [%s] of the export expired after [%s] listings", pointInTimeId, progress.getExported()));
+                throw new ExpiredExportCursorException("Point in time of the export expired. Restart the export without a cursor.");
+            }
+            log.error(String.format("Error on exporting listings after [%s] listings. Error message [%s]", progress.getExported(), ex.getCause().getMessage()), ex.getCause());
+            throw ex.getCause() instanceof IOException ioException ? ioException : new IOException(ex.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Reads the slice batch after batch from its last written id until it has no more listings.
+     *
+     * @param pointInTimeId - Id of the point in time of the export.
+     * @param slice         - Id of the slice.
+     * @param progress      - {@link ExportProgress} of the export.
+     * @throws IOException if the listings can not be read or written.
+     */
+    private void exportSlice(@NonNull String pointInTimeId, int slice, @NonNull ExportProgress progress) throws IOException {
+        ListingExportCursor.Slice position = progress.getSlice(slice);
+        String lastId = position.lastId();
+        boolean finished = position.finished();
+        while (!finished) {
+            List<Hit<Map>> hits = elasticsearchClient
+                    .search(searchRequest(pointInTimeId, slice, progress.getSlices(), lastId), Map.class)
+                    .hits()
+                    .hits();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            for (Hit<Map> hit : hits) {
+                writeListing(batch, hit);
+                lastId = hit.sort().isEmpty() ? hit.id() : hit.sort().get(0).stringValue();
+            }
+            finished = hits.size() < exportProperties.getBatchSize();
+            progress.write(slice, batch.toByteArray(), hits.size(), new ListingExportCursor.Slice(lastId, finished));
+        }
+    }
+
+    private SearchRequest searchRequest(@NonNull String pointInTimeId, int slice, int slices, String lastId) {
+        return SearchRequest.of(search -> {
+            search.pit(pit -> pit.id(pointInTimeId).keepAlive(toTime(exportProperties.getKeepAlive())))
+                    .size(exportProperties.getBatchSize())
+                    .trackTotalHits(trackTotalHits -> trackTotalHits.enabled(false))
+                    .sort(sort -> sort.field(field -> field.field(ListingField.ID.getValue()).order(SortOrder.Asc)));
+            if (slices > 1) {
+                search.slice(sliced -> sliced.id(String.valueOf(slice)).max(slices));
+            }
+            if (lastId != null) {
+                search.searchAfter(FieldValue.of(lastId));
+            }
+            return search;
+        });
+    }
+
+    private void writeListing(@NonNull OutputStream outputStream, @NonNull Hit<Map> hit) throws IOException {
+        @SuppressWarnings("unchecked")
+        Document document = Document.from(hit.source() == null ? Map.of() : (Map<String, Object>) hit.source());
+        document.setId(hit.id());
+        Listing listing = elasticsearchConverter.read(Listing.class, document);
+        exportRecordWriter.writeValue(outputStream, ListingExportRecord.listing(listingMapper.mapToListingDto(listing)));
+        outputStream.write(NEW_LINE);
+    }
+
+    /**
+     * Opens the point in time of a new export. It is kept open for the keep alive after the last search of the
+     * export, so a broken export can be resumed from its cursor within that time.
+     *
+     * @return - {@link ListingExportCursor} object positioned before the first listing of every slice.
+     * @throws IOException if the point in time can not be opened.
+     */
+    private ListingExportCursor initialCursor() throws IOException {
+        String pointInTimeId = elasticsearchClient
+                .openPointInTime(OpenPointInTimeRequest.of(request -> request
+                        .index(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                        .keepAlive(toTime(exportProperties.getKeepAlive()))))
+                .id();
+        return new ListingExportCursor(pointInTimeId, Collections.nCopies(Math.max(1, exportProperties.getSlices()), new ListingExportCursor.Slice(null, false)));
+    }
+
+    private boolean isFinished(@NonNull ListingExportCursor cursor) {
+        return cursor.slices().stream().allMatch(ListingExportCursor.Slice::finished);
+    }
+
+    private Time toTime(@NonNull Duration duration) {
+        return Time.of(time -> time.time(Math.max(1, duration.toSeconds()) + "s"));
+    }
+
+    private void closePointInTime(@NonNull String pointInTimeId) {
+        try {
+            elasticsearchClient.closePointInTime(ClosePointInTimeRequest.of(request -> request.id(pointInTimeId)));
+        } catch (Exception ex) {
+            log.warn(String.format("Error on closing point in time [%s]. Error message [%s]", pointInTimeId, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Positions of the slices of a running export. The batches of the slices are written one at a time, each
+     * followed by the cursor of all the slices, so the cursor covers every listing written before it.
+     */
+    private class ExportProgress {
+
+        private final String pointInTimeId;
+
+        private final ListingExportCursor.Slice[] slices;
+
+        private final OutputStream outputStream;
+
+        private long exported;
+
+        ExportProgress(@NonNull ListingExportCursor cursor, @NonNull OutputStream outputStream) {
+            this.pointInTimeId = cursor.pointInTimeId();
+            this.slices = cursor.slices().toArray(ListingExportCursor.Slice[]::new);
+            this.outputStream = outputStream;
+        }
+
+        String getPointInTimeId() {
+            return pointInTimeId;
+        }
+
+        int getSlices() {
+            return slices.length;
+        }
+
+        synchronized ListingExportCursor.Slice getSlice(int slice) {
+            return slices[slice];
+        }
+
+        synchronized long getExported() {
+            return exported;
+        }
+
+        synchronized void write(int slice, byte[] batch, int listings, ListingExportCursor.Slice position) throws IOException {
+            outputStream.write(batch);
+            slices[slice] = position;
+            exported += listings;
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(exportCursorWriter.writeValueAsBytes(new ListingExportCursor(pointInTimeId, List.of(slices))));
+            exportRecordWriter.writeValue(outputStream, ListingExportRecord.cursor(cursor));
+            outputStream.write(NEW_LINE);
+            outputStream.flush();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.listings.listings.data.query;
+
+import com.listings.listings.rest.dto.listing.ListingField;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Position of a walk over the listings index that is returned to the clients as an opaque cursor.
+ *
+ * @param pointInTimeId - Id of the point in time of the listings index the walk reads.
+ * @param sort          - Field the listings are sorted by.
+ * @param sortDirection - Direction the listings are sorted in.
+ * @param searchAfter   - Sort values of the last listing read, including the id tiebreaker. Null before the first page.
+ */
+public record ListingCursor(String pointInTimeId, ListingField sort, Sort.Direction sortDirection, List<Object> searchAfter) {
+}
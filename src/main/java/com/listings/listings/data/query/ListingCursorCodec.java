@@ -0,0 +1,23 @@
+package com.listings.listings.data.query;
+
+import lombok.NonNull;
+
+public interface ListingCursorCodec {
+
+    /**
+     * Encodes the cursor into the opaque value returned to the clients.
+     *
+     * @param listingCursor - {@link ListingCursor} object.
+     * @return - Encoded cursor safe to be used in a URL.
+     */
+    String encode(@NonNull ListingCursor listingCursor);
+
+    /**
+     * Decodes the cursor sent by a client.
+     *
+     * @param cursor - Encoded cursor.
+     * @return - {@link ListingCursor} object.
+     * @throws com.listings.listings.util.ListingsException if the cursor is not valid.
+     */
+    ListingCursor decode(@NonNull String cursor);
+}
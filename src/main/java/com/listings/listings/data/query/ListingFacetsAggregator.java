@@ -0,0 +1,33 @@
+package com.listings.listings.data.query;
+
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacetBucket;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import lombok.NonNull;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHits;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ListingFacetsAggregator {
+
+    /**
+     * Builds the query that counts all the facets of the search in a single request without returning any listing.
+     *
+     * @param searchListingDto - {@link SearchListingDto} object representing the search criteria.
+     * @param facets           - Set of the {@link ListingFacet} values to count.
+     * @return - {@link NativeQuery} object with an aggregation for every facet.
+     */
+    NativeQuery build(@NonNull SearchListingDto searchListingDto, @NonNull Set<ListingFacet> facets);
+
+    /**
+     * Reads the buckets of the facets from the aggregations of the search.
+     *
+     * @param searchHits - {@link SearchHits} of the query built for the facets.
+     * @param facets     - Set of the counted {@link ListingFacet} values.
+     * @return - Map of the buckets by their facet. Facets without any listing have no buckets.
+     */
+    Map<ListingFacet, List<ListingFacetBucket>> read(@NonNull SearchHits<?> searchHits, @NonNull Set<ListingFacet> facets);
+}
@@ -0,0 +1,16 @@
+package com.listings.listings.data.query;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import lombok.NonNull;
+
+public interface ListingSearchQueryBuilder {
+
+    /**
+     * Builds the query of the listings that match all the items of the search.
+     *
+     * @param searchListingDto - {@link SearchListingDto} object representing the search criteria.
+     * @return - {@link Query} object with the items of the search as the filters of a bool query.
+     */
+    Query build(@NonNull SearchListingDto searchListingDto);
+}
@@ -0,0 +1,55 @@
+package com.listings.listings.data.query.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.listings.listings.data.query.ListingCursor;
+import com.listings.listings.data.query.ListingCursorCodec;
+import com.listings.listings.util.ListingsException;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Encodes the cursors as URL-safe Base64 of their JSON. The cursors are not signed, a tampered cursor can only
+ * point the search to another position of a point in time or fail it.
+ */
+@Component
+public class DefaultListingCursorCodec implements ListingCursorCodec {
+
+    private final ObjectReader listingCursorReader;
+
+    private final ObjectWriter listingCursorWriter;
+
+    public DefaultListingCursorCodec(ObjectMapper objectMapper) {
+        this.listingCursorReader = objectMapper.readerFor(ListingCursor.class);
+        this.listingCursorWriter = objectMapper.writerFor(ListingCursor.class);
+    }
+
+    @Override
+    public String encode(@NonNull ListingCursor listingCursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(listingCursorWriter.writeValueAsBytes(listingCursor));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public ListingCursor decode(@NonNull String cursor) {
+        ListingCursor listingCursor;
+        try {
+            listingCursor = listingCursorReader.readValue(Base64.getUrlDecoder().decode(cursor));
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new ListingsException(String.format("Cursor [%s] is not valid.", cursor));
+        }
+        if (listingCursor == null || listingCursor.pointInTimeId() == null || listingCursor.sort() == null || listingCursor.sortDirection() == null) {
+            throw new ListingsException(String.format("Cursor [%s] is not valid.", cursor));
+        }
+        return listingCursor;
+    }
+}
@@ -0,0 +1,139 @@
+package com.listings.listings.data.query.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.query.ListingFacetsAggregator;
+import com.listings.listings.data.query.ListingSearchQueryBuilder;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacetBucket;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import lombok.NonNull;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts the facets with a terms aggregation for the keyword fields, a histogram for the production year and
+ * ranges for the mileage. The query returns no listings, so its result is cached by the shard request cache of
+ * Elasticsearch until the listings index is refreshed with a change.
+ */
+@Component
+public class DefaultListingFacetsAggregator implements ListingFacetsAggregator {
+
+    private final ListingSearchQueryBuilder listingSearchQueryBuilder;
+
+    private final ListingsProperties.Facets facetsProperties;
+
+    public DefaultListingFacetsAggregator(ListingSearchQueryBuilder listingSearchQueryBuilder, ListingsProperties listingsProperties) {
+        this.listingSearchQueryBuilder = listingSearchQueryBuilder;
+        this.facetsProperties = listingsProperties.getElasticsearch().getFacets();
+    }
+
+    @Override
+    public NativeQuery build(@NonNull SearchListingDto searchListingDto, @NonNull Set<ListingFacet> facets) {
+        NativeQueryBuilder queryBuilder = NativeQuery
+                .builder()
+                .withQuery(listingSearchQueryBuilder.build(searchListingDto))
+                .withMaxResults(0)
+                .withTrackTotalHits(true)
+                .withRequestCache(true);
+        for (ListingFacet facet : facets) {
+            queryBuilder.withAggregation(facet.name(), buildAggregation(facet));
+        }
+        return queryBuilder.build();
+    }
+
+    @Override
+    public Map<ListingFacet, List<ListingFacetBucket>> read(@NonNull SearchHits<?> searchHits, @NonNull Set<ListingFacet> facets) {
+        Map<String, ElasticsearchAggregation> aggregations = searchHits.getAggregations() instanceof ElasticsearchAggregations elasticsearchAggregations
+                ? elasticsearchAggregations.aggregationsAsMap()
+                : Map.of();
+        Map<ListingFacet, List<ListingFacetBucket>> buckets = new EnumMap<>(ListingFacet.class);
+        for (ListingFacet facet : facets) {
+            ElasticsearchAggregation aggregation = aggregations.get(facet.name());
+            buckets.put(facet, aggregation == null ? List.of() : readBuckets(aggregation.aggregation().getAggregate()));
+        }
+        return buckets;
+    }
+
+    /**
+     * Builds the aggregation of the facet.
+     *
+     * @param facet - {@link ListingFacet} value.
+     * @return - {@link Aggregation} object counting the listings of the facet.
+     */
+    private Aggregation buildAggregation(@NonNull ListingFacet facet) {
+        String field = facet.getField().getValue();
+        return switch (facet) {
+            case MAKE, MODEL, FUEL_TYPE, TRANSMISSION_TYPE -> Aggregation.of(aggregation -> aggregation
+                    .terms(terms -> terms.field(field).size(facetsProperties.getTermsSize())));
+            case PRODUCTION_YEAR -> Aggregation.of(aggregation -> aggregation
+                    .histogram(histogram -> histogram.field(field).interval((double) facetsProperties.getProductionYearInterval()).minDocCount(1)));
+            case MILEAGE -> Aggregation.of(aggregation -> aggregation
+                    .range(range -> range.field(field).ranges(mileageRanges())));
+        };
+    }
+
+    private List<AggregationRange> mileageRanges() {
+        List<AggregationRange> ranges = new ArrayList<>();
+        Long from = 0L;
+        for (Long to : facetsProperties.getMileageRanges()) {
+            ranges.add(mileageRange(from, to));
+            from = to;
+        }
+        ranges.add(mileageRange(from, null));
+        return ranges;
+    }
+
+    private AggregationRange mileageRange(Long from, Long to) {
+        return AggregationRange.of(range -> range
+                .key(to == null ? from + "-*" : from + "-" + to)
+                .from(String.valueOf(from))
+                .to(to == null ? null : String.valueOf(to)));
+    }
+
+    /**
+     * Reads the buckets of the aggregate of a facet.
+     *
+     * @param aggregate - {@link Aggregate} of the facet.
+     * @return - List of {@link ListingFacetBucket} objects.
+     */
+    private List<ListingFacetBucket> readBuckets(@NonNull Aggregate aggregate) {
+        if (aggregate.isSterms()) {
+            return aggregate.sterms().buckets().array()
+                    .stream()
+                    .map(bucket -> ListingFacetBucket.builder().key(bucket.key().stringValue()).count(bucket.docCount()).build())
+                    .toList();
+        }
+        if (aggregate.isHistogram()) {
+            return aggregate.histogram().buckets().array()
+                    .stream()
+                    .map(bucket -> ListingFacetBucket.builder().key(String.valueOf((long) bucket.key())).count(bucket.docCount()).build())
+                    .toList();
+        }
+        if (aggregate.isRange()) {
+            return aggregate.range().buckets().array()
+                    .stream()
+                    .map(bucket -> ListingFacetBucket
+                            .builder()
+                            .key(bucket.key())
+                            .from(bucket.from() == null ? null : bucket.from().longValue())
+                            .to(bucket.to() == null ? null : bucket.to().longValue())
+                            .count(bucket.docCount())
+                            .build())
+                    .toList();
+        }
+        return List.of();
+    }
+}
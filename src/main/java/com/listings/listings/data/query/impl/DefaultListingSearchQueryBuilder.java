@@ -0,0 +1,59 @@
+package com.listings.listings.data.query.impl;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.listings.listings.data.query.ListingSearchQueryBuilder;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the search of the listings as a bool query with only filter clauses. The searchable fields are keywords,
+ * numbers and dates that are matched exactly, so none of the items has to be scored. Filters skip the scoring and
+ * are cached by the query cache of the Elasticsearch nodes, so the items shared by the searches are reused.
+ */
+@Component
+public class DefaultListingSearchQueryBuilder implements ListingSearchQueryBuilder {
+
+    @Override
+    public Query build(@NonNull SearchListingDto searchListingDto) {
+        BoolQuery.Builder boolQuery = new BoolQuery.Builder();
+        if (searchListingDto.getSearchListingItems() != null) {
+            for (SearchListingItemDto item : searchListingDto.getSearchListingItems()) {
+                boolQuery.filter(buildFilter(item));
+            }
+        }
+        return boolQuery.build()._toQuery();
+    }
+
+    /**
+     * Builds the filter of the search item.
+     *
+     * @param item - {@link SearchListingItemDto} object.
+     * @return - {@link Query} object matching the field with the operator of the item.
+     */
+    private Query buildFilter(@NonNull SearchListingItemDto item) {
+        String field = item.getField().getValue();
+        return switch (item.getOperator()) {
+            case EQ -> Query.of(query -> query.term(term -> term.field(field).value(item.getValue())));
+            case IN -> Query.of(query -> query.terms(terms -> terms
+                    .field(field)
+                    .terms(values -> values.value(item.getValues().stream().map(FieldValue::of).toList()))));
+            case RANGE -> Query.of(query -> query.range(range -> {
+                range.field(field);
+                if (item.getFrom() != null) {
+                    range.gte(JsonData.of(item.getFrom()));
+                }
+                if (item.getTo() != null) {
+                    range.lte(JsonData.of(item.getTo()));
+                }
+                return range;
+            }));
+            case PREFIX -> Query.of(query -> query.prefix(prefix -> prefix.field(field).value(item.getValue())));
+            case EXISTS -> Query.of(query -> query.exists(exists -> exists.field(field)));
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.listings.listings.data.refresh;
+
+import com.listings.listings.cache.ListingChange;
+import lombok.NonNull;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+
+import java.util.List;
+
+public interface ListingRefreshCoordinator {
+
+    /**
+     * Returns the refresh policy that the writes to the listings index should be made with.
+     *
+     * @return - {@link RefreshPolicy} object.
+     */
+    RefreshPolicy getRefreshPolicy();
+
+    /**
+     * Records the writes made to the listings index so that they are made visible by the next coalesced refresh.
+     *
+     * @param writes - Number of successful writes.
+     */
+    void onWrite(int writes);
+
+    /**
+     * Records the changes whose cached pages were evicted before the changes became searchable. The pages are
+     * evicted again once the next coalesced refresh makes the changes visible, so that the pages read and cached
+     * in between are not kept. Does nothing for the other refresh strategies.
+     *
+     * @param changes - List of {@link ListingChange} objects applied to the listings index.
+     */
+    void onChanged(@NonNull List<ListingChange> changes);
+}
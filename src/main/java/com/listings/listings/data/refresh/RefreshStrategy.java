@@ -0,0 +1,20 @@
+package com.listings.listings.data.refresh;
+
+public enum RefreshStrategy {
+    /**
+     * Writes never trigger a refresh, the changes become visible with the periodic refresh of the index.
+     */
+    NONE,
+    /**
+     * Every write waits until the next refresh of the index makes it visible.
+     */
+    WAIT_UNTIL,
+    /**
+     * Every write forces an immediate refresh of the index.
+     */
+    IMMEDIATE,
+    /**
+     * Writes do not refresh the index themselves. At most one explicit refresh is issued per interval for all the writes made in it.
+     */
+    COALESCED
+}
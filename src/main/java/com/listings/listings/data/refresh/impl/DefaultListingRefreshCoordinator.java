@@ -0,0 +1,144 @@
+package com.listings.listings.data.refresh.impl;
+
+import com.listings.listings.cache.ListingCacheInvalidator;
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.refresh.ListingRefreshCoordinator;
+import com.listings.listings.data.refresh.RefreshStrategy;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class DefaultListingRefreshCoordinator implements ListingRefreshCoordinator {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingCacheInvalidator listingCacheInvalidator;
+
+    private final ListingsProperties.Refresh refreshProperties;
+
+    private final AtomicLong pendingWrites = new AtomicLong();
+
+    private final Queue<ListingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    private final Counter refreshesIssued;
+
+    private final Counter writesCoalesced;
+
+    public DefaultListingRefreshCoordinator(ElasticsearchOperations elasticsearchOperations,
+                                            TaskScheduler taskScheduler,
+                                            ListingCacheInvalidator listingCacheInvalidator,
+                                            ListingsProperties listingsProperties,
+                                            MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.taskScheduler = taskScheduler;
+        this.listingCacheInvalidator = listingCacheInvalidator;
+        this.refreshProperties = listingsProperties.getElasticsearch().getRefresh();
+        this.refreshesIssued = Counter
+                .builder("listings.elasticsearch.refreshes")
+                .description("Explicit refreshes of the listings index")
+                .register(meterRegistry);
+        this.writesCoalesced = Counter
+                .builder("listings.elasticsearch.refresh.coalesced.writes")
+                .description("Writes made visible by a shared refresh of the listings index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the coalesced refreshes if the coalesced refresh strategy is used.
+     */
+    @PostConstruct
+    public void scheduleRefreshes() {
+        log.info(String.format("Using [%s] refresh strategy for the listings index", refreshProperties.getStrategy()));
+        if (refreshProperties.getStrategy() == RefreshStrategy.COALESCED) {
+            taskScheduler.scheduleWithFixedDelay(this::refreshPendingWrites, refreshProperties.getInterval());
+        }
+    }
+
+    @Override
+    public RefreshPolicy getRefreshPolicy() {
+        return switch (refreshProperties.getStrategy()) {
+            case NONE, COALESCED -> RefreshPolicy.NONE;
+            case WAIT_UNTIL -> RefreshPolicy.WAIT_UNTIL;
+            case IMMEDIATE -> RefreshPolicy.IMMEDIATE;
+        };
+    }
+
+    @Override
+    public void onWrite(int writes) {
+        if (refreshProperties.getStrategy() == RefreshStrategy.COALESCED && writes > 0) {
+            pendingWrites.addAndGet(writes);
+        }
+    }
+
+    @Override
+    public void onChanged(@NonNull List<ListingChange> changes) {
+        if (refreshProperties.getStrategy() == RefreshStrategy.COALESCED && !changes.isEmpty()) {
+            pendingChanges.addAll(changes);
+        }
+    }
+
+    /**
+     * Refreshes the listings index if there were any writes since the last refresh and then evicts the cached
+     * pages of the changes made visible by it. The changes recorded after their writes were already refreshed
+     * are visible and evicted right away.
+     */
+    void refreshPendingWrites() {
+        List<ListingChange> changes = drainPendingChanges();
+        long writes = pendingWrites.getAndSet(0);
+        if (writes == 0) {
+            invalidate(changes);
+            return;
+        }
+        try {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)).refresh();
+            refreshesIssued.increment();
+            writesCoalesced.increment(writes);
+            log.debug(String.format("Refreshed listings index for [%s] writes", writes));
+        } catch (Exception ex) {
+            pendingWrites.addAndGet(writes);
+            pendingChanges.addAll(changes);
+            log.error(String.format("Error on refreshing the listings index. Error message [%s]", ex.getMessage()), ex);
+            return;
+        }
+        invalidate(changes);
+    }
+
+    private List<ListingChange> drainPendingChanges() {
+        List<ListingChange> changes = new ArrayList<>();
+        ListingChange change;
+        while ((change = pendingChanges.poll()) != null) {
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    private void invalidate(@NonNull List<ListingChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            listingCacheInvalidator.invalidate(changes);
+        } catch (Exception ex) {
+            log.error(String.format("Error on invalidating the listing caches after a refresh. Error message [%s]", ex.getMessage()), ex);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.listings.listings.data.repositories;
+
+import com.listings.listings.data.domain.ListingTombstone;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository of the listing tombstones. The tombstones are written and read by the listing writer, the repository
+ * creates their index with its mapping on startup.
+ */
+@Repository
+public interface ListingTombstoneRepository extends ElasticsearchRepository<ListingTombstone, String> {
+}
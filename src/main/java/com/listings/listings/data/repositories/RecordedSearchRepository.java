@@ -0,0 +1,22 @@
+package com.listings.listings.data.repositories;
+
+import com.listings.listings.data.domain.RecordedSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RecordedSearchRepository extends ElasticsearchRepository<RecordedSearch, String> {
+
+    /**
+     * Finds the searches that were requested after the given time.
+     *
+     * @param lastRecorded - Time after which the searches were requested.
+     * @param pageable     - {@link Pageable} object with the number and the order of the searches.
+     * @return - List of {@link RecordedSearch} objects.
+     */
+    List<RecordedSearch> findByLastRecordedAfter(Instant lastRecorded, Pageable pageable);
+}
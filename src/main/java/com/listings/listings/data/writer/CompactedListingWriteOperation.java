@@ -0,0 +1,11 @@
+package com.listings.listings.data.writer;
+
+/**
+ * Net {@link ListingWriteOperation} of all the events of a listing consumed in the same batch.
+ *
+ * @param operation  - {@link ListingWriteOperation} that should be applied to the listings index.
+ * @param firstIndex - Index of the first compacted operation in the consumed batch.
+ * @param events     - Number of the operations compacted into this one.
+ */
+public record CompactedListingWriteOperation(ListingWriteOperation operation, int firstIndex, int events) {
+}
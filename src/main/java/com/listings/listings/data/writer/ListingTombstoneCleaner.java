@@ -0,0 +1,11 @@
+package com.listings.listings.data.writer;
+
+public interface ListingTombstoneCleaner {
+
+    /**
+     * Removes the tombstones of the listings deleted before the tombstone retention.
+     *
+     * @return - Number of the removed tombstones.
+     */
+    long cleanUp();
+}
@@ -0,0 +1,17 @@
+package com.listings.listings.data.writer;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public interface ListingWriteCompactor {
+
+    /**
+     * Collapses the operations of the same listing into a single net operation, so that a listing is written
+     * at most once per batch. Operations without listing id are never compacted.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects in the order of the consumed records.
+     * @return - List of {@link CompactedListingWriteOperation} objects ordered by their first operation.
+     */
+    List<CompactedListingWriteOperation> compact(@NonNull List<ListingWriteOperation> operations);
+}
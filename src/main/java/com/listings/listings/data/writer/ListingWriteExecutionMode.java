@@ -0,0 +1,15 @@
+package com.listings.listings.data.writer;
+
+public enum ListingWriteExecutionMode {
+
+    /**
+     * The operations of the batch are applied with a single bulk request.
+     */
+    BULK,
+
+    /**
+     * The operations of different listings are applied in parallel while the operations of the same listing
+     * are applied one after another in their order.
+     */
+    PARALLEL
+}
@@ -0,0 +1,17 @@
+package com.listings.listings.data.writer;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public interface ListingWriteExecutor {
+
+    /**
+     * Applies the operations of a consumed batch to the listings index. The operations of the same listing are
+     * applied in their order.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects in the order of the consumed records.
+     * @return - List of {@link ListingWriteResult} objects in the same order as the operations.
+     */
+    List<ListingWriteResult> execute(@NonNull List<ListingWriteOperation> operations);
+}
@@ -0,0 +1,19 @@
+package com.listings.listings.data.writer;
+
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.kafka.domain.ListingEventMode;
+
+/**
+ * Single write that should be applied to the listings index.
+ *
+ * @param mode       - {@link ListingEventMode} deciding whether the listing is created, updated or deleted.
+ * @param listing    - {@link Listing} object carrying the listing id and, for creates and updates, the listing data.
+ * @param outOfOrder - Whether the event comes from a retry topic or a dead-letter replay and may be applied after
+ *                   a newer delete of the listing.
+ */
+public record ListingWriteOperation(ListingEventMode mode, Listing listing, boolean outOfOrder) {
+
+    public ListingWriteOperation(ListingEventMode mode, Listing listing) {
+        this(mode, listing, false);
+    }
+}
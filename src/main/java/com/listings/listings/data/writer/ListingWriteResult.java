@@ -0,0 +1,16 @@
+package com.listings.listings.data.writer;
+
+/**
+ * Outcome of a single {@link ListingWriteOperation}.
+ *
+ * @param listingId - Id of the written listing.
+ * @param status    - {@link ListingWriteStatus} of the write.
+ * @param message   - Error message when the write did not succeed.
+ * @param rejected  - Whether Elasticsearch rejected the write because it was overloaded(429).
+ */
+public record ListingWriteResult(String listingId, ListingWriteStatus status, String message, boolean rejected) {
+
+    public ListingWriteResult(String listingId, ListingWriteStatus status, String message) {
+        this(listingId, status, message, false);
+    }
+}
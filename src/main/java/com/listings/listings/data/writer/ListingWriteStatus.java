@@ -0,0 +1,5 @@
+package com.listings.listings.data.writer;
+
+public enum ListingWriteStatus {
+    SUCCESS, NOT_FOUND, STALE, RETRYABLE_FAILURE, PERMANENT_FAILURE
+}
@@ -0,0 +1,26 @@
+package com.listings.listings.data.writer;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public interface ListingWriter {
+
+    /**
+     * Applies all the operations to the listings index with a single bulk request. Every operation is applied
+     * only if its event is newer than the event that last wrote the listing, stale events are reported with
+     * the {@link ListingWriteStatus#STALE} status and missing listings with the {@link ListingWriteStatus#NOT_FOUND} status.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @return - List of {@link ListingWriteResult} objects in the same order as the operations.
+     */
+    List<ListingWriteResult> write(@NonNull List<ListingWriteOperation> operations);
+
+    /**
+     * Applies the operation to the listings index with a single update request.
+     *
+     * @param operation - {@link ListingWriteOperation} object.
+     * @return - {@link ListingWriteResult} object.
+     */
+    ListingWriteResult write(@NonNull ListingWriteOperation operation);
+}
@@ -0,0 +1,25 @@
+package com.listings.listings.data.writer.impl;
+
+import com.listings.listings.data.writer.ListingWriteExecutor;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "listings.kafka.batch", name = "execution-mode", havingValue = "bulk", matchIfMissing = true)
+public class BulkListingWriteExecutor implements ListingWriteExecutor {
+
+    private final ListingWriter listingWriter;
+
+    @Override
+    public List<ListingWriteResult> execute(@NonNull List<ListingWriteOperation> operations) {
+        return listingWriter.write(operations);
+    }
+}
@@ -0,0 +1,93 @@
+package com.listings.listings.data.writer.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryRequest;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import co.elastic.clients.json.JsonData;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.writer.ListingTombstoneCleaner;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Periodically removes the tombstones of the listings deleted before the tombstone retention with a delete by
+ * query. A create older than a removed tombstone can no longer be retried or replayed, so the tombstone is not
+ * needed anymore. Tombstones of listings deleted again during the removal are kept. The removals run on their own
+ * executor, so the {@link TaskScheduler} shared with the refreshes and the flow control only starts them.
+ */
+@Component
+@Slf4j
+public class DefaultListingTombstoneCleaner implements ListingTombstoneCleaner {
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingsProperties.Tombstones tombstonesProperties;
+
+    private final ExecutorService executorService;
+
+    private final Counter removedTombstones;
+
+    public DefaultListingTombstoneCleaner(ElasticsearchClient elasticsearchClient,
+                                          TaskScheduler taskScheduler,
+                                          ListingsProperties listingsProperties,
+                                          MeterRegistry meterRegistry) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.taskScheduler = taskScheduler;
+        this.tombstonesProperties = listingsProperties.getElasticsearch().getTombstones();
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.removedTombstones = Counter
+                .builder("listings.tombstones.removed")
+                .description("Tombstones of deleted listings removed after the tombstone retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the periodic removals of the old tombstones.
+     */
+    @PostConstruct
+    public void scheduleCleanUps() {
+        taskScheduler.scheduleWithFixedDelay(() -> executorService.execute(this::cleanUp), Instant.now().plus(tombstonesProperties.getCleanupInterval()), tombstonesProperties.getCleanupInterval());
+    }
+
+    @Override
+    public long cleanUp() {
+        Instant deletedBefore = Instant.now().minus(tombstonesProperties.getRetention());
+        DeleteByQueryRequest deleteByQueryRequest = DeleteByQueryRequest.of(deleteByQuery -> deleteByQuery
+                .index(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+                .conflicts(Conflicts.Proceed)
+                .query(query -> query
+                        .range(range -> range
+                                .field("deletedAt")
+                                .lt(JsonData.of(deletedBefore.toEpochMilli())))));
+        try {
+            DeleteByQueryResponse deleteByQueryResponse = elasticsearchClient.deleteByQuery(deleteByQueryRequest);
+            long removed = deleteByQueryResponse.deleted() != null ? deleteByQueryResponse.deleted() : 0;
+            removedTombstones.increment(removed);
+            log.info(String.format("Removed [%s] tombstones of listings deleted before [%s]", removed, deletedBefore));
+            return removed;
+        } catch (ElasticsearchException | IOException ex) {
+            log.error(String.format("Error on removing tombstones of listings deleted before [%s]. Error message [%s]", deletedBefore, ex.getMessage()), ex);
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+}
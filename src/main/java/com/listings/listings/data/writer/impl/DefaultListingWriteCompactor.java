@@ -0,0 +1,133 @@
+package com.listings.listings.data.writer.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.writer.CompactedListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteCompactor;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class DefaultListingWriteCompactor implements ListingWriteCompactor {
+
+    private final ListingsProperties.Batch batchProperties;
+
+    private final Counter compactedEvents;
+
+    private final Counter savedWrites;
+
+    public DefaultListingWriteCompactor(ListingsProperties listingsProperties, MeterRegistry meterRegistry) {
+        this.batchProperties = listingsProperties.getKafka().getBatch();
+        this.compactedEvents = Counter
+                .builder("listings.kafka.batch.compaction.events")
+                .description("Listing events passed through the batch compaction")
+                .register(meterRegistry);
+        this.savedWrites = Counter
+                .builder("listings.kafka.batch.compaction.saved.writes")
+                .description("Writes to the listings index saved by collapsing the events of the same listing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<CompactedListingWriteOperation> compact(@NonNull List<ListingWriteOperation> operations) {
+        List<CompactedListingWriteOperation> compacted = new ArrayList<>(operations.size());
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            ListingWriteOperation operation = operations.get(i);
+            String id = operation.listing().getId();
+            Integer position = StringUtils.hasText(id) && batchProperties.isCompaction() ? positions.get(id) : null;
+            if (position == null) {
+                if (StringUtils.hasText(id)) {
+                    positions.put(id, compacted.size());
+                }
+                compacted.add(new CompactedListingWriteOperation(operation, i, 1));
+            } else {
+                CompactedListingWriteOperation previous = compacted.get(position);
+                compacted.set(position, new CompactedListingWriteOperation(
+                        merge(previous.operation(), operation),
+                        previous.firstIndex(),
+                        previous.events() + 1));
+            }
+        }
+
+        int saved = operations.size() - compacted.size();
+        compactedEvents.increment(operations.size());
+        savedWrites.increment(saved);
+        if (saved > 0) {
+            log.info(String.format("Compacted [%s] listing events into [%s] writes", operations.size(), compacted.size()));
+        }
+        return compacted;
+    }
+
+    /**
+     * Merges the next operation of a listing into the net operation of its previous ones. The result is the same
+     * as applying both operations one after another: creates replace the listing, deletes remove it, updates of
+     * a deleted listing find nothing and updates of a created or updated listing merge their values into it.
+     * Operations with a version that is not newer than the previous one would be skipped as stale and are dropped.
+     * A create followed by a delete is kept as the delete on purpose instead of dropping both. The create may be a
+     * redelivery of a listing that is already stored, which only the delete removes, and the delete leaves the
+     * tombstone that makes a later replay of the create stale. When the listing was never stored the delete finds
+     * nothing, so keeping it costs at most one write.
+     *
+     * @param previous - Net {@link ListingWriteOperation} of the previous operations.
+     * @param next     - Next {@link ListingWriteOperation} of the listing.
+     * @return - Net {@link ListingWriteOperation} of both.
+     */
+    private ListingWriteOperation merge(@NonNull ListingWriteOperation previous, @NonNull ListingWriteOperation next) {
+        Long previousVersion = previous.listing().getEventVersion();
+        Long nextVersion = next.listing().getEventVersion();
+        if (previousVersion != null && nextVersion != null && previousVersion >= nextVersion) {
+            return previous;
+        }
+        return switch (next.mode()) {
+            case CREATE, DELETE -> next;
+            case UPDATE -> switch (previous.mode()) {
+                case DELETE -> previous;
+                case CREATE -> {
+                    Listing listing = apply(previous.listing(), next.listing());
+                    listing.setDateUpdated(LocalDate.now());
+                    yield new ListingWriteOperation(ListingEventMode.CREATE, listing, previous.outOfOrder());
+                }
+                case UPDATE -> new ListingWriteOperation(ListingEventMode.UPDATE, apply(previous.listing(), next.listing()), previous.outOfOrder() || next.outOfOrder());
+            };
+        };
+    }
+
+    /**
+     * Creates a copy of the listing with the values of the update applied to it. Fields without value in the
+     * update keep their previous value, the same way a partial update of the stored listing does.
+     *
+     * @param listing - {@link Listing} object.
+     * @param update  - {@link Listing} object with the updated values.
+     * @return - Updated copy of the {@link Listing} object.
+     */
+    private Listing apply(@NonNull Listing listing, @NonNull Listing update) {
+        return Listing
+                .builder()
+                .id(listing.getId())
+                .make(update.getMake() != null ? update.getMake() : listing.getMake())
+                .model(update.getModel() != null ? update.getModel() : listing.getModel())
+                .productionYear(update.getProductionYear() != null ? update.getProductionYear() : listing.getProductionYear())
+                .mileage(update.getMileage() != null ? update.getMileage() : listing.getMileage())
+                .transmissionType(update.getTransmissionType() != null ? update.getTransmissionType() : listing.getTransmissionType())
+                .fuelType(update.getFuelType() != null ? update.getFuelType() : listing.getFuelType())
+                .contactInfo(update.getContactInfo() != null ? update.getContactInfo() : listing.getContactInfo())
+                .dateCreated(update.getDateCreated() != null ? update.getDateCreated() : listing.getDateCreated())
+                .dateUpdated(update.getDateUpdated() != null ? update.getDateUpdated() : listing.getDateUpdated())
+                .eventVersion(update.getEventVersion() != null ? update.getEventVersion() : listing.getEventVersion())
+                .build();
+    }
+}
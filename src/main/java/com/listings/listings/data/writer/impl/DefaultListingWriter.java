@@ -0,0 +1,441 @@
+package com.listings.listings.data.writer.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.UpdateRequest;
+import co.elastic.clients.elasticsearch.core.UpdateResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.get.GetResult;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.json.JsonData;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.refresh.ListingRefreshCoordinator;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.data.writer.ListingWriter;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.util.ElasticSearchConstants;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DefaultListingWriter implements ListingWriter {
+
+    private static final String NOOP_RESULT = "noop";
+
+    private static final String REJECTED_EXECUTION_ERROR = "es_rejected_execution_exception";
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    private final ListingRefreshCoordinator listingRefreshCoordinator;
+
+    @Override
+    public List<ListingWriteResult> write(@NonNull List<ListingWriteOperation> operations) {
+        if (operations.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Long> tombstones;
+        try {
+            tombstones = readTombstones(operations);
+        } catch (ElasticsearchException ex) {
+            log.error(String.format("Reading listing tombstones failed with status [%s]. Error message [%s]", ex.status(), ex.getMessage()), ex);
+            return failAll(operations, ex);
+        } catch (IOException ex) {
+            log.error(String.format("Reading listing tombstones failed. Error message [%s]", ex.getMessage()), ex);
+            return failAll(operations, ex);
+        }
+
+        ListingWriteResult[] results = new ListingWriteResult[operations.size()];
+        List<Integer> written = new ArrayList<>(operations.size());
+        BulkRequest.Builder bulkRequest = new BulkRequest.Builder()
+                .index(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                .refresh(toRefresh(listingRefreshCoordinator.getRefreshPolicy()));
+        for (int i = 0; i < operations.size(); i++) {
+            ListingWriteOperation operation = operations.get(i);
+            if (isOlderThanDelete(operation, tombstones)) {
+                results[i] = new ListingWriteResult(operation.listing().getId(), ListingWriteStatus.STALE, null);
+                continue;
+            }
+            if (hasTombstone(operation)) {
+                bulkRequest.operations(toTombstoneOperation(operation.listing()));
+            }
+            bulkRequest.operations(toBulkOperation(operation));
+            written.add(i);
+        }
+        if (written.isEmpty()) {
+            return List.of(results);
+        }
+
+        log.info(String.format("Sending bulk request with [%s] operations", written.size()));
+        try {
+            BulkResponse bulkResponse = elasticsearchClient.bulk(bulkRequest.build());
+            log.info(String.format("Bulk request with [%s] operations took [%s] ms. Errors [%s]", written.size(), bulkResponse.took(), bulkResponse.errors()));
+            Iterator<BulkResponseItem> items = bulkResponse.items().iterator();
+            int writes = 0;
+            for (int i : written) {
+                ListingWriteOperation operation = operations.get(i);
+                ListingWriteResult tombstoneResult = hasTombstone(operation) ? toWriteResult(operation, items.next()) : null;
+                ListingWriteResult result = toWriteResult(operation, items.next());
+                if (tombstoneResult != null && tombstoneResult.status() != ListingWriteStatus.SUCCESS && tombstoneResult.status() != ListingWriteStatus.STALE) {
+                    result = tombstoneResult;
+                }
+                if (result.status() == ListingWriteStatus.SUCCESS) {
+                    writes++;
+                }
+                results[i] = result;
+            }
+            listingRefreshCoordinator.onWrite(writes);
+            return List.of(results);
+        } catch (ElasticsearchException ex) {
+            log.error(String.format("Bulk request failed with status [%s]. Error message [%s]", ex.status(), ex.getMessage()), ex);
+            return failAll(operations, ex);
+        } catch (IOException ex) {
+            log.error(String.format("Bulk request failed. Error message [%s]", ex.getMessage()), ex);
+            return failAll(operations, ex);
+        }
+    }
+
+    @Override
+    public ListingWriteResult write(@NonNull ListingWriteOperation operation) {
+        Listing listing = operation.listing();
+        try {
+            if (isOlderThanDelete(operation, readTombstones(List.of(operation)))) {
+                log.info(String.format("Skipped [%s] event for listing with id [%s] that is not newer than its delete", operation.mode(), listing.getId()));
+                return new ListingWriteResult(listing.getId(), ListingWriteStatus.STALE, null);
+            }
+            if (hasTombstone(operation)) {
+                elasticsearchClient.update(UpdateRequest.<Map<String, Object>, Map<String, Object>>of(update -> update
+                        .index(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+                        .id(listing.getId())
+                        .retryOnConflict(ElasticSearchConstants.RETRY_ON_CONFLICT)
+                        .script(toTombstoneScript(listing))
+                        .scriptedUpsert(true)
+                        .upsert(Map.of())), Map.class);
+            }
+
+            Script script = toScript(operation);
+            UpdateRequest<Map<String, Object>, Map<String, Object>> updateRequest = UpdateRequest.of(update -> {
+                update.index(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                        .id(listing.getId())
+                        .refresh(toRefresh(listingRefreshCoordinator.getRefreshPolicy()))
+                        .retryOnConflict(ElasticSearchConstants.RETRY_ON_CONFLICT)
+                        .script(script);
+                if (operation.mode() == ListingEventMode.CREATE) {
+                    update.scriptedUpsert(true).upsert(Map.of());
+                }
+                return update;
+            });
+
+            log.info(String.format("Sending update request for [%s] event for listing with id [%s]", operation.mode(), listing.getId()));
+            UpdateResponse<?> updateResponse = elasticsearchClient.update(updateRequest, Map.class);
+            log.info(String.format("Update request for listing with id [%s] finished with result [%s]", listing.getId(), updateResponse.result()));
+            if (updateResponse.result() == Result.NoOp) {
+                return new ListingWriteResult(listing.getId(), ListingWriteStatus.STALE, null);
+            }
+            listingRefreshCoordinator.onWrite(1);
+            return new ListingWriteResult(listing.getId(), ListingWriteStatus.SUCCESS, null);
+        } catch (ElasticsearchException ex) {
+            log.info(String.format("Update request for listing with id [%s] failed with status [%s]. Error message [%s]", listing.getId(), ex.status(), ex.getMessage()));
+            return new ListingWriteResult(listing.getId(), classify(ex.status()), ex.getMessage(), isRejected(ex.status(), ex.error().type()));
+        } catch (IOException ex) {
+            log.error(String.format("Update request for listing with id [%s] failed. Error message [%s]", listing.getId(), ex.getMessage()), ex);
+            return new ListingWriteResult(listing.getId(), ListingWriteStatus.RETRYABLE_FAILURE, ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads the tombstones of the listings of the versioned creates that may be applied out of order. A deleted
+     * listing leaves no document the stale event guard could check, so a create retried or replayed after the
+     * delete would bring the listing back without them. The creates consumed in order from the listings topic are
+     * not checked, since a newer delete of the listing is always applied after them, even when they are
+     * redelivered. Tombstones are read in real time, so they do not wait for a refresh.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @return - Map of the listing id to the version of its last delete.
+     * @throws IOException if the tombstones can not be read.
+     */
+    private Map<String, Long> readTombstones(@NonNull List<ListingWriteOperation> operations) throws IOException {
+        List<String> ids = operations
+                .stream()
+                .filter(operation -> operation.mode() == ListingEventMode.CREATE
+                        && operation.outOfOrder()
+                        && operation.listing().getEventVersion() != null
+                        && StringUtils.hasText(operation.listing().getId()))
+                .map(operation -> operation.listing().getId())
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        MgetResponse<Map> response = elasticsearchClient.mget(MgetRequest.of(mget -> mget
+                .index(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+                .ids(ids)), Map.class);
+        Map<String, Long> tombstones = new HashMap<>();
+        for (MultiGetResponseItem<Map> item : response.docs()) {
+            if (item.isFailure()) {
+                throw new IOException(String.format("Reading tombstone of listing with id [%s] failed. Error message [%s]", item.failure().id(), item.failure().error().reason()));
+            }
+            GetResult<Map> tombstone = item.result();
+            if (tombstone.found() && tombstone.source() != null && tombstone.source().get("eventVersion") instanceof Number eventVersion) {
+                tombstones.put(tombstone.id(), eventVersion.longValue());
+            }
+        }
+        return tombstones;
+    }
+
+    /**
+     * Checks if the operation is a create that is not newer than the last delete of the listing.
+     *
+     * @param operation  - {@link ListingWriteOperation} object.
+     * @param tombstones - Map of the listing id to the version of its last delete.
+     * @return - True if the operation should be dropped.
+     */
+    private boolean isOlderThanDelete(@NonNull ListingWriteOperation operation, @NonNull Map<String, Long> tombstones) {
+        Long eventVersion = operation.listing().getEventVersion();
+        Long deleteVersion = operation.listing().getId() == null ? null : tombstones.get(operation.listing().getId());
+        return operation.mode() == ListingEventMode.CREATE && eventVersion != null && deleteVersion != null && deleteVersion >= eventVersion;
+    }
+
+    /**
+     * Checks if the operation leaves a tombstone. Only the versioned deletes do, since only the versioned creates
+     * are checked against them.
+     *
+     * @param operation - {@link ListingWriteOperation} object.
+     * @return - True if the operation is a versioned delete.
+     */
+    private boolean hasTombstone(@NonNull ListingWriteOperation operation) {
+        return operation.mode() == ListingEventMode.DELETE && operation.listing().getEventVersion() != null;
+    }
+
+    /**
+     * Creates the bulk operation that keeps the version of the delete in the tombstone of the listing. It is sent
+     * before the delete itself, so a deleted listing always has its tombstone.
+     *
+     * @param listing - Deleted {@link Listing} object.
+     * @return - {@link BulkOperation} object.
+     */
+    private BulkOperation toTombstoneOperation(@NonNull Listing listing) {
+        Script script = toTombstoneScript(listing);
+        return BulkOperation.of(bulkOperation -> bulkOperation
+                .update(update -> update
+                        .index(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+                        .id(listing.getId())
+                        .retryOnConflict(ElasticSearchConstants.RETRY_ON_CONFLICT)
+                        .action(action -> action
+                                .script(script)
+                                .scriptedUpsert(true)
+                                .upsert(Map.of()))));
+    }
+
+    private Script toTombstoneScript(@NonNull Listing listing) {
+        return Script.of(script -> script
+                .inline(inline -> inline
+                        .lang("painless")
+                        .source(ElasticSearchConstants.DELETE_TOMBSTONE_SCRIPT)
+                        .params("version", JsonData.of(listing.getEventVersion()))));
+    }
+
+    /**
+     * Creates the bulk operation for the listing write operation. All the operations are sent as scripted updates
+     * so that Elasticsearch can drop the stale events without the listing being read first. Creates are upserted.
+     *
+     * @param operation - {@link ListingWriteOperation} object.
+     * @return - {@link BulkOperation} object.
+     */
+    private BulkOperation toBulkOperation(@NonNull ListingWriteOperation operation) {
+        Listing listing = operation.listing();
+        Script script = toScript(operation);
+        return BulkOperation.of(bulkOperation -> bulkOperation
+                .update(update -> update
+                        .id(listing.getId())
+                        .retryOnConflict(ElasticSearchConstants.RETRY_ON_CONFLICT)
+                        .action(action -> {
+                            action.script(script);
+                            if (operation.mode() == ListingEventMode.CREATE) {
+                                action.scriptedUpsert(true).upsert(Map.of());
+                            }
+                            return action;
+                        })));
+    }
+
+    /**
+     * Creates the script applying the operation. Creates without id get a generated one. Creates replace the
+     * stored document, updates merge the new values into it and set its update date to the current date of
+     * the Elasticsearch node in the time zone of this service, while deletes remove it.
+     *
+     * @param operation - {@link ListingWriteOperation} object.
+     * @return - {@link Script} object.
+     */
+    private Script toScript(@NonNull ListingWriteOperation operation) {
+        Listing listing = operation.listing();
+        Map<String, JsonData> params = new HashMap<>();
+        if (listing.getEventVersion() != null) {
+            params.put("version", JsonData.of(listing.getEventVersion()));
+        }
+        String source = switch (operation.mode()) {
+            case CREATE -> {
+                if (!StringUtils.hasText(listing.getId())) {
+                    listing.setId(UUID.randomUUID().toString());
+                }
+                listing.setDateCreated(LocalDate.now());
+                params.put("doc", JsonData.of(toDocument(listing)));
+                yield ElasticSearchConstants.CREATE_LISTING_SCRIPT;
+            }
+            case UPDATE -> {
+                params.put("doc", JsonData.of(toDocument(listing)));
+                params.put("zone", JsonData.of(ZoneId.systemDefault().getId()));
+                yield ElasticSearchConstants.UPDATE_LISTING_SCRIPT;
+            }
+            case DELETE -> ElasticSearchConstants.DELETE_LISTING_SCRIPT;
+        };
+        return Script.of(script -> script
+                .inline(inline -> inline
+                        .lang("painless")
+                        .source(source)
+                        .params(params)));
+    }
+
+    /**
+     * Converts the listing to the document that is stored in the listings index using the same mapping
+     * as the listing repository. Fields without value are left out of the document.
+     *
+     * @param listing - {@link Listing} object.
+     * @return - Map representing the listing document.
+     */
+    private Map<String, Object> toDocument(@NonNull Listing listing) {
+        return new LinkedHashMap<>(elasticsearchConverter.mapObject(listing));
+    }
+
+    /**
+     * Maps the bulk response item to the write result of the operation.
+     *
+     * @param operation - {@link ListingWriteOperation} object sent in the bulk request.
+     * @param item      - {@link BulkResponseItem} object of the operation.
+     * @return - {@link ListingWriteResult} object.
+     */
+    private ListingWriteResult toWriteResult(@NonNull ListingWriteOperation operation, @NonNull BulkResponseItem item) {
+        String listingId = item.id() != null ? item.id() : operation.listing().getId();
+        ListingWriteStatus status = NOOP_RESULT.equals(item.result())
+                ? ListingWriteStatus.STALE
+                : classify(item.status());
+        String message = item.error() != null
+                ? String.format("%s: %s", item.error().type(), item.error().reason())
+                : null;
+        return new ListingWriteResult(listingId, status, message, isRejected(item.status(), item.error() != null ? item.error().type() : null));
+    }
+
+    /**
+     * Creates the failed results for all the operations from the error of the whole request.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @param ex         - {@link ElasticsearchException} returned for the request.
+     * @return - List of {@link ListingWriteResult} objects.
+     */
+    private List<ListingWriteResult> failAll(@NonNull List<ListingWriteOperation> operations, @NonNull ElasticsearchException ex) {
+        return failAll(operations, classify(ex.status()), ex.getMessage(), isRejected(ex.status(), ex.error().type()));
+    }
+
+    /**
+     * Creates the retryable failed results for all the operations of a request that could not be sent.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @param ex         - {@link IOException} thrown by the client.
+     * @return - List of {@link ListingWriteResult} objects.
+     */
+    private List<ListingWriteResult> failAll(@NonNull List<ListingWriteOperation> operations, @NonNull IOException ex) {
+        return failAll(operations, ListingWriteStatus.RETRYABLE_FAILURE, ex.getMessage(), false);
+    }
+
+    /**
+     * Creates the failed results for all the operations.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @param status     - {@link ListingWriteStatus} of the failure.
+     * @param message    - Error message.
+     * @param rejected   - Whether the operations were rejected by the overloaded Elasticsearch.
+     * @return - List of {@link ListingWriteResult} objects.
+     */
+    private List<ListingWriteResult> failAll(@NonNull List<ListingWriteOperation> operations, @NonNull ListingWriteStatus status, String message, boolean rejected) {
+        return operations
+                .stream()
+                .map(operation -> new ListingWriteResult(operation.listing().getId(), status, message, rejected))
+                .toList();
+    }
+
+    /**
+     * Maps the refresh policy to the refresh parameter of the bulk request.
+     *
+     * @param refreshPolicy - {@link RefreshPolicy} object.
+     * @return - {@link Refresh} object.
+     */
+    private Refresh toRefresh(@NonNull RefreshPolicy refreshPolicy) {
+        return switch (refreshPolicy) {
+            case NONE -> Refresh.False;
+            case WAIT_UNTIL -> Refresh.WaitFor;
+            case IMMEDIATE -> Refresh.True;
+        };
+    }
+
+    /**
+     * Checks if Elasticsearch rejected the write because its write thread pool queue was full. Only these failures
+     * tell that Elasticsearch is overloaded, the other retryable failures are not caused by the ingest rate.
+     *
+     * @param status    - HTTP status.
+     * @param errorType - Type of the error returned by Elasticsearch.
+     * @return - True if the write was rejected.
+     */
+    private boolean isRejected(int status, String errorType) {
+        return status == 429 || REJECTED_EXECUTION_ERROR.equals(errorType);
+    }
+
+    /**
+     * Classifies the HTTP status returned by Elasticsearch. Rejections(429) and server side errors are worth
+     * retrying while the rest of the client errors will fail the same way every time.
+     *
+     * @param status - HTTP status.
+     * @return - {@link ListingWriteStatus} object.
+     */
+    private ListingWriteStatus classify(int status) {
+        if (status >= 200 && status < 300) {
+            return ListingWriteStatus.SUCCESS;
+        }
+        if (status == 404) {
+            return ListingWriteStatus.NOT_FOUND;
+        }
+        if (status == 408 || status == 429 || status >= 500) {
+            return ListingWriteStatus.RETRYABLE_FAILURE;
+        }
+        return ListingWriteStatus.PERMANENT_FAILURE;
+    }
+}
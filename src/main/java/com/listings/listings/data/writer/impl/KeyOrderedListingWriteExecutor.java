@@ -0,0 +1,153 @@
+package com.listings.listings.data.writer.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.writer.ListingWriteExecutor;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.data.writer.ListingWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Applies the operations of the different listings in parallel on virtual threads, so that a slow write of one
+ * listing does not hold back the rest of the batch. The operations of the same listing are applied one after another
+ * in their order and once one of them fails with a retryable error the later ones are not applied and are reported
+ * with the {@link ListingWriteStatus#RETRYABLE_FAILURE} status. This way the first retryable failure of the batch
+ * marks the highest contiguous offset that was completed.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "listings.kafka.batch", name = "execution-mode", havingValue = "parallel")
+public class KeyOrderedListingWriteExecutor implements ListingWriteExecutor {
+
+    private final ListingWriter listingWriter;
+
+    private final ExecutorService executorService;
+
+    private final Semaphore writePermits;
+
+    public KeyOrderedListingWriteExecutor(ListingWriter listingWriter, ListingsProperties listingsProperties) {
+        this.listingWriter = listingWriter;
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.writePermits = new Semaphore(listingsProperties.getKafka().getBatch().getParallelism());
+    }
+
+    @Override
+    public List<ListingWriteResult> execute(@NonNull List<ListingWriteOperation> operations) {
+        if (operations.isEmpty()) {
+            return List.of();
+        }
+
+        ListingWriteResult[] results = new ListingWriteResult[operations.size()];
+        Collection<List<Integer>> listingOperations = groupByListing(operations);
+        log.info(String.format("Applying [%s] operations of [%s] listings in parallel", operations.size(), listingOperations.size()));
+
+        List<Future<?>> futures = new ArrayList<>(listingOperations.size());
+        for (List<Integer> operationIndexes : listingOperations) {
+            futures.add(executorService.submit(() -> writeInOrder(operations, operationIndexes, results)));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for the listing writes to finish");
+            futures.forEach(future -> future.cancel(true));
+        } catch (ExecutionException ex) {
+            log.error(String.format("Error on applying listing operations. Error message [%s]", ex.getMessage()), ex);
+        }
+
+        List<ListingWriteResult> writeResults = new ArrayList<>(operations.size());
+        for (int i = 0; i < results.length; i++) {
+            writeResults.add(results[i] != null
+                    ? results[i]
+                    : new ListingWriteResult(operations.get(i).listing().getId(), ListingWriteStatus.RETRYABLE_FAILURE, "Operation was not applied"));
+        }
+        return writeResults;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Groups the indexes of the operations by the listing id keeping the order of the operations.
+     * Operations without a listing id can not conflict with each other so each of them gets its own group.
+     *
+     * @param operations - List of {@link ListingWriteOperation} objects.
+     * @return - Lists of operation indexes, one list per listing.
+     */
+    private Collection<List<Integer>> groupByListing(@NonNull List<ListingWriteOperation> operations) {
+        Map<String, List<Integer>> operationIndexes = new LinkedHashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String listingId = operations.get(i).listing().getId();
+            if (listingId == null) {
+                groups.add(List.of(i));
+            } else {
+                operationIndexes.computeIfAbsent(listingId, id -> {
+                    List<Integer> indexes = new ArrayList<>();
+                    groups.add(indexes);
+                    return indexes;
+                }).add(i);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Applies the operations of a single listing one after another. After a retryable failure the rest of the
+     * operations are skipped so that they are redelivered together with the failed one.
+     *
+     * @param operations       - List of all the {@link ListingWriteOperation} objects of the batch.
+     * @param operationIndexes - Indexes of the operations of the listing in their order.
+     * @param results          - Array the results are written to at the indexes of the operations.
+     */
+    private void writeInOrder(@NonNull List<ListingWriteOperation> operations, @NonNull List<Integer> operationIndexes, @NonNull ListingWriteResult[] results) {
+        boolean failed = false;
+        for (int index : operationIndexes) {
+            ListingWriteOperation operation = operations.get(index);
+            if (failed) {
+                results[index] = new ListingWriteResult(operation.listing().getId(), ListingWriteStatus.RETRYABLE_FAILURE, "Skipped after a failed operation of the same listing");
+                continue;
+            }
+            results[index] = write(operation);
+            failed = results[index].status() == ListingWriteStatus.RETRYABLE_FAILURE;
+        }
+    }
+
+    private ListingWriteResult write(@NonNull ListingWriteOperation operation) {
+        try {
+            writePermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new ListingWriteResult(operation.listing().getId(), ListingWriteStatus.RETRYABLE_FAILURE, "Interrupted before the operation was applied");
+        }
+        try {
+            return listingWriter.write(operation);
+        } catch (RuntimeException ex) {
+            log.error(String.format("Error on applying [%s] operation for listing with id [%s]. Error message [%s]", operation.mode(), operation.listing().getId(), ex.getMessage()), ex);
+            return new ListingWriteResult(operation.listing().getId(), ListingWriteStatus.RETRYABLE_FAILURE, ex.getMessage());
+        } finally {
+            writePermits.release();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.listings.listings.kafka.codec;
+
+import com.listings.listings.kafka.domain.ListingEvent;
+import lombok.NonNull;
+
+import java.io.IOException;
+
+public interface ListingEventCodec {
+
+    /**
+     * Content type written to the header of the records encoded by this codec.
+     *
+     * @return - Content type of the encoded listing events.
+     */
+    String getContentType();
+
+    /**
+     * Encodes the listing event to the record value.
+     *
+     * @param listingEvent - {@link ListingEvent} object.
+     * @return - Encoded listing event.
+     * @throws IOException if the listing event can not be encoded.
+     */
+    byte[] encode(@NonNull ListingEvent listingEvent) throws IOException;
+
+    /**
+     * Decodes the listing event from the record value.
+     *
+     * @param value - Encoded listing event.
+     * @return - {@link ListingEvent} object.
+     * @throws IOException if the value is not a valid listing event.
+     */
+    ListingEvent decode(@NonNull byte[] value) throws IOException;
+}
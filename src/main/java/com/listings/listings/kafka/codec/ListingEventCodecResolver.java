@@ -0,0 +1,20 @@
+package com.listings.listings.kafka.codec;
+
+public interface ListingEventCodecResolver {
+
+    /**
+     * Gets the codec the listing events are produced with.
+     *
+     * @return - {@link ListingEventCodec} object.
+     */
+    ListingEventCodec getProducerCodec();
+
+    /**
+     * Gets the codec for the content type header of a consumed record. Records without the header were produced
+     * before the content type was introduced and are decoded as JSON.
+     *
+     * @param contentType - Content type of the record or null if the record has no content type header.
+     * @return - {@link ListingEventCodec} object or null if no codec supports the content type.
+     */
+    ListingEventCodec getCodec(String contentType);
+}
@@ -0,0 +1,42 @@
+package com.listings.listings.kafka.codec.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.codec.ListingEventCodecResolver;
+import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class DefaultListingEventCodecResolver implements ListingEventCodecResolver {
+
+    private final Map<String, ListingEventCodec> codecs = new HashMap<>();
+
+    private final ListingEventCodec producerCodec;
+
+    public DefaultListingEventCodecResolver(List<ListingEventCodec> listingEventCodecs, ListingsProperties listingsProperties) {
+        listingEventCodecs.forEach(codec -> codecs.put(codec.getContentType(), codec));
+        String contentType = listingsProperties.getKafka().getProducer().getContentType();
+        this.producerCodec = codecs.get(contentType);
+        if (producerCodec == null) {
+            throw new ListingsException(String.format("No listing event codec found for content type [%s]", contentType));
+        }
+        log.info(String.format("Producing listing events as [%s]", contentType));
+    }
+
+    @Override
+    public ListingEventCodec getProducerCodec() {
+        return producerCodec;
+    }
+
+    @Override
+    public ListingEventCodec getCodec(String contentType) {
+        return codecs.get(contentType != null ? contentType : KafkaConstants.JSON_CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,45 @@
+package com.listings.listings.kafka.codec.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.domain.ListingEvent;
+import com.listings.listings.util.KafkaConstants;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Encodes the listing events as JSON. The reader and writer are bound to the {@link ListingEvent} type once,
+ * so the type and its serializers are not looked up for every record, and they work on the record bytes
+ * directly without an intermediate String.
+ */
+@Component
+public class JsonListingEventCodec implements ListingEventCodec {
+
+    private final ObjectReader listingEventReader;
+
+    private final ObjectWriter listingEventWriter;
+
+    public JsonListingEventCodec(ObjectMapper objectMapper) {
+        this.listingEventReader = objectMapper.readerFor(ListingEvent.class);
+        this.listingEventWriter = objectMapper.writerFor(ListingEvent.class);
+    }
+
+    @Override
+    public String getContentType() {
+        return KafkaConstants.JSON_CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(@NonNull ListingEvent listingEvent) throws IOException {
+        return listingEventWriter.writeValueAsBytes(listingEvent);
+    }
+
+    @Override
+    public ListingEvent decode(@NonNull byte[] value) throws IOException {
+        return listingEventReader.readValue(value);
+    }
+}
@@ -0,0 +1,48 @@
+package com.listings.listings.kafka.codec.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.domain.ListingEvent;
+import com.listings.listings.util.KafkaConstants;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Encodes the listing events with Smile, the binary form of JSON. Field names and numbers are written in binary
+ * and repeated field names are back-referenced, so the events are smaller and faster to parse while they keep
+ * the same model and mapping as the JSON events. The reader and writer are bound to the {@link ListingEvent}
+ * type once and reused for every record.
+ */
+@Component
+public class SmileListingEventCodec implements ListingEventCodec {
+
+    private final ObjectReader listingEventReader;
+
+    private final ObjectWriter listingEventWriter;
+
+    public SmileListingEventCodec(ObjectMapper objectMapper) {
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.listingEventReader = smileMapper.readerFor(ListingEvent.class);
+        this.listingEventWriter = smileMapper.writerFor(ListingEvent.class);
+    }
+
+    @Override
+    public String getContentType() {
+        return KafkaConstants.SMILE_CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(@NonNull ListingEvent listingEvent) throws IOException {
+        return listingEventWriter.writeValueAsBytes(listingEvent);
+    }
+
+    @Override
+    public ListingEvent decode(@NonNull byte[] value) throws IOException {
+        return listingEventReader.readValue(value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.listings.listings.kafka.consumer;
+
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.util.KafkaConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListingsRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ListingExistenceFilter listingExistenceFilter;
+
+    /**
+     * Rebuilds the listing existence filter when partitions of the listings topic are assigned, since the listings
+     * of these partitions may have been created by the consumer that owned them before.
+     *
+     * @param partitions - Assigned {@link TopicPartition} objects.
+     */
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        if (partitions.stream().anyMatch(partition -> KafkaConstants.LISTINGS_TOPIC.equals(partition.topic()))) {
+            log.info(String.format("Assigned listings topic partitions [%s]", partitions));
+            listingExistenceFilter.scheduleRebuild();
+        }
+    }
+}
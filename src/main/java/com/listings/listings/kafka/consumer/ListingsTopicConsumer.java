@@ -1,144 +1,429 @@
 package com.listings.listings.kafka.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.cache.ListingCacheInvalidator;
+import com.listings.listings.cache.ListingCacheWarmer;
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.confg.ListingsProperties;
 import com.listings.listings.data.domain.Listing;
-import com.listings.listings.data.repositories.ListingRepository;
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.data.refresh.ListingRefreshCoordinator;
+import com.listings.listings.data.writer.CompactedListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteCompactor;
+import com.listings.listings.data.writer.ListingWriteExecutor;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.data.writer.ListingWriter;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.codec.ListingEventCodecResolver;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.kafka.flow.ListingsFlowController;
 import com.listings.listings.mapper.ListingMapper;
-import com.listings.listings.util.CacheConstants;
 import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingEventVersions;
 import com.listings.listings.util.ListingsException;
+import com.listings.listings.util.NonRetryableListingsException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ListingsTopicConsumer {
 
-    private final ObjectMapper objectMapper;
-
-    private final ListingRepository listingRepository;
+    private final ListingEventCodecResolver listingEventCodecResolver;
 
     private final ListingMapper listingMapper;
 
+    private final ListingWriter listingWriter;
+
+    private final ListingWriteExecutor listingWriteExecutor;
+
+    private final ListingWriteCompactor listingWriteCompactor;
+
+    private final ListingCacheInvalidator listingCacheInvalidator;
+
+    private final ListingRefreshCoordinator listingRefreshCoordinator;
+
+    private final ListingCacheWarmer listingCacheWarmer;
+
+    private final ListingsFlowController listingsFlowController;
+
+    private final ListingExistenceFilter listingExistenceFilter;
+
+    private final ListingsProperties listingsProperties;
+
+    private final MeterRegistry meterRegistry;
+
     /**
-     * Consumes messages from the listings topic.
+     * Consumes messages from the listings topic. Events that fail with a retryable error are retried out of band
+     * through the retry topics with an exponential backoff, so that the partition keeps flowing, and end up
+     * in the dead-letter topic once all the attempts are used. Events that can never be applied are sent to
+     * the dead-letter topic right away.
      *
-     * @param message        - Serialized listing event.
+     * @param record         - {@link ConsumerRecord} object holding the encoded listing event.
      * @param acknowledgment - {@link Acknowledgment} object used to acknowledge the receiving of the object or not.
      */
-    @KafkaListener(topics = {KafkaConstants.LISTINGS_TOPIC})
+    @RetryableTopic(
+            attempts = "${listings.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${listings.kafka.retry.delay:1000}",
+                    multiplierExpression = "${listings.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${listings.kafka.retry.max-delay:30000}"
+            ),
+            numPartitions = "${listings.kafka.topic.partitions:6}",
+            replicationFactor = "${listings.kafka.topic.replication-factor:1}",
+            retryTopicSuffix = KafkaConstants.RETRY_TOPIC_SUFFIX,
+            dltTopicSuffix = KafkaConstants.DLT_TOPIC_SUFFIX,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            exclude = {NonRetryableListingsException.class},
+            traversingCauses = "true",
+            autoStartDltHandler = "#{!${listings.kafka.batch.enabled:false}}"
+    )
+    @KafkaListener(
+            id = KafkaConstants.LISTINGS_LISTENER_ID,
+            topics = {KafkaConstants.LISTINGS_TOPIC},
+            autoStartup = "#{!${listings.kafka.batch.enabled:false}}"
+    )
     @Transactional
-    @CacheEvict(value = {CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE}, allEntries = true)
-    public void consumeListing(String message, Acknowledgment acknowledgment) {
-        if (message == null) {
+    public void consumeListing(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        if (record.value() == null) {
             log.info("Got null message");
             acknowledgment.acknowledge();
+            return;
         }
         ListingEvent listingEvent = null;
         try {
-            listingEvent = objectMapper.readValue(message, ListingEvent.class);
+            listingEvent = readListingEvent(record);
 
             Listing listing = listingMapper.mapToListing(listingEvent);
 
             validateListing(listing, listingEvent.getMode());
 
-            switch (listingEvent.getMode()) {
-                case DELETE -> doDeleteListing(listing.getId());
-                case CREATE -> doCreateListing(listing);
-                case UPDATE -> doUpdateListing(listing);
+            if (applyListing(new ListingWriteOperation(listingEvent.getMode(), listing, ListingEventVersions.isOutOfOrder(record)), mightExist(listingEvent.getMode(), listing))) {
+                invalidate(List.of(ListingChange.of(listingEvent.getMode(), listing)));
+                listingCacheWarmer.onIngested(1);
             }
 
             acknowledgment.acknowledge();
         } catch (ListingsException ex) {
             log.warn(String.format("Error on validating listing event [%s]. Error message [%s]", listingEvent, ex.getMessage()));
             acknowledgment.acknowledge();
-        } catch (Exception ex) {
-            log.error(String.format("Error occurred. Error message [%s]", ex.getMessage()), ex);
-            acknowledgment.nack(Duration.ofMillis(5));
+        } catch (IOException ex) {
+            throw new NonRetryableListingsException(String.format("Error on parsing listing event. Error message [%s]", ex.getMessage()), ex);
         }
+    }
 
+    /**
+     * Consumes the listing events that could not be applied after all the attempts. The record in the dead-letter
+     * topic holds the original topic, partition, offset and the exception in its headers, so it can be inspected
+     * and replayed to the listings topic once the cause is fixed.
+     *
+     * @param record         - {@link ConsumerRecord} object from the dead-letter topic.
+     * @param acknowledgment - {@link Acknowledgment} object used to acknowledge the record.
+     */
+    @DltHandler
+    public void consumeDeadLetter(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        log.error(String.format(
+                "Listing event with key [%s] moved to [%s] topic on partition [%s] and offset [%s]. Original offset [%s]. Error message [%s]",
+                record.key(),
+                record.topic(),
+                record.partition(),
+                record.offset(),
+                headerValue(record, KafkaHeaders.DLT_ORIGINAL_OFFSET),
+                headerValue(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE)
+        ));
+        meterRegistry.counter("listings.kafka.dlt.records").increment();
+        acknowledgment.acknowledge();
     }
 
     /**
-     * Checks if the listing with the provided ID exists and deletes it if it does.
+     * Consumes a whole poll of messages from the listings topic, collapses the events of the same listing with
+     * the {@link ListingWriteCompactor} and applies them with the configured {@link ListingWriteExecutor}. Invalid
+     * events are skipped, while the records starting from the first one of a write that failed with a retryable
+     * error are redelivered. The offsets of the batch are committed at once up to that record. The writes are sent
+     * in chunks of the batch size of the {@link ListingsFlowController}.
      *
-     * @param listingId - Listing id.
+     * @param records        - List of {@link ConsumerRecord} objects holding the encoded listing events.
+     * @param acknowledgment - {@link Acknowledgment} object used to acknowledge the batch or redeliver a part of it.
      */
-    private void doDeleteListing(@NonNull String listingId) {
-        if (!listingRepository.existsById(listingId)) {
-            log.info(String.format("No listing found with id [%s]", listingId));
-            return;
+    @KafkaListener(
+            id = KafkaConstants.LISTINGS_BATCH_LISTENER_ID,
+            topics = {KafkaConstants.LISTINGS_TOPIC},
+            containerFactory = KafkaConstants.BATCH_LISTENER_CONTAINER_FACTORY,
+            autoStartup = "${listings.kafka.batch.enabled:false}"
+    )
+    @Transactional
+    public void consumeListings(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        log.info(String.format("Got batch of [%s] records", records.size()));
+
+        List<ListingWriteOperation> operations = new ArrayList<>(records.size());
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            ListingWriteOperation operation = toWriteOperation(record);
+            if (operation != null) {
+                operations.add(operation);
+                recordIndexes.add(i);
+            }
+        }
+
+        List<CompactedListingWriteOperation> compacted = listingWriteCompactor.compact(operations);
+        List<Boolean> mightExist = compacted
+                .stream()
+                .map(compactedOperation -> mightExist(compactedOperation.operation().mode(), compactedOperation.operation().listing()))
+                .toList();
+        List<ListingWriteResult> results = write(compacted);
+
+        List<ListingChange> changes = new ArrayList<>(results.size());
+        int redeliverFrom = -1;
+        for (int i = 0; i < results.size(); i++) {
+            ListingWriteResult result = results.get(i);
+            ListingWriteOperation operation = compacted.get(i).operation();
+            switch (result.status()) {
+                case SUCCESS -> {
+                    log.info(String.format("Applied [%s] event for listing with id [%s] compacted from [%s] events", operation.mode(), result.listingId(), compacted.get(i).events()));
+                    Listing listing = operation.listing();
+                    listing.setId(result.listingId());
+                    changes.add(ListingChange.of(operation.mode(), listing));
+                    onApplied(operation.mode(), result.listingId(), mightExist.get(i));
+                }
+                case NOT_FOUND -> {
+                    log.info(String.format("No listing found with id [%s]", result.listingId()));
+                    onNotFound(result.listingId(), mightExist.get(i));
+                }
+                case STALE -> log.info(String.format("Skipped stale [%s] event with version [%s] for listing with id [%s]", operation.mode(), operation.listing().getEventVersion(), result.listingId()));
+                case PERMANENT_FAILURE -> log.warn(String.format("Error on applying [%s] event for listing with id [%s]. Error message [%s]", operation.mode(), result.listingId(), result.message()));
+                case RETRYABLE_FAILURE -> {
+                    log.warn(String.format("Retryable error on applying [%s] event for listing with id [%s]. Error message [%s]", operation.mode(), result.listingId(), result.message()));
+                    if (redeliverFrom == -1) {
+                        redeliverFrom = recordIndexes.get(compacted.get(i).firstIndex());
+                    }
+                }
+            }
+        }
+
+        invalidate(changes);
+        listingCacheWarmer.onIngested(changes.size());
+
+        if (redeliverFrom == -1) {
+            acknowledgment.acknowledge();
+        } else {
+            log.info(String.format("Redelivering [%s] records of the batch", records.size() - redeliverFrom));
+            acknowledgment.nack(redeliverFrom, listingsProperties.getKafka().getBatch().getRetryBackoff());
         }
-        log.info(String.format("Deleting listing with id [%s]", listingId));
-        listingRepository.deleteById(listingId);
     }
 
     /**
-     * Saves the new listing to the database.
+     * Applies the compacted operations in chunks of the batch size of the {@link ListingsFlowController} and reports
+     * the outcome of every chunk to it. Only the writes Elasticsearch rejected because it was overloaded are reported
+     * as rejected. The writing stops after the first chunk with a retryable failure, since the
+     * records starting from that failure are redelivered anyway.
      *
-     * @param listing - {@link Listing} object.
+     * @param compacted - List of {@link CompactedListingWriteOperation} objects.
+     * @return - List of {@link ListingWriteResult} objects of the applied operations in their order.
      */
-    private void doCreateListing(@NonNull Listing listing) {
-        log.info(String.format("Saving new listing [%s]", listing));
-        listing.setDateCreated(LocalDate.now());
-        Listing savedListing = listingRepository.save(listing, RefreshPolicy.IMMEDIATE);
-        log.info(String.format("Saved a new listing [%s]", savedListing));
+    private List<ListingWriteResult> write(@NonNull List<CompactedListingWriteOperation> compacted) {
+        List<ListingWriteResult> results = new ArrayList<>(compacted.size());
+        int from = 0;
+        while (from < compacted.size()) {
+            int to = Math.min(compacted.size(), from + Math.max(1, listingsFlowController.getBatchSize()));
+            List<ListingWriteOperation> chunk = compacted
+                    .subList(from, to)
+                    .stream()
+                    .map(CompactedListingWriteOperation::operation)
+                    .toList();
+
+            long start = System.nanoTime();
+            List<ListingWriteResult> chunkResults = listingWriteExecutor.execute(chunk);
+            int rejected = (int) chunkResults
+                    .stream()
+                    .filter(ListingWriteResult::rejected)
+                    .count();
+            listingsFlowController.onWrites(chunk.size(), rejected, Duration.ofNanos(System.nanoTime() - start));
+
+            results.addAll(chunkResults);
+            if (chunkResults.stream().anyMatch(result -> result.status() == ListingWriteStatus.RETRYABLE_FAILURE)) {
+                break;
+            }
+            from = to;
+        }
+        return results;
     }
 
     /**
-     * Checks if the listing with the provided ID exists and updates it if it does.
+     * Decodes, maps and validates the record from the listings topic.
      *
-     * @param listing - {@link Listing} object.
+     * @param record - {@link ConsumerRecord} object holding the encoded listing event.
+     * @return - {@link ListingWriteOperation} object or null if the record holds no valid listing event.
      */
-    private void doUpdateListing(@NonNull Listing listing) {
-        log.info(String.format("Finding listing with id [%s]", listing.getId()));
-        Optional<Listing> optionalListing = listingRepository.findById(listing.getId());
-        if (optionalListing.isEmpty()) {
-            log.info(String.format("Listing with id [%s] not found", listing.getId()));
-            return;
+    private ListingWriteOperation toWriteOperation(@NonNull ConsumerRecord<String, byte[]> record) {
+        if (record.value() == null) {
+            log.info(String.format("Got null message on partition [%s] and offset [%s]", record.partition(), record.offset()));
+            return null;
+        }
+        ListingEvent listingEvent = null;
+        try {
+            listingEvent = readListingEvent(record);
+
+            Listing listing = listingMapper.mapToListing(listingEvent);
+
+            validateListing(listing, listingEvent.getMode());
+
+            return new ListingWriteOperation(listingEvent.getMode(), listing, ListingEventVersions.isOutOfOrder(record));
+        } catch (ListingsException ex) {
+            log.warn(String.format("Error on validating listing event [%s]. Error message [%s]", listingEvent, ex.getMessage()));
+            return null;
+        } catch (IOException ex) {
+            log.warn(String.format("Error on parsing message on partition [%s] and offset [%s]. Error message [%s]", record.partition(), record.offset(), ex.getMessage()));
+            return null;
         }
+    }
+
+    /**
+     * Applies the listing event with a single update request. Events older than the stored listing are dropped.
+     * Throws {@link IllegalStateException} if the write failed with a retryable error so that the event is retried
+     * and {@link NonRetryableListingsException} if the listing was rejected by Elasticsearch.
+     *
+     * @param operation  - {@link ListingWriteOperation} object of the event.
+     * @param mightExist - Whether the listing might exist according to the {@link ListingExistenceFilter}.
+     * @return - True if the listing was changed.
+     */
+    private boolean applyListing(@NonNull ListingWriteOperation operation, boolean mightExist) {
+        ListingEventMode mode = operation.mode();
+        Listing listing = operation.listing();
+        log.info(String.format("Applying [%s] event for listing [%s]", mode, listing));
+        long start = System.nanoTime();
+        ListingWriteResult result = listingWriter.write(operation);
+        listingsFlowController.onWrites(1, result.rejected() ? 1 : 0, Duration.ofNanos(System.nanoTime() - start));
+        return switch (result.status()) {
+            case SUCCESS -> {
+                log.info(String.format("Applied [%s] event for listing with id [%s]", mode, result.listingId()));
+                onApplied(mode, result.listingId(), mightExist);
+                yield true;
+            }
+            case NOT_FOUND -> {
+                log.info(String.format("No listing found with id [%s]", result.listingId()));
+                onNotFound(result.listingId(), mightExist);
+                yield false;
+            }
+            case STALE -> {
+                log.info(String.format("Skipped stale [%s] event with version [%s] for listing with id [%s]", mode, listing.getEventVersion(), result.listingId()));
+                yield false;
+            }
+            case PERMANENT_FAILURE -> throw new NonRetryableListingsException(
+                    String.format("Error on applying [%s] event for listing with id [%s]. Error message [%s]", mode, result.listingId(), result.message()));
+            case RETRYABLE_FAILURE -> throw new IllegalStateException(
+                    String.format("Applying [%s] event for listing with id [%s] failed. Error message [%s]", mode, result.listingId(), result.message()));
+        };
+    }
+
+    /**
+     * Evicts the cached pages that could be affected by the changes. Writes that are not refreshed right away are
+     * not searchable yet, so the pages are evicted again by the {@link ListingRefreshCoordinator} once they are.
+     *
+     * @param changes - List of {@link ListingChange} objects applied to the listings index.
+     */
+    private void invalidate(@NonNull List<ListingChange> changes) {
+        listingCacheInvalidator.invalidate(changes);
+        listingRefreshCoordinator.onChanged(changes);
+    }
+
+    /**
+     * Checks with the {@link ListingExistenceFilter} if the listing event may change a stored listing. Creates
+     * always do. The answer for the updates and deletes is only a hint, the event is applied either way and a
+     * listing that is not stored is answered with {@link ListingWriteStatus#NOT_FOUND} by the write script.
+     *
+     * @param mode    - {@link ListingEventMode} event mode.
+     * @param listing - {@link Listing} object.
+     * @return - False if the listing was not seen by the filter.
+     */
+    private boolean mightExist(@NonNull ListingEventMode mode, @NonNull Listing listing) {
+        return mode == ListingEventMode.CREATE || listing.getId() == null || listingExistenceFilter.mightExist(listing.getId());
+    }
 
-        Listing oldListing = optionalListing.get();
+    /**
+     * Keeps the {@link ListingExistenceFilter} up to date with an applied event. Created listings are added to it
+     * and the listings it missed are added to it and counted.
+     *
+     * @param mode       - {@link ListingEventMode} event mode.
+     * @param listingId  - Id of the listing.
+     * @param mightExist - Whether the listing might exist according to the filter before the event was applied.
+     */
+    private void onApplied(@NonNull ListingEventMode mode, @NonNull String listingId, boolean mightExist) {
+        if (mode == ListingEventMode.CREATE) {
+            listingExistenceFilter.onCreated(listingId);
+        } else if (!mightExist) {
+            log.info(String.format("Applied [%s] event for listing with id [%s] that was missing from the existence filter", mode, listingId));
+            listingExistenceFilter.onFound(listingId);
+        }
+    }
 
-        log.info(String.format("Merging old listing [%s] with the new one [%s]", oldListing, listing));
-        mergeListings(oldListing, listing);
-        log.info(String.format("Merged listings [%s]", oldListing));
+    private void onNotFound(@NonNull String listingId, boolean mightExist) {
+        if (mightExist) {
+            listingExistenceFilter.onNotFound(listingId);
+        }
+    }
 
-        log.info(String.format("Updating listing [%s]", oldListing));
-        Listing savedListing = listingRepository.save(oldListing, RefreshPolicy.IMMEDIATE);
-        log.info(String.format("Updated the listing [%s]", savedListing));
+    /**
+     * Decodes the listing event with the codec of the content type header of the record.
+     *
+     * @param record - {@link ConsumerRecord} object holding the encoded listing event.
+     * @return - {@link ListingEvent} object.
+     * @throws IOException if the content type is not supported or the value is not a valid listing event.
+     */
+    private ListingEvent readListingEvent(@NonNull ConsumerRecord<String, byte[]> record) throws IOException {
+        String contentType = headerValue(record, KafkaConstants.CONTENT_TYPE_HEADER);
+        ListingEventCodec codec = listingEventCodecResolver.getCodec(contentType);
+        if (codec == null) {
+            throw new IOException(String.format("Unsupported listing event content type [%s]", contentType));
+        }
+        ListingEvent listingEvent = codec.decode(record.value());
+        if (listingEvent != null) {
+            listingEvent.setVersion(ListingEventVersions.fromRecord(record));
+        }
+        return listingEvent;
     }
 
     /**
-     * Merges the values from the new listing to the old one that will be updated in the database.
+     * Reads the header of the record as a string.
      *
-     * @param oldListing - {@link Listing} object from the database.
-     * @param newListing - {@link Listing} object from the topic to be used to update the old one.
+     * @param record     - {@link ConsumerRecord} object.
+     * @param headerName - Name of the header.
+     * @return - Value of the last header with the name or null if the record has no such header.
      */
-    private void mergeListings(@NonNull Listing oldListing, @NonNull Listing newListing) {
-        oldListing.setMake(newListing.getMake());
-        oldListing.setModel(newListing.getModel());
-        oldListing.setProductionYear(newListing.getProductionYear());
-        oldListing.setMileage(newListing.getMileage());
-        oldListing.setTransmissionType(newListing.getTransmissionType());
-        oldListing.setFuelType(newListing.getFuelType());
-        oldListing.setContactInfo(newListing.getContactInfo());
-        oldListing.setDateUpdated(LocalDate.now());
+    private String headerValue(@NonNull ConsumerRecord<String, byte[]> record, @NonNull String headerName) {
+        Header header = record.headers().lastHeader(headerName);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        if (header.value().length == Long.BYTES && KafkaHeaders.DLT_ORIGINAL_OFFSET.equals(headerName)) {
+            return String.valueOf(ByteBuffer.wrap(header.value()).getLong());
+        }
+        return new String(header.value(), StandardCharsets.UTF_8);
     }
 
     /**
@@ -22,4 +22,10 @@ public class ListingEvent {
     private FuelType fuelType;
     private ListingEventContactInfo contactInfo;
     private ListingEventMode mode;
+    private String eventId;
+
+    /**
+     * Version of the event. It is set by the consumer from the offset of the record and is not produced.
+     */
+    private Long version;
 }
@@ -0,0 +1,26 @@
+package com.listings.listings.kafka.flow;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+
+public interface ListingsFlowController {
+
+    /**
+     * Returns the number of listing writes that should be sent to Elasticsearch at once. The size follows the
+     * capacity of Elasticsearch observed by the previous writes.
+     *
+     * @return - Current batch size.
+     */
+    int getBatchSize();
+
+    /**
+     * Records the outcome of a write request to Elasticsearch so that the batch size can be adjusted and the
+     * consumption paused when Elasticsearch rejects the writes.
+     *
+     * @param writes   - Number of writes sent with the request.
+     * @param rejected - Number of writes rejected by the overloaded Elasticsearch(429).
+     * @param latency  - Latency of the request.
+     */
+    void onWrites(int writes, int rejected, @NonNull Duration latency);
+}
@@ -0,0 +1,158 @@
+package com.listings.listings.kafka.flow.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.kafka.flow.ListingsFlowController;
+import com.listings.listings.util.KafkaConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Flow controller with additive increase and multiplicative decrease of the batch size. Every write that stays
+ * under the target latency without rejections grows the batch size by a fixed step, while a slow or rejected
+ * write cuts it by a factor, so the ingest settles just below the capacity of Elasticsearch. Rejections also
+ * pause the listener containers of the listings topic and its retry topics for a backoff that doubles while
+ * Elasticsearch keeps rejecting the writes.
+ */
+@Component
+@Slf4j
+public class AimdListingsFlowController implements ListingsFlowController {
+
+    private static final String RETRY_LISTENER_ID_PREFIX = KafkaConstants.LISTINGS_LISTENER_ID + KafkaConstants.RETRY_TOPIC_SUFFIX;
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ListingsProperties.Flow flowProperties;
+
+    private final int maxBatchSize;
+
+    private final Counter rejectedWrites;
+
+    private final Counter pauses;
+
+    private volatile int batchSize;
+
+    private Duration pauseDuration;
+
+    private boolean paused;
+
+    public AimdListingsFlowController(KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+                                      TaskScheduler taskScheduler,
+                                      ListingsProperties listingsProperties,
+                                      MeterRegistry meterRegistry) {
+        this.kafkaListenerEndpointRegistry = kafkaListenerEndpointRegistry;
+        this.taskScheduler = taskScheduler;
+        this.flowProperties = listingsProperties.getKafka().getFlow();
+        this.maxBatchSize = listingsProperties.getKafka().getBatch().getMaxPollRecords();
+        this.batchSize = maxBatchSize;
+        this.pauseDuration = flowProperties.getPause();
+        Gauge
+                .builder("listings.kafka.flow.batch.size", this, AimdListingsFlowController::getBatchSize)
+                .description("Number of listing writes sent to Elasticsearch at once")
+                .register(meterRegistry);
+        this.rejectedWrites = Counter
+                .builder("listings.kafka.flow.rejected.writes")
+                .description("Listing writes rejected by the overloaded Elasticsearch")
+                .register(meterRegistry);
+        this.pauses = Counter
+                .builder("listings.kafka.flow.pauses")
+                .description("Pauses of the listings consumption caused by rejected writes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public synchronized void onWrites(int writes, int rejected, @NonNull Duration latency) {
+        if (!flowProperties.isEnabled() || writes == 0) {
+            return;
+        }
+        rejectedWrites.increment(rejected);
+
+        boolean overloaded = rejected > writes * flowProperties.getRejectionThreshold()
+                || latency.compareTo(flowProperties.getTargetLatency()) > 0;
+        if (!overloaded) {
+            batchSize = Math.min(maxBatchSize, batchSize + flowProperties.getIncreaseStep());
+            pauseDuration = flowProperties.getPause();
+            return;
+        }
+
+        int previousBatchSize = batchSize;
+        batchSize = Math.max(flowProperties.getMinBatchSize(), (int) (batchSize * flowProperties.getDecreaseFactor()));
+        log.warn(String.format("Elasticsearch rejected [%s] of [%s] writes in [%s] ms. Batch size decreased from [%s] to [%s]",
+                rejected, writes, latency.toMillis(), previousBatchSize, batchSize));
+        if (rejected > 0) {
+            pause();
+        }
+    }
+
+    /**
+     * Pauses the running listing listener containers and schedules their resume. The containers stop fetching
+     * the records after the current poll is processed. The next pause, if Elasticsearch still rejects the writes
+     * after the resume, lasts twice as long up to the maximum pause.
+     */
+    private void pause() {
+        if (paused) {
+            return;
+        }
+        List<MessageListenerContainer> containers = runningContainers();
+        if (containers.isEmpty()) {
+            return;
+        }
+        paused = true;
+        pauses.increment();
+        log.warn(String.format("Pausing the listings consumption for [%s] ms", pauseDuration.toMillis()));
+        containers.forEach(MessageListenerContainer::pause);
+        taskScheduler.schedule(() -> resume(containers), Instant.now().plus(pauseDuration));
+        pauseDuration = pauseDuration.multipliedBy(2).compareTo(flowProperties.getMaxPause()) > 0
+                ? flowProperties.getMaxPause()
+                : pauseDuration.multipliedBy(2);
+    }
+
+    /**
+     * Resumes the paused listener containers.
+     *
+     * @param containers - List of paused {@link MessageListenerContainer} objects.
+     */
+    synchronized void resume(@NonNull List<MessageListenerContainer> containers) {
+        log.info("Resuming the listings consumption");
+        containers.forEach(MessageListenerContainer::resume);
+        paused = false;
+    }
+
+    /**
+     * Gets the running listener containers of the listings topic and its retry topics. The retry topics are
+     * consumed by their own containers, so the retried events would keep writing to Elasticsearch otherwise.
+     * The dead-letter container does not write to Elasticsearch and keeps running.
+     *
+     * @return - List of running {@link MessageListenerContainer} objects.
+     */
+    private List<MessageListenerContainer> runningContainers() {
+        return kafkaListenerEndpointRegistry.getListenerContainers()
+                .stream()
+                .filter(container -> isListingsListener(container.getListenerId()))
+                .filter(MessageListenerContainer::isRunning)
+                .toList();
+    }
+
+    private boolean isListingsListener(String listenerId) {
+        return KafkaConstants.LISTINGS_LISTENER_ID.equals(listenerId)
+                || KafkaConstants.LISTINGS_BATCH_LISTENER_ID.equals(listenerId)
+                || (listenerId != null && listenerId.startsWith(RETRY_LISTENER_ID_PREFIX));
+    }
+}
@@ -0,0 +1,44 @@
+package com.listings.listings.kafka.producer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Callback handler of the records sent by the kafka template. As the listing events are sent asynchronously
+ * the failures can not be returned to the caller anymore, so they are logged and counted here.
+ */
+@Component
+@Slf4j
+public class ListingsProducerListener implements ProducerListener<Object, Object> {
+
+    private final Counter sentRecords;
+
+    private final Counter failedRecords;
+
+    public ListingsProducerListener(MeterRegistry meterRegistry) {
+        this.sentRecords = Counter.builder("listings.kafka.producer.records")
+                .tag("result", "sent")
+                .description("Number of records sent to the listings topic")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("listings.kafka.producer.records")
+                .tag("result", "failed")
+                .description("Number of records that could not be sent to the listings topic")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<Object, Object> producerRecord, RecordMetadata recordMetadata) {
+        sentRecords.increment();
+    }
+
+    @Override
+    public void onError(ProducerRecord<Object, Object> producerRecord, RecordMetadata recordMetadata, Exception exception) {
+        failedRecords.increment();
+        log.error(String.format("Error on sending record with key [%s] to [%s] topic. Error message [%s]", producerRecord.key(), producerRecord.topic(), exception.getMessage()), exception);
+    }
+}
@@ -1,35 +1,61 @@
 package com.listings.listings.kafka.producer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.codec.ListingEventCodecResolver;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingEventVersions;
 import com.listings.listings.util.ListingsException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ListingsTopicProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
 
-    private final ObjectMapper objectMapper;
+    private final ListingEventCodecResolver listingEventCodecResolver;
 
+    private final ListingsProperties listingsProperties;
 
     /**
-     * Produces a listing event to the listings topic.
+     * Produces a listing event to the listings topic. Events are keyed by the listing id so that all the events
+     * of a listing end up on the same partition and are consumed in order. The events are not versioned by the
+     * producer, the consumer takes the version from the offset of the record, see {@link ListingEventVersions}.
+     * The event is encoded with the configured {@link ListingEventCodec} and its content type is written
+     * to the record header.
+     * In the async mode the method returns as soon as the event is handed over to the producer and the
+     * failures are handled by the {@link ListingsProducerListener}.
      *
      * @param listingEvent - {@link ListingEvent} object.
      */
     public void produceListing(@NonNull ListingEvent listingEvent) {
+        if (listingEvent.getEventId() == null) {
+            listingEvent.setEventId(UUID.randomUUID().toString());
+        }
         try {
             log.info(String.format("Sending a new listing event to listings topic [%s]", listingEvent));
-            SendResult<String, String> sendResult = kafkaTemplate.send(KafkaConstants.LISTINGS_TOPIC, objectMapper.writeValueAsString(listingEvent)).get();
+            ListingEventCodec codec = listingEventCodecResolver.getProducerCodec();
+            ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(KafkaConstants.LISTINGS_TOPIC, listingEvent.getId(), codec.encode(listingEvent));
+            producerRecord.headers().add(KafkaConstants.CONTENT_TYPE_HEADER, codec.getContentType().getBytes(StandardCharsets.UTF_8));
+            CompletableFuture<SendResult<String, byte[]>> sendFuture = kafkaTemplate.send(producerRecord);
+            if (listingsProperties.getKafka().getProducer().isAsync()) {
+                sendFuture.thenAccept(sendResult -> log.info(String.format("Successfully sent a listing event with id [%s] to [%s] topic. Send result [%s]", listingEvent.getEventId(), KafkaConstants.LISTINGS_TOPIC, sendResult)));
+                return;
+            }
+            SendResult<String, byte[]> sendResult = sendFuture.get();
             log.info(String.format("Successfully sent a listing event [%s] to [%s] topic. Send result [%s]", listingEvent, KafkaConstants.LISTINGS_TOPIC, sendResult));
         } catch (Exception ex) {
             log.error(String.format("Error on sending the message to the topic. Error message [%s]", ex.getMessage()), ex);
@@ -0,0 +1,16 @@
+package com.listings.listings.kafka.replay;
+
+import lombok.NonNull;
+
+public interface ListingsDltReplayer {
+
+    /**
+     * Sends the records of the listings dead-letter topic within the offset range back to the listings topic.
+     *
+     * @param partition  - Partition of the dead-letter topic.
+     * @param fromOffset - First offset to replay.
+     * @param toOffset   - Last offset to replay, inclusive.
+     * @return - Number of replayed records.
+     */
+    int replay(int partition, long fromOffset, long toOffset);
+}
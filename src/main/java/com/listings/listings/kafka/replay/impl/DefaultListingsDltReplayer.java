@@ -0,0 +1,91 @@
+package com.listings.listings.kafka.replay.impl;
+
+import com.listings.listings.kafka.replay.ListingsDltReplayer;
+import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingEventVersions;
+import com.listings.listings.util.ListingsException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DefaultListingsDltReplayer implements ListingsDltReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final int MAX_EMPTY_POLLS = 5;
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Override
+    public int replay(int partition, long fromOffset, long toOffset) {
+        if (fromOffset < 0 || toOffset < fromOffset) {
+            throw new ListingsException(String.format("Offset range [%s, %s] is not valid", fromOffset, toOffset));
+        }
+
+        TopicPartition topicPartition = new TopicPartition(KafkaConstants.LISTINGS_DLT_TOPIC, partition);
+        List<CompletableFuture<SendResult<String, byte[]>>> sendFutures = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(null, "-dlt-replay")) {
+            consumer.assign(List.of(topicPartition));
+            consumer.seek(topicPartition, fromOffset);
+            long endOffset = Math.min(toOffset + 1, consumer.endOffsets(List.of(topicPartition)).get(topicPartition));
+            log.info(String.format("Replaying [%s] topic partition [%s] from offset [%s] to offset [%s]", KafkaConstants.LISTINGS_DLT_TOPIC, partition, fromOffset, endOffset - 1));
+
+            int emptyPolls = 0;
+            while (consumer.position(topicPartition) < endOffset && emptyPolls < MAX_EMPTY_POLLS) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                for (ConsumerRecord<String, byte[]> record : records.records(topicPartition)) {
+                    if (record.offset() >= endOffset) {
+                        break;
+                    }
+                    sendFutures.add(kafkaTemplate.send(toListingsRecord(record)));
+                }
+            }
+        }
+
+        CompletableFuture.allOf(sendFutures.toArray(CompletableFuture[]::new)).join();
+        log.info(String.format("Replayed [%s] records from [%s] topic partition [%s]", sendFutures.size(), KafkaConstants.LISTINGS_DLT_TOPIC, partition));
+        return sendFutures.size();
+    }
+
+    /**
+     * Creates the record for the listings topic from the dead-letter record. Only the content type header is
+     * kept so that the event is decoded the same way, while the failure headers are left out. The version of the
+     * event is written to its own header, so the replayed event does not get the version of its new offset and
+     * does not replace the newer events of the listing.
+     *
+     * @param record - {@link ConsumerRecord} object from the dead-letter topic.
+     * @return - {@link ProducerRecord} object for the listings topic.
+     */
+    private ProducerRecord<String, byte[]> toListingsRecord(ConsumerRecord<String, byte[]> record) {
+        ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(KafkaConstants.LISTINGS_TOPIC, record.key(), record.value());
+        Header contentType = record.headers().lastHeader(KafkaConstants.CONTENT_TYPE_HEADER);
+        if (contentType != null) {
+            producerRecord.headers().add(contentType);
+        }
+        Long version = ListingEventVersions.fromRecord(record);
+        if (version != null) {
+            producerRecord.headers().add(KafkaConstants.EVENT_VERSION_HEADER, ListingEventVersions.toHeaderValue(version));
+        }
+        return producerRecord;
+    }
+}
@@ -63,6 +63,7 @@ public class DefaultListingMapper implements ListingMapper {
                 .transmissionType(listingEvent.getTransmissionType())
                 .fuelType(listingEvent.getFuelType())
                 .contactInfo(contactInfo)
+                .eventVersion(listingEvent.getVersion())
                 .build();
     }
 
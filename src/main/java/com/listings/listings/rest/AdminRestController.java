@@ -0,0 +1,48 @@
+package com.listings.listings.rest;
+
+import com.listings.listings.kafka.replay.ListingsDltReplayer;
+import com.listings.listings.rest.dto.admin.DltReplayDto;
+import com.listings.listings.rest.dto.error.ErrorResponse;
+import com.listings.listings.util.RestConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(value = RestConstants.ADMIN_BASE_API)
+@RequiredArgsConstructor
+@Slf4j
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "400", description = "Error in request data", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))})
+})
+public class AdminRestController {
+
+    private final ListingsDltReplayer listingsDltReplayer;
+
+    @Operation(summary = "Replays a range of the listings dead-letter topic back to the listings topic.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replayed the dead-letter records", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = DltReplayDto.class))})
+    })
+    @PostMapping(value = "/dlt/replay", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<DltReplayDto> replayDlt(
+            @RequestParam(value = "partition", required = false, defaultValue = "0") Integer partition,
+            @RequestParam(value = "fromOffset") Long fromOffset,
+            @RequestParam(value = "toOffset") Long toOffset) {
+        log.info(String.format("Got replay dead-letter topic request. Partition [%s], From offset [%s], To offset [%s]", partition, fromOffset, toOffset));
+        int replayed = listingsDltReplayer.replay(partition, fromOffset, toOffset);
+        return ResponseEntity.ok(DltReplayDto
+                .builder()
+                .partition(partition)
+                .fromOffset(fromOffset)
+                .toOffset(toOffset)
+                .replayed(replayed)
+                .build());
+    }
+}
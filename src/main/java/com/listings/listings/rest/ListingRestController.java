@@ -1,28 +1,45 @@
 package com.listings.listings.rest;
 
+import com.listings.listings.cache.ListingSearchRecorder;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.export.ListingExportCursor;
+import com.listings.listings.data.export.ListingExporter;
 import com.listings.listings.kafka.domain.ListingEventMode;
 import com.listings.listings.rest.dto.error.ErrorResponse;
 import com.listings.listings.rest.dto.listing.ListingEventDto;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacets;
 import com.listings.listings.rest.dto.listing.ListingField;
 import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.rest.dto.listing.ProducedListingEventDto;
 import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
 import com.listings.listings.service.ListingService;
 import com.listings.listings.util.RestConstants;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping(value = RestConstants.LISTINGS_BASE_API)
 @RequiredArgsConstructor
@@ -34,8 +51,14 @@ public class ListingRestController {
 
     private final ListingService listingService;
 
+    private final ListingSearchRecorder listingSearchRecorder;
+
+    private final ListingExporter listingExporter;
+
+    private final ListingsProperties listingsProperties;
+
 
-    @Operation(summary = "Gets all the listings with pagination")
+    @Operation(summary = "Gets all the listings with pagination. Pages are read by cursor if the cursor param is sent, empty for the first page. The listings are counted exactly, up to the trackTotalHits number or not at all (none).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Got the page of listings", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ListingPage.class)))}),
     })
@@ -44,12 +67,19 @@ public class ListingRestController {
             @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
             @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
             @RequestParam(value = "sort", required = false, defaultValue = "dateCreated") ListingField sort,
-            @RequestParam(value = "sortDirection", required = false, defaultValue = "ASC") Sort.Direction sortDirection) {
+            @RequestParam(value = "sortDirection", required = false, defaultValue = "ASC") Sort.Direction sortDirection,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(schema = @Schema(type = "string", example = "exact")) @RequestParam(value = "trackTotalHits", required = false) TrackTotalHits trackTotalHits) {
+        TrackTotalHits tracking = trackTotalHits == null ? listingsProperties.getElasticsearch().getTrackTotalHits() : trackTotalHits;
+        if (cursor != null) {
+            log.info(String.format("Got get all listings by cursor request. Cursor [%s], Size [%s]", cursor, size));
+            return ResponseEntity.ok(listingService.getAllByCursor(cursor, size, sort, sortDirection, tracking));
+        }
         log.info(String.format("Got get all listings request. Page [%s], Size [%s]", page, size));
-        return ResponseEntity.ok(listingService.getAll(page, size, sort, sortDirection));
+        return ResponseEntity.ok(listingService.getAll(page, size, sort, sortDirection, tracking));
     }
 
-    @Operation(summary = "Gets all the listings with pagination based on the search criteria.")
+    @Operation(summary = "Gets all the listings with pagination based on the search criteria. Pages are read by cursor if the cursor param is sent, empty for the first page. The listings are counted exactly, up to the trackTotalHits number or not at all (none).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Got the page of listings", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ListingPage.class)))}),
     })
@@ -59,20 +89,66 @@ public class ListingRestController {
             @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
             @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
             @RequestParam(value = "sort", required = false, defaultValue = "dateCreated") ListingField sort,
-            @RequestParam(value = "sortDirection", required = false, defaultValue = "ASC") Sort.Direction sortDirection) {
+            @RequestParam(value = "sortDirection", required = false, defaultValue = "ASC") Sort.Direction sortDirection,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(schema = @Schema(type = "string", example = "exact")) @RequestParam(value = "trackTotalHits", required = false) TrackTotalHits trackTotalHits) {
+        TrackTotalHits tracking = trackTotalHits == null ? listingsProperties.getElasticsearch().getTrackTotalHits() : trackTotalHits;
+        if (cursor != null) {
+            log.info(String.format("Got search all listings by cursor request. Cursor [%s], Size [%s], SearchListingDto [%s]", cursor, size, searchListingDto));
+            return ResponseEntity.ok(listingService.searchAllByCursor(searchListingDto, cursor, size, sort, sortDirection, tracking));
+        }
         log.info(String.format("Got search all listings request. Page [%s], Size [%s], SearchListingDto [%s]", page, size, searchListingDto));
-        return ResponseEntity.ok(listingService.searchAll(searchListingDto, page, size, sort, sortDirection));
+        listingSearchRecorder.record(searchListingDto, page, size, sort, sortDirection);
+        return ResponseEntity.ok(listingService.searchAll(searchListingDto, page, size, sort, sortDirection, tracking));
+    }
+
+    @Operation(summary = "Gets the facets of the listings based on the search criteria. All the facets are counted if none are requested.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Got the facets of the listings", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ListingFacets.class))}),
+    })
+    @PostMapping(value = "/facets", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ListingFacets> getFacets(
+            @RequestBody @NotNull @Valid SearchListingDto searchListingDto,
+            @RequestParam(value = "facets", required = false) Set<ListingFacet> facets) {
+        Set<ListingFacet> requestedFacets = facets == null || facets.isEmpty() ? EnumSet.allOf(ListingFacet.class) : EnumSet.copyOf(facets);
+        log.info(String.format("Got get listing facets request. Facets [%s], SearchListingDto [%s]", requestedFacets, searchListingDto));
+        return ResponseEntity.ok(listingService.getFacets(searchListingDto, requestedFacets));
+    }
+
+    @Operation(summary = "Exports all the listings as newline delimited JSON of LISTING and CURSOR lines. Every batch of listings is followed by a cursor line the export can be resumed from.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exported the listings", content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)}),
+            @ApiResponse(responseCode = "410", description = "Point in time of the export cursor expired, the export has to be started again without a cursor", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))}),
+    })
+    @GetMapping(value = "/export")
+    public void export(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "gzip", required = false, defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        log.info(String.format("Got export listings request. Cursor [%s], Gzip [%s]", cursor, gzip));
+        ListingExportCursor exportCursor = cursor == null ? null : listingExporter.readCursor(cursor);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(response.getOutputStream(), true)) {
+                listingExporter.export(exportCursor, outputStream);
+            }
+            return;
+        }
+        OutputStream outputStream = response.getOutputStream();
+        listingExporter.export(exportCursor, outputStream);
+        outputStream.flush();
     }
 
     @Operation(summary = "Produces a listing event.")
     @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully produced a listing event.")
+            @ApiResponse(responseCode = "202", description = "Accepted the listing event.", content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProducedListingEventDto.class))})
     })
-    public ResponseEntity<Void> produceListingEvent(@RequestBody @Valid ListingEventDto listingEventDto, @RequestParam ListingEventMode mode) {
+    public ResponseEntity<ProducedListingEventDto> produceListingEvent(@RequestBody @Valid ListingEventDto listingEventDto, @RequestParam ListingEventMode mode) {
         log.info(String.format("Got produce listing event request. Listing Dto [%s], Listing event mode [%s]", listingEventDto, mode));
-        listingService.produceListingEvent(listingEventDto, mode);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(listingService.produceListingEvent(listingEventDto, mode));
     }
 
     @Operation(summary = "Generates 40 random listings")
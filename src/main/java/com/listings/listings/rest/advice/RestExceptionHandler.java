@@ -1,11 +1,13 @@
 package com.listings.listings.rest.advice;
 
 import com.listings.listings.rest.dto.error.ErrorResponse;
+import com.listings.listings.util.ExpiredExportCursorException;
 import com.listings.listings.util.ListingsException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSourceResolvable;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -62,6 +64,15 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = ExpiredExportCursorException.class)
+    public ResponseEntity<ErrorResponse> handleExpiredExportCursorException(ExpiredExportCursorException expiredExportCursorException) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(expiredExportCursorException.getMessage()));
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(value = MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException exception) {
         List<String> messages = new LinkedList<>();
@@ -0,0 +1,17 @@
+package com.listings.listings.rest.dto.admin;
+
+import lombok.*;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class DltReplayDto {
+    private Integer partition;
+    private Long fromOffset;
+    private Long toOffset;
+    private Integer replayed;
+}
@@ -0,0 +1,24 @@
+package com.listings.listings.rest.dto.listing;
+
+/**
+ * Facet of the listings that can be counted for a search.
+ */
+public enum ListingFacet {
+
+    MAKE(ListingField.MAKE),
+    MODEL(ListingField.MODEL),
+    FUEL_TYPE(ListingField.FUEL_TYPE),
+    TRANSMISSION_TYPE(ListingField.TRANSMISSION_TYPE),
+    PRODUCTION_YEAR(ListingField.PRODUCTION_YEAR),
+    MILEAGE(ListingField.MILEAGE);
+
+    private final ListingField field;
+
+    ListingFacet(ListingField field) {
+        this.field = field;
+    }
+
+    public ListingField getField() {
+        return field;
+    }
+}
@@ -0,0 +1,33 @@
+package com.listings.listings.rest.dto.listing;
+
+import lombok.*;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ListingFacetBucket {
+
+    /**
+     * Value of the field, the first production year of the histogram interval or the name of the mileage range.
+     */
+    private String key;
+
+    /**
+     * Inclusive lower bound of the mileage range. Not set for the other facets.
+     */
+    private Long from;
+
+    /**
+     * Exclusive upper bound of the mileage range. Not set for the other facets.
+     */
+    private Long to;
+
+    /**
+     * Number of the listings of the search in the bucket.
+     */
+    private Long count;
+}
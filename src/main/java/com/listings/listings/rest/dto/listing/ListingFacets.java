@@ -0,0 +1,28 @@
+package com.listings.listings.rest.dto.listing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class ListingFacets {
+
+    private Long totalElements;
+    private Map<ListingFacet, List<ListingFacetBucket>> facets;
+
+    /**
+     * Search the facets were counted for. It is not part of the response and is kept so that the cached facets
+     * are evicted only by the changes that could affect them.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private SearchListingDto search;
+}
@@ -1,5 +1,8 @@
 package com.listings.listings.rest.dto.listing;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import org.springframework.data.domain.Sort;
 
@@ -20,4 +23,33 @@ public class ListingPage {
     private Long totalElements;
     private Integer totalPages;
     private List<ListingDto> content;
+
+    /**
+     * Whether the total number of the listings is exact or a lower bound. It is left out with the totals when the
+     * listings are not counted.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TotalElementsRelation totalElementsRelation;
+
+    /**
+     * Cursor of the next page of the pages read by cursor. It is left out of the last page and of the numbered pages.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String cursor;
+
+    /**
+     * Search the page was created for. It is not part of the response and is kept so that the cached page
+     * is evicted only by the changes that could affect it.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private SearchListingDto search;
+
+    /**
+     * How the listings of the page were counted. It is not part of the response and is kept so that the cached
+     * page is reloaded with the same counting.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private TrackTotalHits trackTotalHits;
 }
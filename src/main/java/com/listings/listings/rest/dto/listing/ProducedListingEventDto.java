@@ -0,0 +1,15 @@
+package com.listings.listings.rest.dto.listing;
+
+import lombok.*;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ProducedListingEventDto {
+    private String eventId;
+    private String listingId;
+}
@@ -1,9 +1,14 @@
 package com.listings.listings.rest.dto.listing;
 
-import jakarta.validation.constraints.NotEmpty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
+import java.util.List;
+import java.util.Set;
+
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,9 +18,56 @@ import lombok.*;
 @EqualsAndHashCode
 public class SearchListingItemDto {
 
+    private static final Set<ListingField> NON_TEXT_FIELDS = Set.of(ListingField.PRODUCTION_YEAR, ListingField.MILEAGE, ListingField.DATE_CREATED, ListingField.DATE_UPDATED);
+
     @NotNull(message = "Search field must be provided.")
     private ListingField field;
 
-    @NotNull(message = "Search value must be provided.")
+    /**
+     * Operator the field is matched with. Items without an operator match the value exactly.
+     */
+    private SearchOperator operator;
+
+    /**
+     * Value of the eq and prefix operators.
+     */
     private String value;
+
+    /**
+     * Values of the in operator.
+     */
+    private List<String> values;
+
+    /**
+     * Inclusive lower bound of the range operator.
+     */
+    private String from;
+
+    /**
+     * Inclusive upper bound of the range operator.
+     */
+    private String to;
+
+    public SearchOperator getOperator() {
+        return operator == null ? SearchOperator.EQ : operator;
+    }
+
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "Search value must be provided for the eq and prefix operators, search values for the in operator and from or to for the range operator.")
+    public boolean isOperandProvided() {
+        return switch (getOperator()) {
+            case EQ, PREFIX -> value != null;
+            case IN -> values != null && !values.isEmpty() && !values.contains(null);
+            case RANGE -> from != null || to != null;
+            case EXISTS -> true;
+        };
+    }
+
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "Prefix operator is only supported for the text fields.")
+    public boolean isOperatorSupported() {
+        return getOperator() != SearchOperator.PREFIX || field == null || !NON_TEXT_FIELDS.contains(field);
+    }
 }
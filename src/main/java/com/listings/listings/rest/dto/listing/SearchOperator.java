@@ -0,0 +1,33 @@
+package com.listings.listings.rest.dto.listing;
+
+/**
+ * Operator a search item matches the listing field with. All the operators are filters that do not score the
+ * listings, so Elasticsearch can cache them and reuse them across the searches.
+ */
+public enum SearchOperator {
+
+    /**
+     * The field is equal to the value.
+     */
+    EQ,
+
+    /**
+     * The field is equal to any of the values.
+     */
+    IN,
+
+    /**
+     * The field is between the from and to values, both inclusive. Either of them can be left out.
+     */
+    RANGE,
+
+    /**
+     * The field starts with the value. Only supported for the text fields.
+     */
+    PREFIX,
+
+    /**
+     * The field has a value.
+     */
+    EXISTS
+}
@@ -0,0 +1,17 @@
+package com.listings.listings.rest.dto.listing;
+
+/**
+ * Relation of the total number of the listings of a page to the number of the listings that match it.
+ */
+public enum TotalElementsRelation {
+
+    /**
+     * The total is the exact number of the matching listings.
+     */
+    EXACT,
+
+    /**
+     * The total is a lower bound, more listings match.
+     */
+    LOWER_BOUND
+}
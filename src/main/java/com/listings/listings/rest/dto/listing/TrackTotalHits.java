@@ -0,0 +1,64 @@
+package com.listings.listings.rest.dto.listing;
+
+import lombok.NonNull;
+
+/**
+ * How the total number of the listings of a page is counted. Exact counts make Elasticsearch visit every matching
+ * listing, a lower bound lets it stop once it has counted up to the bound and no count lets it stop as soon as the
+ * page is filled. It is sent as "exact", "none" or the bound of the count.
+ *
+ * @param enabled - Whether the listings are counted at all.
+ * @param upTo    - Number of the listings counted exactly, the total is a lower bound above it. Null for exact counts.
+ */
+public record TrackTotalHits(boolean enabled, Integer upTo) {
+
+    public static final TrackTotalHits EXACT = new TrackTotalHits(true, null);
+
+    public static final TrackTotalHits NONE = new TrackTotalHits(false, null);
+
+    private static final String EXACT_VALUE = "exact";
+
+    private static final String NONE_VALUE = "none";
+
+    /**
+     * Creates the tracking that counts the listings exactly only up to the bound.
+     *
+     * @param upTo - Number of the listings counted exactly.
+     * @return - {@link TrackTotalHits} object.
+     */
+    public static TrackTotalHits upTo(int upTo) {
+        if (upTo <= 0) {
+            throw new IllegalArgumentException(String.format("Total hits bound [%s] is not positive", upTo));
+        }
+        return new TrackTotalHits(true, upTo);
+    }
+
+    /**
+     * Parses the tracking from its request value. Used by the conversion of the request params and properties.
+     *
+     * @param value - "exact", "none" or the bound of the count.
+     * @return - {@link TrackTotalHits} object.
+     */
+    public static TrackTotalHits valueOf(@NonNull String value) {
+        String trimmed = value.trim();
+        if (EXACT_VALUE.equalsIgnoreCase(trimmed)) {
+            return EXACT;
+        }
+        if (NONE_VALUE.equalsIgnoreCase(trimmed)) {
+            return NONE;
+        }
+        try {
+            return upTo(Integer.parseInt(trimmed));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format("Total hits tracking [%s] is not exact, none or a positive number", value));
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (!enabled) {
+            return NONE_VALUE;
+        }
+        return upTo == null ? EXACT_VALUE : String.valueOf(upTo);
+    }
+}
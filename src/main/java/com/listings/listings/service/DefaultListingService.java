@@ -1,9 +1,17 @@
 package com.listings.listings.service;
 
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.confg.ListingsProperties;
 import com.listings.listings.data.domain.ContactInfo;
 import com.listings.listings.data.domain.FuelType;
 import com.listings.listings.data.domain.Listing;
 import com.listings.listings.data.domain.TransmissionType;
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.data.query.ListingCursor;
+import com.listings.listings.data.query.ListingCursorCodec;
+import com.listings.listings.data.query.ListingFacetsAggregator;
+import com.listings.listings.data.query.ListingSearchQueryBuilder;
 import com.listings.listings.data.repositories.ListingRepository;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.kafka.domain.ListingEventMode;
@@ -18,26 +26,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.*;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.Criteria;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@CacheConfig(cacheNames = {CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE})
-public class DefaultListingService implements ListingService {
+@CacheConfig(cacheNames = {CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE, CacheConstants.SEARCH_FACETS_CACHE})
+public class DefaultListingService implements ListingService, ListingPageLoader {
 
     private final ElasticsearchOperations elasticsearchOperations;
 
@@ -47,54 +59,158 @@ public class DefaultListingService implements ListingService {
 
     private final ListingsTopicProducer listingsTopicProducer;
 
+    private final ListingSearchQueryBuilder listingSearchQueryBuilder;
+
+    private final ListingFacetsAggregator listingFacetsAggregator;
+
+    private final ListingCursorCodec listingCursorCodec;
+
+    private final ListingsProperties listingsProperties;
+
+    private final ListingExistenceFilter listingExistenceFilter;
+
     private final Random random = new Random();
 
     @Override
-    @Cacheable(value = {CacheConstants.ALL_LISTINGS_CACHE}, key = "{#page,#size,#sort,#sortDirection}")
-    public ListingPage getAll(@NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection) {
-        log.info(String.format("Finding all listings by page number [%s], page size [%s], sort parameter [%s] and sort direction [%s]", page, size, sort, sortDirection));
-        Page<Listing> listingsPage = listingRepository.findAll(ListingsUtils.createPageRequest(page, size, sort.getValue(), sortDirection));
-        return ListingPage
+    @Cacheable(value = {CacheConstants.ALL_LISTINGS_CACHE}, key = "{#page,#size,#sort,#sortDirection,#trackTotalHits}", sync = true)
+    public ListingPage getAll(@NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                              @NonNull TrackTotalHits trackTotalHits) {
+        log.info(String.format("Finding all listings by page number [%s], page size [%s], sort parameter [%s], sort direction [%s] and total hits tracking [%s]", page, size, sort, sortDirection, trackTotalHits));
+        PageRequest pageRequest = ListingsUtils.createPageRequest(page, size, sort.getValue(), sortDirection);
+        NativeQueryBuilder queryBuilder = NativeQuery
                 .builder()
+                .withQuery(query -> query.matchAll(matchAll -> matchAll))
+                .withPageable(pageRequest);
+
+        SearchHits<Listing> listings = elasticsearchOperations
+                .search(
+                        withTrackTotalHits(queryBuilder, trackTotalHits).build(),
+                        Listing.class,
+                        IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                );
+
+        return withTotals(ListingPage.builder(), listings, size, trackTotalHits)
                 .page(page)
                 .size(size)
                 .sort(sort)
                 .sortDirection(sortDirection)
-                .totalElements(listingsPage.getTotalElements())
-                .totalPages(listingsPage.getTotalPages())
+                .trackTotalHits(trackTotalHits)
                 .content(
-                        listingMapper.mapToListingsDtos(listingsPage.getContent())
+                        listingMapper.mapToListingsDtos(
+                                listings
+                                        .stream()
+                                        .map(SearchHit::getContent)
+                                        .toList()
+                        )
                 )
                 .build();
     }
 
     @Override
-    @Cacheable(value = {CacheConstants.SEARCH_LISTINGS_CACHE}, key = "{#searchListingsDto,#page,#size,#sort,#sortDirection}")
-    public ListingPage searchAll(@NonNull SearchListingDto searchListingsDto, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection) {
-        log.info(String.format("Finding all listings by search criteria [%s] page number [%s], page size [%s], sort parameter [%s] and sort direction [%s]", searchListingsDto, page, size, sort, sortDirection));
+    @Cacheable(value = {CacheConstants.SEARCH_LISTINGS_CACHE}, keyGenerator = CacheConstants.SEARCH_LISTINGS_KEY_GENERATOR, sync = true)
+    public ListingPage searchAll(@NonNull SearchListingDto searchListingsDto, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                                 @NonNull TrackTotalHits trackTotalHits) {
+        log.info(String.format("Finding all listings by search criteria [%s] page number [%s], page size [%s], sort parameter [%s], sort direction [%s] and total hits tracking [%s]", searchListingsDto, page, size, sort, sortDirection, trackTotalHits));
 
         PageRequest pageRequest = ListingsUtils.createPageRequest(page, size, sort.getValue(), sortDirection);
-        CriteriaQuery criteriaQuery = buildSearchQuery(searchListingsDto, pageRequest);
+        NativeQuery searchQuery = withTrackTotalHits(NativeQuery.builder(), trackTotalHits)
+                .withQuery(listingSearchQueryBuilder.build(searchListingsDto))
+                .withPageable(pageRequest)
+                .build();
 
-        log.info(String.format("Searching listings by page request [%s] and criteria query [%s]", pageRequest, criteriaQuery.getCriteria()));
+        log.info(String.format("Searching listings by page request [%s] and query [%s]", pageRequest, searchQuery.getQuery()));
         SearchHits<Listing> listings = elasticsearchOperations
                 .search(
-                        criteriaQuery,
+                        searchQuery,
                         Listing.class,
                         IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)
                 );
 
-
-        SearchPage<Listing> listingsPage = SearchHitSupport.searchPageFor(listings, pageRequest);
-
-        return ListingPage
-                .builder()
+        return withTotals(ListingPage.builder(), listings, size, trackTotalHits)
                 .page(page)
                 .size(size)
                 .sort(sort)
                 .sortDirection(sortDirection)
-                .totalElements(listingsPage.getTotalElements())
-                .totalPages(listingsPage.getTotalPages())
+                .search(searchListingsDto)
+                .trackTotalHits(trackTotalHits)
+                .content(
+                        listingMapper.mapToListingsDtos(
+                                listings
+                                        .stream()
+                                        .map(SearchHit::getContent)
+                                        .toList()
+                        )
+                )
+                .build();
+    }
+
+    @Override
+    public ListingPage getAllByCursor(@NonNull String cursor, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                                      @NonNull TrackTotalHits trackTotalHits) {
+        log.info(String.format("Finding all listings after cursor [%s] by page size [%s], sort parameter [%s], sort direction [%s] and total hits tracking [%s]", cursor, size, sort, sortDirection, trackTotalHits));
+        return searchByCursor(null, cursor, size, sort, sortDirection, trackTotalHits);
+    }
+
+    @Override
+    public ListingPage searchAllByCursor(@NonNull SearchListingDto searchListingsDto, @NonNull String cursor, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                                         @NonNull TrackTotalHits trackTotalHits) {
+        log.info(String.format("Finding all listings by search criteria [%s] after cursor [%s] by page size [%s], sort parameter [%s], sort direction [%s] and total hits tracking [%s]", searchListingsDto, cursor, size, sort, sortDirection, trackTotalHits));
+        return searchByCursor(searchListingsDto, cursor, size, sort, sortDirection, trackTotalHits);
+    }
+
+    /**
+     * Reads the page after the cursor from the point in time of the cursor. An empty cursor opens a new point in
+     * time. The listings are sorted by the id after the sort field, so the listings with the same sort value keep
+     * their order across the pages. The point in time is closed once the last page is read.
+     *
+     * @param searchListingsDto - Object representing the search criteria. Null for all the listings.
+     * @param cursor            - Cursor returned with the previous page. Empty for the first page.
+     * @param size              - Page size.
+     * @param sort              - Sort param of the first page.
+     * @param sortDirection     - Sort direction of the first page.
+     * @param trackTotalHits    - How the listings are counted.
+     * @return - {@link ListingPage} object with the cursor of the next page.
+     */
+    private ListingPage searchByCursor(SearchListingDto searchListingsDto, @NonNull String cursor, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                                       @NonNull TrackTotalHits trackTotalHits) {
+        Duration keepAlive = listingsProperties.getElasticsearch().getCursor().getKeepAlive();
+        ListingCursor listingCursor = StringUtils.hasText(cursor)
+                ? listingCursorCodec.decode(cursor)
+                : new ListingCursor(elasticsearchOperations.openPointInTime(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME), keepAlive), sort, sortDirection, null);
+
+        Sort cursorSort = Sort.by(listingCursor.sortDirection(), listingCursor.sort().getValue());
+        if (listingCursor.sort() != ListingField.ID) {
+            cursorSort = cursorSort.and(Sort.by(listingCursor.sortDirection(), ListingField.ID.getValue()));
+        }
+        NativeQueryBuilder queryBuilder = withTrackTotalHits(NativeQuery.builder(), trackTotalHits)
+                .withPageable(PageRequest.of(0, size, cursorSort))
+                .withPointInTime(new Query.PointInTime(listingCursor.pointInTimeId(), keepAlive));
+        if (searchListingsDto == null) {
+            queryBuilder.withQuery(query -> query.matchAll(matchAll -> matchAll));
+        } else {
+            queryBuilder.withQuery(listingSearchQueryBuilder.build(searchListingsDto));
+        }
+        if (listingCursor.searchAfter() != null) {
+            queryBuilder.withSearchAfter(listingCursor.searchAfter());
+        }
+
+        SearchHits<Listing> listings = elasticsearchOperations.search(queryBuilder.build(), Listing.class);
+
+        String pointInTimeId = listings.getPointInTimeId() == null ? listingCursor.pointInTimeId() : listings.getPointInTimeId();
+        String nextCursor = null;
+        if (listings.getSearchHits().size() < size) {
+            elasticsearchOperations.closePointInTime(pointInTimeId);
+        } else {
+            List<Object> searchAfter = listings.getSearchHit(listings.getSearchHits().size() - 1).getSortValues();
+            nextCursor = listingCursorCodec.encode(new ListingCursor(pointInTimeId, listingCursor.sort(), listingCursor.sortDirection(), searchAfter));
+        }
+
+        return withTotals(ListingPage.builder(), listings, size, trackTotalHits)
+                .size(size)
+                .sort(listingCursor.sort())
+                .sortDirection(listingCursor.sortDirection())
+                .trackTotalHits(trackTotalHits)
+                .cursor(nextCursor)
                 .content(
                         listingMapper.mapToListingsDtos(
                                 listings
@@ -106,10 +222,97 @@ public class DefaultListingService implements ListingService {
                 .build();
     }
 
+    /**
+     * Sets how the listings that match the query are counted. Elasticsearch stops counting at the bound of the
+     * tracking and does not count at all without it, so it can skip the segments that can not fill the page.
+     *
+     * @param queryBuilder   - {@link NativeQueryBuilder} object.
+     * @param trackTotalHits - {@link TrackTotalHits} object.
+     * @return - The same {@link NativeQueryBuilder} object.
+     */
+    private NativeQueryBuilder withTrackTotalHits(@NonNull NativeQueryBuilder queryBuilder, @NonNull TrackTotalHits trackTotalHits) {
+        if (trackTotalHits.enabled() && trackTotalHits.upTo() != null) {
+            return queryBuilder.withTrackTotalHitsUpTo(trackTotalHits.upTo());
+        }
+        return queryBuilder.withTrackTotalHits(trackTotalHits.enabled());
+    }
+
+    /**
+     * Sets the totals of the page from the counted hits. The totals are left out if the listings were not counted.
+     *
+     * @param pageBuilder    - {@link ListingPage.ListingPageBuilder} object.
+     * @param listings       - {@link SearchHits} of the page.
+     * @param size           - Page size.
+     * @param trackTotalHits - {@link TrackTotalHits} the listings were counted with.
+     * @return - The same {@link ListingPage.ListingPageBuilder} object.
+     */
+    private ListingPage.ListingPageBuilder withTotals(@NonNull ListingPage.ListingPageBuilder pageBuilder, @NonNull SearchHits<Listing> listings, int size,
+                                                      @NonNull TrackTotalHits trackTotalHits) {
+        if (!trackTotalHits.enabled()) {
+            return pageBuilder;
+        }
+        return pageBuilder
+                .totalElements(listings.getTotalHits())
+                .totalPages((int) Math.ceil((double) listings.getTotalHits() / size))
+                .totalElementsRelation(listings.getTotalHitsRelation() == TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO
+                        ? TotalElementsRelation.LOWER_BOUND
+                        : TotalElementsRelation.EXACT);
+    }
+
     @Override
-    public void produceListingEvent(@NonNull ListingEventDto listingEventDto, @NonNull ListingEventMode mode) {
+    @Cacheable(value = {CacheConstants.SEARCH_FACETS_CACHE}, keyGenerator = CacheConstants.SEARCH_LISTINGS_KEY_GENERATOR, sync = true)
+    public ListingFacets getFacets(@NonNull SearchListingDto searchListingsDto, @NonNull Set<ListingFacet> facets) {
+        log.info(String.format("Counting facets [%s] of listings by search criteria [%s]", facets, searchListingsDto));
+        SearchHits<Listing> searchHits = elasticsearchOperations
+                .search(
+                        listingFacetsAggregator.build(searchListingsDto, facets),
+                        Listing.class,
+                        IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                );
+        return ListingFacets
+                .builder()
+                .totalElements(searchHits.getTotalHits())
+                .facets(listingFacetsAggregator.read(searchHits, facets))
+                .search(searchListingsDto)
+                .build();
+    }
+
+    /**
+     * Loads the cached page again. The methods are called on this object and not on its proxy, so the listing
+     * caches are not consulted.
+     */
+    @Override
+    public ListingPage reload(@NonNull ListingIdsPage listingIdsPage) {
+        TrackTotalHits trackTotalHits = listingIdsPage.trackTotalHits() == null
+                ? listingsProperties.getElasticsearch().getTrackTotalHits()
+                : listingIdsPage.trackTotalHits();
+        if (listingIdsPage.search() == null) {
+            return getAll(listingIdsPage.page(), listingIdsPage.size(), listingIdsPage.sort(), listingIdsPage.sortDirection(), trackTotalHits);
+        }
+        return searchAll(listingIdsPage.search(), listingIdsPage.page(), listingIdsPage.size(), listingIdsPage.sort(), listingIdsPage.sortDirection(), trackTotalHits);
+    }
+
+    /**
+     * Counts the cached facets again. The method is called on this object and not on its proxy, so the listing
+     * caches are not consulted.
+     */
+    @Override
+    public ListingFacets reload(@NonNull ListingFacets listingFacets) {
+        return getFacets(listingFacets.getSearch(), listingFacets.getFacets().keySet());
+    }
+
+    @Override
+    public ProducedListingEventDto produceListingEvent(@NonNull ListingEventDto listingEventDto, @NonNull ListingEventMode mode) {
         ListingEvent listingEvent = listingMapper.mapToListingEvent(listingEventDto, mode);
+        if (mode == ListingEventMode.CREATE && !StringUtils.hasText(listingEvent.getId())) {
+            listingEvent.setId(UUID.randomUUID().toString());
+        }
         listingsTopicProducer.produceListing(listingEvent);
+        return ProducedListingEventDto
+                .builder()
+                .eventId(listingEvent.getEventId())
+                .listingId(listingEvent.getId())
+                .build();
     }
 
     @Override
@@ -139,24 +342,7 @@ public class DefaultListingService implements ListingService {
                     .dateCreated(LocalDate.now())
                     .build());
         }
-        listingRepository.saveAll(listings);
-    }
-
-    /**
-     * Creates the criteria query for searching listings based on the provided parameters in the {@link SearchListingDto} object.
-     *
-     * @param searchListingDto - {@link SearchListingDto} object representing the search criteria.
-     * @param pageRequest      - {@link PageRequest} object for pagination.
-     * @return - {@link CriteriaQuery} object that can be used with Spring repositories to search the listings.
-     */
-    private CriteriaQuery buildSearchQuery(@NonNull SearchListingDto searchListingDto, @NonNull PageRequest pageRequest) {
-        Criteria criteria = new Criteria();
-
-        for (SearchListingItemDto searchListingItem : searchListingDto.getSearchListingItems()) {
-            criteria = criteria.and(new Criteria(searchListingItem.getField().getValue()).matches(searchListingItem.getValue()));
-        }
-
-        return new CriteriaQuery(criteria, pageRequest);
+        listingRepository.saveAll(listings).forEach(listing -> listingExistenceFilter.onCreated(listing.getId()));
     }
 
     /**
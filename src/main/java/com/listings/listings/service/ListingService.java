@@ -3,24 +3,32 @@ package com.listings.listings.service;
 
 import com.listings.listings.kafka.domain.ListingEventMode;
 import com.listings.listings.rest.dto.listing.ListingEventDto;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacets;
 import com.listings.listings.rest.dto.listing.ListingField;
 import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.rest.dto.listing.ProducedListingEventDto;
 import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
 import lombok.NonNull;
 import org.springframework.data.domain.Sort;
 
+import java.util.Set;
+
 public interface ListingService {
 
     /**
      * Retrieves all the listings with pagination.
      *
-     * @param page          - Page number.
-     * @param size          - Page size.
-     * @param sort          - Sort param.
-     * @param sortDirection - Sort direction.
+     * @param page           - Page number.
+     * @param size           - Page size.
+     * @param sort           - Sort param.
+     * @param sortDirection  - Sort direction.
+     * @param trackTotalHits - {@link TrackTotalHits} object representing how the listings are counted.
      * @return - {@link ListingPage} object representing the listings page.
      */
-    ListingPage getAll(@NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection);
+    ListingPage getAll(@NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                       @NonNull TrackTotalHits trackTotalHits);
 
     /**
      * Searches all the listings by the desired criteria.
@@ -30,17 +38,58 @@ public interface ListingService {
      * @param size              - Page size.
      * @param sort              - Sort param.
      * @param sortDirection     - Sort direction.
+     * @param trackTotalHits    - {@link TrackTotalHits} object representing how the listings are counted.
      * @return - {@link ListingPage} object representing the listings page by the desired search criteria.
      */
-    ListingPage searchAll(@NonNull SearchListingDto searchListingsDto, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection);
+    ListingPage searchAll(@NonNull SearchListingDto searchListingsDto, @NonNull Integer page, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                          @NonNull TrackTotalHits trackTotalHits);
+
+    /**
+     * Retrieves the page of all the listings after the cursor. The pages are read from a point in time of the
+     * listings index with search_after, so every page costs the same no matter how deep it is.
+     *
+     * @param cursor         - Cursor returned with the previous page. Empty for the first page.
+     * @param size           - Page size.
+     * @param sort           - Sort param of the first page. The next pages keep the sort of the cursor.
+     * @param sortDirection  - Sort direction of the first page.
+     * @param trackTotalHits - {@link TrackTotalHits} object representing how the listings are counted.
+     * @return - {@link ListingPage} object representing the listings page with the cursor of the next page.
+     */
+    ListingPage getAllByCursor(@NonNull String cursor, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                               @NonNull TrackTotalHits trackTotalHits);
+
+    /**
+     * Searches the page of the listings after the cursor by the desired criteria. The pages are read from a point
+     * in time of the listings index with search_after, so every page costs the same no matter how deep it is.
+     *
+     * @param searchListingsDto - Object representing the search criteria.
+     * @param cursor            - Cursor returned with the previous page. Empty for the first page.
+     * @param size              - Page size.
+     * @param sort              - Sort param of the first page. The next pages keep the sort of the cursor.
+     * @param sortDirection     - Sort direction of the first page.
+     * @param trackTotalHits    - {@link TrackTotalHits} object representing how the listings are counted.
+     * @return - {@link ListingPage} object representing the listings page with the cursor of the next page.
+     */
+    ListingPage searchAllByCursor(@NonNull SearchListingDto searchListingsDto, @NonNull String cursor, @NonNull Integer size, @NonNull ListingField sort, @NonNull Sort.Direction sortDirection,
+                                  @NonNull TrackTotalHits trackTotalHits);
+
+    /**
+     * Counts the listings that match the search by the values of the facets.
+     *
+     * @param searchListingsDto - Object representing the search criteria.
+     * @param facets            - Set of the {@link ListingFacet} values to count.
+     * @return - {@link ListingFacets} object with the buckets of every facet.
+     */
+    ListingFacets getFacets(@NonNull SearchListingDto searchListingsDto, @NonNull Set<ListingFacet> facets);
 
     /**
      * Produces a listing event to the listings topic.
      *
      * @param listingEventDto - {@link ListingEventDto} object.
      * @param mode            - {@link ListingEventMode} object representing the mode.
+     * @return - {@link ProducedListingEventDto} object holding the id of the event and the id of the listing.
      */
-    void produceListingEvent(@NonNull ListingEventDto listingEventDto, @NonNull ListingEventMode mode);
+    ProducedListingEventDto produceListingEvent(@NonNull ListingEventDto listingEventDto, @NonNull ListingEventMode mode);
 
     /**
      * Generates random listings and saves them to the database.
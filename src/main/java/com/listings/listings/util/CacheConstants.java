@@ -3,4 +3,7 @@ package com.listings.listings.util;
 public interface CacheConstants {
     String ALL_LISTINGS_CACHE = "ALL_LISTINGS_CACHE";
     String SEARCH_LISTINGS_CACHE = "SEARCH_LISTINGS_CACHE";
+    String SEARCH_FACETS_CACHE = "SEARCH_FACETS_CACHE";
+    String LISTINGS_CACHE = "LISTINGS_CACHE";
+    String SEARCH_LISTINGS_KEY_GENERATOR = "searchListingsKeyGenerator";
 }
@@ -2,4 +2,54 @@ package com.listings.listings.util;
 
 public interface ElasticSearchConstants {
     String LISTINGS_INDEX_NAME = "listings";
+
+    String RECORDED_SEARCHES_INDEX_NAME = "listings-recorded-searches";
+
+    String LISTING_TOMBSTONES_INDEX_NAME = "listings-tombstones";
+
+    /**
+     * Number of times a write is retried by Elasticsearch when the listing was changed by another writer
+     * between reading and writing it.
+     */
+    int RETRY_ON_CONFLICT = 3;
+
+    /**
+     * Painless condition that skips the write if the stored listing was written by the same or a newer event.
+     * Events without a version are always applied.
+     */
+    String STALE_EVENT_GUARD = "if (params.version != null && ctx._source.eventVersion != null && ctx._source.eventVersion >= params.version) { ctx.op = 'noop'; } else { ";
+
+    /**
+     * Painless script that replaces the stored listing with the new document. Retried and replayed creates that
+     * are not newer than the last delete of the listing are dropped before the write with the help of the listing
+     * tombstones.
+     */
+    String CREATE_LISTING_SCRIPT = STALE_EVENT_GUARD
+            + "ctx._source.clear(); ctx._source.putAll(params.doc); }";
+
+    /**
+     * Painless script that applies the partial listing document and sets the update date on the server side
+     * in the basic_date format of the listing dates.
+     */
+    String UPDATE_LISTING_SCRIPT = STALE_EVENT_GUARD
+            + "ctx._source.putAll(params.doc); "
+            + "ctx._source.dateUpdated = DateTimeFormatter.ofPattern('yyyyMMdd').format(Instant.ofEpochMilli(ctx._now).atZone(ZoneId.of(params.zone))); }";
+
+    /**
+     * Painless script that deletes the stored listing.
+     */
+    String DELETE_LISTING_SCRIPT = STALE_EVENT_GUARD
+            + "ctx.op = 'delete'; }";
+
+    /**
+     * Painless script that keeps the version of the newest delete event of the listing in its tombstone together
+     * with the time of the delete, which the tombstone is cleaned up by.
+     */
+    String DELETE_TOMBSTONE_SCRIPT = "if (ctx._source.eventVersion != null && ctx._source.eventVersion >= params.version) { ctx.op = 'noop'; } "
+            + "else { ctx._source.eventVersion = params.version; ctx._source.deletedAt = ctx._now; }";
+
+    /**
+     * Painless script that adds the number of the new requests of the search to the recorded search.
+     */
+    String RECORD_SEARCH_SCRIPT = "ctx._source.count += params.count; ctx._source.lastRecorded = params.lastRecorded;";
 }
@@ -0,0 +1,11 @@
+package com.listings.listings.util;
+
+/**
+ * Thrown when an export is resumed from a cursor whose point in time is no longer open in Elasticsearch, so the
+ * export can only be started again without the cursor.
+ */
+public class ExpiredExportCursorException extends ListingsException {
+    public ExpiredExportCursorException(String message) {
+        super(message);
+    }
+}
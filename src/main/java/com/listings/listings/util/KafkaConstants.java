@@ -2,4 +2,14 @@ package com.listings.listings.util;
 
 public interface KafkaConstants {
     String LISTINGS_TOPIC = "listings";
+    String RETRY_TOPIC_SUFFIX = "-retry";
+    String DLT_TOPIC_SUFFIX = "-dlt";
+    String LISTINGS_DLT_TOPIC = LISTINGS_TOPIC + DLT_TOPIC_SUFFIX;
+    String LISTINGS_LISTENER_ID = "listingsListener";
+    String LISTINGS_BATCH_LISTENER_ID = "listingsBatchListener";
+    String BATCH_LISTENER_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+    String CONTENT_TYPE_HEADER = "content-type";
+    String EVENT_VERSION_HEADER = "listings-event-version";
+    String JSON_CONTENT_TYPE = "application/json";
+    String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
 }
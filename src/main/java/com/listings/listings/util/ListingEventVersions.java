@@ -0,0 +1,85 @@
+package com.listings.listings.util;
+
+import lombok.NonNull;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Derives the versions of the listing events from the offsets of their records in the listings topic. The events
+ * are keyed by the listing id, so the offsets order the events of a listing the same way for every producer and
+ * consumer, unlike the clocks of the producers. The version of an event is kept when it is retried or replayed
+ * from the dead-letter topic, so the older events are still dropped as stale.
+ */
+public class ListingEventVersions {
+
+    /**
+     * Base of the offset versions. It is above every version taken from the producer clock before, so the listings
+     * written with those versions are still replaced by the new events.
+     */
+    public static final long OFFSET_VERSION_BASE = 1L << 62;
+
+    private ListingEventVersions() {
+
+    }
+
+    /**
+     * Reads the version of the listing event of the record. The version header of a replayed record is used first,
+     * then the first original offset of a retried record, which is the offset in the listings topic, and then the
+     * offset of a record of the listings topic itself.
+     *
+     * @param record - {@link ConsumerRecord} object holding the listing event.
+     * @return - Version of the event. Null if the record has no offset in the listings topic.
+     */
+    public static Long fromRecord(@NonNull ConsumerRecord<?, ?> record) {
+        Long version = readLong(record.headers().lastHeader(KafkaConstants.EVENT_VERSION_HEADER));
+        if (version != null) {
+            return version;
+        }
+        Long originalOffset = firstLong(record.headers(), KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        if (originalOffset != null) {
+            return OFFSET_VERSION_BASE + originalOffset;
+        }
+        return KafkaConstants.LISTINGS_TOPIC.equals(record.topic()) ? OFFSET_VERSION_BASE + record.offset() : null;
+    }
+
+    /**
+     * Checks if the record is a retried or replayed event. Those may be consumed after a newer event of the listing,
+     * while the events consumed from the listings topic for the first time, or redelivered from it, are always
+     * followed by the newer events of the listing.
+     *
+     * @param record - {@link ConsumerRecord} object holding the listing event.
+     * @return - True if the event may be consumed out of order.
+     */
+    public static boolean isOutOfOrder(@NonNull ConsumerRecord<?, ?> record) {
+        return record.headers().lastHeader(KafkaConstants.EVENT_VERSION_HEADER) != null
+                || record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET) != null;
+    }
+
+    /**
+     * Encodes the version for the version header of a replayed record.
+     *
+     * @param version - Version of the event.
+     * @return - Value of the version header.
+     */
+    public static byte[] toHeaderValue(long version) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(version).array();
+    }
+
+    private static Long firstLong(@NonNull Headers headers, @NonNull String headerName) {
+        for (Header header : headers.headers(headerName)) {
+            return readLong(header);
+        }
+        return null;
+    }
+
+    private static Long readLong(Header header) {
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return null;
+        }
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+}
@@ -0,0 +1,15 @@
+package com.listings.listings.util;
+
+/**
+ * Thrown when a listing event can never be applied, so that it is sent to the dead-letter topic right away
+ * instead of going through the retry topics.
+ */
+public class NonRetryableListingsException extends RuntimeException {
+    public NonRetryableListingsException(String message) {
+        super(message);
+    }
+
+    public NonRetryableListingsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
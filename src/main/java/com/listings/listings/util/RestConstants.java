@@ -2,4 +2,5 @@ package com.listings.listings.util;
 
 public interface RestConstants {
     String LISTINGS_BASE_API = "/api/v0/listings";
+    String ADMIN_BASE_API = "/api/v0/admin";
 }
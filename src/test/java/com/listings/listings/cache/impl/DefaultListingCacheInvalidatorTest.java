@@ -0,0 +1,305 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.data.domain.FuelType;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.rest.dto.listing.*;
+import com.listings.listings.util.CacheConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingCacheInvalidatorTest {
+
+    @Mock
+    private ListingEntityCache listingEntityCache;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private DefaultListingCacheInvalidator listingCacheInvalidator;
+
+    private Cache allListingsCache;
+
+    private Cache searchListingsCache;
+
+    private Cache searchFacetsCache;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE, CacheConstants.SEARCH_FACETS_CACHE);
+        listingCacheInvalidator = new DefaultListingCacheInvalidator(cacheManager, listingEntityCache);
+        allListingsCache = cacheManager.getCache(CacheConstants.ALL_LISTINGS_CACHE);
+        searchListingsCache = cacheManager.getCache(CacheConstants.SEARCH_LISTINGS_CACHE);
+        searchFacetsCache = cacheManager.getCache(CacheConstants.SEARCH_FACETS_CACHE);
+    }
+
+    @Test
+    public void testInvalidateEvictsChangedListings() {
+        listingCacheInvalidator.invalidate(List.of(
+                ListingChange.of(ListingEventMode.UPDATE, listing("2", "audi", FuelType.DIESEL)),
+                ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("3").build())
+        ));
+
+        verify(listingEntityCache, times(1)).evict(List.of("2", "3"));
+    }
+
+    @Test
+    public void testInvalidateKeepsPagesOfUpdatedListing() {
+        allListingsCache.put("byId", page(0, 2L, ListingField.ID, null, "1", "2"));
+        allListingsCache.put("byMake", page(0, 2L, ListingField.MAKE, null, "1", "2"));
+        allListingsCache.put("byDateUpdated", page(0, 2L, ListingField.DATE_UPDATED, null, "1", "2"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("2", "audi", FuelType.DIESEL))));
+
+        assertNotNull(allListingsCache.get("byId"));
+        assertNull(allListingsCache.get("byMake"));
+        assertNull(allListingsCache.get("byDateUpdated"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("2").build())));
+
+        assertNull(allListingsCache.get("byId"));
+    }
+
+    @Test
+    public void testInvalidateSearchPagesOfUpdatedListing() {
+        searchListingsCache.put("bmw", page(0, 1L, ListingField.ID, search(ListingField.MAKE, "bmw"), "1"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("1", null, FuelType.DIESEL))));
+
+        assertNotNull(searchListingsCache.get("bmw"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("1", "audi", null))));
+
+        assertNull(searchListingsCache.get("bmw"));
+    }
+
+    @Test
+    public void testInvalidateAllListingsPages() {
+        allListingsCache.put("byId", page(0, 2L, ListingField.ID, null, "1", "2"));
+        allListingsCache.put("byMake", page(0, 2L, ListingField.MAKE, null, "1", "2"));
+        allListingsCache.put("byModel", page(0, 2L, ListingField.MODEL, null, "1", "2"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("3", "audi", FuelType.DIESEL))));
+
+        assertNotNull(allListingsCache.get("byId"));
+        assertNull(allListingsCache.get("byMake"));
+        assertNotNull(allListingsCache.get("byModel"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing("4", "audi", FuelType.DIESEL))));
+
+        assertNull(allListingsCache.get("byId"));
+    }
+
+    @Test
+    public void testInvalidateSearchPagesOnCreate() {
+        searchListingsCache.put("audi", page(0, 1L, ListingField.ID, search(ListingField.MAKE, "audi"), "1"));
+        searchListingsCache.put("bmw", page(0, 1L, ListingField.ID, search(ListingField.MAKE, "bmw"), "2"));
+        searchListingsCache.put("petrol", page(0, 1L, ListingField.ID, search(ListingField.FUEL_TYPE, "PETROL"), "3"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing("4", "audi", FuelType.DIESEL))));
+
+        assertNull(searchListingsCache.get("audi"));
+        assertNotNull(searchListingsCache.get("bmw"));
+        assertNotNull(searchListingsCache.get("petrol"));
+    }
+
+    @Test
+    public void testInvalidateSearchPagesOnUpdateAndDelete() {
+        searchListingsCache.put("complete", page(0, 1L, ListingField.ID, search(ListingField.MAKE, "bmw"), "1"));
+        searchListingsCache.put("partial", page(0, 5L, ListingField.ID, search(ListingField.MAKE, "bmw"), "1"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("4", "audi", FuelType.DIESEL))));
+
+        assertNotNull(searchListingsCache.get("complete"));
+        assertNull(searchListingsCache.get("partial"));
+
+        searchListingsCache.put("partial", page(0, 5L, ListingField.ID, search(ListingField.MAKE, "bmw"), "1"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("4").build())));
+
+        assertNotNull(searchListingsCache.get("complete"));
+        assertNull(searchListingsCache.get("partial"));
+    }
+
+    @Test
+    public void testInvalidateSearchPagesWithLowerBoundTotalOnDelete() {
+        searchListingsCache.put("bounded", new ListingIdsPage(0, 10, ListingField.ID, Sort.Direction.ASC, 1L, 1, TotalElementsRelation.LOWER_BOUND,
+                TrackTotalHits.upTo(1), search(ListingField.MAKE, "bmw"), List.of("1")));
+        searchListingsCache.put("uncounted", new ListingIdsPage(0, 10, ListingField.ID, Sort.Direction.ASC, null, null, null,
+                TrackTotalHits.NONE, search(ListingField.MAKE, "bmw"), List.of("1")));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("4").build())));
+
+        assertNull(searchListingsCache.get("bounded"));
+        assertNull(searchListingsCache.get("uncounted"));
+    }
+
+    @Test
+    public void testInvalidateSearchFacets() {
+        searchFacetsCache.put("audi", facets(1L, search(ListingField.MAKE, "audi"), ListingFacet.MODEL));
+        searchFacetsCache.put("bmw", facets(1L, search(ListingField.MAKE, "bmw"), ListingFacet.FUEL_TYPE));
+        searchFacetsCache.put("empty", facets(0L, search(ListingField.MAKE, "opel"), ListingFacet.MODEL));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("1", null, null))));
+
+        assertNotNull(searchFacetsCache.get("audi"));
+        assertNotNull(searchFacetsCache.get("bmw"));
+        assertNotNull(searchFacetsCache.get("empty"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("1", null, FuelType.DIESEL))));
+
+        assertNotNull(searchFacetsCache.get("audi"));
+        assertNull(searchFacetsCache.get("bmw"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing("2", "bmw", FuelType.DIESEL))));
+
+        assertNotNull(searchFacetsCache.get("audi"));
+        assertNotNull(searchFacetsCache.get("empty"));
+
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("3").build())));
+
+        assertNull(searchFacetsCache.get("audi"));
+        assertNotNull(searchFacetsCache.get("empty"));
+    }
+
+    @Test
+    public void testInvalidateComparesNumericValues() {
+        searchListingsCache.put("year", page(0, 0L, ListingField.ID, search(ListingField.PRODUCTION_YEAR, "02000")));
+
+        Listing listing = listing("4", "audi", FuelType.DIESEL);
+        listing.setProductionYear(2001);
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing)));
+
+        assertNotNull(searchListingsCache.get("year"));
+
+        listing.setProductionYear(2000);
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing)));
+
+        assertNull(searchListingsCache.get("year"));
+    }
+
+    @Test
+    public void testInvalidateMatchesSearchOperators() {
+        searchListingsCache.put("range", page(0, 0L, ListingField.ID, search(SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).from("1000").to("5000").build())));
+        searchListingsCache.put("in", page(0, 0L, ListingField.ID, search(SearchListingItemDto.builder().field(ListingField.MAKE).operator(SearchOperator.IN).values(List.of("bmw", "audi")).build())));
+        searchListingsCache.put("prefix", page(0, 0L, ListingField.ID, search(SearchListingItemDto.builder().field(ListingField.MAKE).operator(SearchOperator.PREFIX).value("vol").build())));
+
+        Listing listing = listing("4", "audi", FuelType.DIESEL);
+        listing.setMileage(6000L);
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing)));
+
+        assertNotNull(searchListingsCache.get("range"));
+        assertNull(searchListingsCache.get("in"));
+        assertNotNull(searchListingsCache.get("prefix"));
+
+        listing.setMileage(5000L);
+        listing.setMake("volvo");
+        listingCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing)));
+
+        assertNull(searchListingsCache.get("range"));
+        assertNull(searchListingsCache.get("prefix"));
+    }
+
+    @Test
+    public void testInvalidateNoChanges() {
+        allListingsCache.put("byId", page(0, 2L, ListingField.ID, null, "1", "2"));
+
+        listingCacheInvalidator.invalidate(List.of());
+
+        assertNotNull(allListingsCache.get("byId"));
+        verifyNoInteractions(listingEntityCache);
+    }
+
+    @Test
+    public void testInvalidateCaffeineCache() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE);
+        DefaultListingCacheInvalidator caffeineCacheInvalidator = new DefaultListingCacheInvalidator(caffeineCacheManager, listingEntityCache);
+        Cache caffeineCache = caffeineCacheManager.getCache(CacheConstants.ALL_LISTINGS_CACHE);
+        caffeineCache.put("byMake", page(0, 2L, ListingField.MAKE, null, "1", "2"));
+        caffeineCache.put("byId", page(1, 4L, ListingField.ID, null, "3", "4"));
+
+        caffeineCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("2", "audi", FuelType.DIESEL))));
+
+        assertNull(caffeineCache.get("byMake"));
+        assertNotNull(caffeineCache.get("byId"));
+    }
+
+    @Test
+    public void testInvalidateEvictsPagesBeingLoaded() throws Exception {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE);
+        caffeineCacheManager.setAsyncCacheMode(true);
+        DefaultListingCacheInvalidator caffeineCacheInvalidator = new DefaultListingCacheInvalidator(caffeineCacheManager, listingEntityCache);
+        CaffeineCache caffeineCache = (CaffeineCache) caffeineCacheManager.getCache(CacheConstants.ALL_LISTINGS_CACHE);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        CompletableFuture<ListingIdsPage> load = CompletableFuture.supplyAsync(() -> caffeineCache.get("byId", () -> {
+            assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+            return page(0, 2L, ListingField.ID, null, "1", "2");
+        }));
+        // The loader can start before Caffeine registers its future, so wait for the entry being loaded itself
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!caffeineCache.getAsyncCache().asMap().containsKey("byId")) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+
+        caffeineCacheInvalidator.invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing("3", "audi", FuelType.DIESEL))));
+        invalidated.countDown();
+
+        assertNotNull(load.get(5, TimeUnit.SECONDS));
+        assertNull(caffeineCache.get("byId"));
+    }
+
+    private ListingIdsPage page(int page, long totalElements, ListingField sort, SearchListingDto search, String... ids) {
+        return new ListingIdsPage(page, 10, sort, Sort.Direction.ASC, totalElements, 1, TotalElementsRelation.EXACT, TrackTotalHits.EXACT, search, List.of(ids));
+    }
+
+    private ListingFacets facets(long totalElements, SearchListingDto search, ListingFacet facet) {
+        return ListingFacets
+                .builder()
+                .totalElements(totalElements)
+                .facets(Map.of(facet, List.of()))
+                .search(search)
+                .build();
+    }
+
+    private SearchListingDto search(ListingField field, String value) {
+        return search(SearchListingItemDto.builder().field(field).value(value).build());
+    }
+
+    private SearchListingDto search(SearchListingItemDto item) {
+        return SearchListingDto
+                .builder()
+                .searchListingItems(List.of(item))
+                .build();
+    }
+
+    private Listing listing(String id, String make, FuelType fuelType) {
+        return Listing
+                .builder()
+                .id(id)
+                .make(make)
+                .fuelType(fuelType)
+                .build();
+    }
+}
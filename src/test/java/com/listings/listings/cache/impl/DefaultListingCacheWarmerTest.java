@@ -0,0 +1,109 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingCacheWarmUpProgress;
+import com.listings.listings.cache.ListingSearchRecorder;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.RecordedSearch;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.service.ListingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingCacheWarmerTest {
+
+    @Mock
+    private ListingService listingService;
+
+    @Mock
+    private ListingSearchRecorder listingSearchRecorder;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<Runnable> taskArgumentCaptor;
+
+    private ListingsProperties listingsProperties;
+
+    private DefaultListingCacheWarmer listingCacheWarmer;
+
+    @BeforeEach
+    public void setUp() {
+        listingsProperties = new ListingsProperties();
+        listingsProperties.getCache().getWarmUp().setTopSearches(2);
+        listingsProperties.getCache().getWarmUp().setIngestThreshold(10);
+        listingCacheWarmer = new DefaultListingCacheWarmer(listingService, listingSearchRecorder, taskScheduler, listingsProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testWarmUpLoadsHotPagesAndTopSearches() {
+        SearchListingDto search = SearchListingDto.builder().searchListingItems(List.of()).build();
+        RecordedSearch recordedSearch = RecordedSearch.builder().search(search).page(1).size(20).sort(ListingField.MAKE).sortDirection(Sort.Direction.DESC).build();
+        RecordedSearch failingSearch = RecordedSearch.builder().search(search).page(0).size(10).sort(ListingField.ID).sortDirection(Sort.Direction.ASC).build();
+        when(listingSearchRecorder.getTopSearches(2)).thenReturn(List.of(recordedSearch, failingSearch));
+        when(listingService.searchAll(search, 1, 20, ListingField.MAKE, Sort.Direction.DESC, TrackTotalHits.EXACT)).thenReturn(ListingPage.builder().build());
+        when(listingService.searchAll(search, 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT)).thenThrow(new IllegalStateException("Connection refused"));
+        assertFalse(listingCacheWarmer.getProgress().warm());
+
+        listingCacheWarmer.onApplicationStarted();
+
+        verify(listingService, times(1)).getAll(0, 10, ListingField.DATE_CREATED, Sort.Direction.ASC, TrackTotalHits.EXACT);
+        assertEquals(new ListingCacheWarmUpProgress(true, false, 2, 1, 3), listingCacheWarmer.getProgress());
+    }
+
+    @Test
+    public void testWarmUpWithoutRecordedSearches() {
+        when(listingSearchRecorder.getTopSearches(2)).thenThrow(new IllegalStateException("index not found"));
+
+        listingCacheWarmer.warmUp();
+
+        verify(listingService, times(1)).getAll(0, 10, ListingField.DATE_CREATED, Sort.Direction.ASC, TrackTotalHits.EXACT);
+        assertEquals(new ListingCacheWarmUpProgress(true, false, 1, 0, 1), listingCacheWarmer.getProgress());
+    }
+
+    @Test
+    public void testOnIngestedSchedulesWarmUpOnceOverThreshold() {
+        listingCacheWarmer.onIngested(6);
+        verifyNoInteractions(taskScheduler);
+
+        listingCacheWarmer.onIngested(6);
+        listingCacheWarmer.onIngested(6);
+
+        verify(taskScheduler, times(1)).schedule(taskArgumentCaptor.capture(), any(Instant.class));
+        taskArgumentCaptor.getValue().run();
+        verify(listingService, timeout(5000).times(1)).getAll(0, 10, ListingField.DATE_CREATED, Sort.Direction.ASC, TrackTotalHits.EXACT);
+
+        listingCacheWarmer.onIngested(10);
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    public void testWarmUpDisabled() {
+        listingsProperties.getCache().getWarmUp().setEnabled(false);
+        listingCacheWarmer = new DefaultListingCacheWarmer(listingService, listingSearchRecorder, taskScheduler, listingsProperties, new SimpleMeterRegistry());
+
+        listingCacheWarmer.warmUp();
+        listingCacheWarmer.onIngested(100);
+
+        assertTrue(listingCacheWarmer.getProgress().warm());
+        verifyNoInteractions(listingService, listingSearchRecorder, taskScheduler);
+    }
+}
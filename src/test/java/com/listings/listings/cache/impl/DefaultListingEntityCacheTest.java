@@ -0,0 +1,112 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.mapper.ListingMapper;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.rest.dto.listing.TotalElementsRelation;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.util.CacheConstants;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingEntityCacheTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ListingMapper listingMapper;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DefaultListingEntityCache listingEntityCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listingEntityCache = new DefaultListingEntityCache(elasticsearchOperations, listingMapper, new ListingsProperties(), meterRegistry);
+        lenient().when(listingMapper.mapToListingDto(any(Listing.class)))
+                .thenAnswer(invocation -> ListingDto.builder().id(invocation.<Listing>getArgument(0).getId()).build());
+    }
+
+    @Test
+    public void testGetListingPageGetsMissingListingsOnce() {
+        when(elasticsearchOperations.multiGet(any(Query.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+                .thenReturn(List.of(found("1"), found("2")))
+                .thenReturn(List.of(found("3")));
+
+        ListingPage first = listingEntityCache.getListingPage(page("2", "1"));
+        ListingPage second = listingEntityCache.getListingPage(page("1", "3"));
+
+        assertEquals(List.of("2", "1"), first.getContent().stream().map(ListingDto::getId).toList());
+        assertEquals(List.of("1", "3"), second.getContent().stream().map(ListingDto::getId).toList());
+        assertSame(first.getContent().get(1), second.getContent().get(0));
+        verify(elasticsearchOperations, times(2)).multiGet(queryCaptor.capture(), eq(Listing.class), any(IndexCoordinates.class));
+        assertEquals(Set.of("1", "2"), Set.copyOf(queryCaptor.getAllValues().get(0).getIds()));
+        assertEquals(List.of("3"), queryCaptor.getAllValues().get(1).getIds());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", CacheConstants.LISTINGS_CACHE).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void testGetListingPageOfRemovedListing() {
+        when(elasticsearchOperations.multiGet(any(Query.class), eq(Listing.class), any(IndexCoordinates.class)))
+                .thenReturn(List.of(found("1"), MultiGetItem.of(null, MultiGetItem.Failure.of(ElasticSearchConstants.LISTINGS_INDEX_NAME, null, "2", null, null))));
+
+        assertNull(listingEntityCache.getListingPage(page("1", "2")));
+    }
+
+    @Test
+    public void testGetEmptyListingPage() {
+        ListingPage listingPage = listingEntityCache.getListingPage(page());
+
+        assertTrue(listingPage.getContent().isEmpty());
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    public void testEvictGetsListingAgain() {
+        when(elasticsearchOperations.multiGet(any(Query.class), eq(Listing.class), any(IndexCoordinates.class)))
+                .thenReturn(List.of(found("1")));
+
+        listingEntityCache.getListingPage(page("1"));
+        listingEntityCache.evict(List.of("1"));
+        listingEntityCache.getListingPage(page("1"));
+
+        verify(elasticsearchOperations, times(2)).multiGet(any(Query.class), eq(Listing.class), any(IndexCoordinates.class));
+    }
+
+    private ListingIdsPage page(String... listingIds) {
+        return new ListingIdsPage(0, 10, ListingField.ID, Sort.Direction.ASC, (long) listingIds.length, 1, TotalElementsRelation.EXACT, TrackTotalHits.EXACT, null, List.of(listingIds));
+    }
+
+    private MultiGetItem<Listing> found(String id) {
+        return MultiGetItem.of(Listing.builder().id(id).build(), null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.listings.listings.cache.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.RecordedSearch;
+import com.listings.listings.data.repositories.RecordedSearchRepository;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ElasticsearchListingSearchRecorderTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private RecordedSearchRepository recordedSearchRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<BulkRequest> bulkRequestArgumentCaptor;
+
+    @Captor
+    private ArgumentCaptor<Pageable> pageableArgumentCaptor;
+
+    private final SearchListingsKeyGenerator searchListingsKeyGenerator = new SearchListingsKeyGenerator();
+
+    private ListingsProperties listingsProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ElasticsearchListingSearchRecorder listingSearchRecorder;
+
+    @BeforeEach
+    public void setUp() {
+        MappingElasticsearchConverter elasticsearchConverter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        elasticsearchConverter.afterPropertiesSet();
+        listingsProperties = new ListingsProperties();
+        listingsProperties.getCache().getWarmUp().setMaxRecordedSearches(2);
+        meterRegistry = new SimpleMeterRegistry();
+        listingSearchRecorder = new ElasticsearchListingSearchRecorder(elasticsearchClient, elasticsearchConverter, recordedSearchRepository,
+                searchListingsKeyGenerator, taskScheduler, listingsProperties, meterRegistry);
+    }
+
+    @Test
+    public void testFlushAddsCountsOfRecordedSearches() throws IOException {
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(response -> response.took(1).errors(false).items(List.of())));
+
+        listingSearchRecorder.record(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.record(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.flush();
+        listingSearchRecorder.flush();
+
+        verify(elasticsearchClient, times(1)).bulk(bulkRequestArgumentCaptor.capture());
+        BulkRequest bulkRequest = bulkRequestArgumentCaptor.getValue();
+        assertEquals(ElasticSearchConstants.RECORDED_SEARCHES_INDEX_NAME, bulkRequest.index());
+        assertEquals(1, bulkRequest.operations().size());
+        BulkOperation operation = bulkRequest.operations().get(0);
+        assertEquals(searchListingsKeyGenerator.generate(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC).toString(), operation.update().id());
+        assertEquals(2L, operation.update().action().script().inline().params().get("count").to(Long.class));
+        Map<?, ?> upsert = (Map<?, ?>) operation.update().action().upsert();
+        assertEquals(2L, ((Number) upsert.get("count")).longValue());
+    }
+
+    @Test
+    public void testRecordDropsSearchesAboveLimit() throws IOException {
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(response -> response.took(1).errors(false).items(List.of())));
+
+        listingSearchRecorder.record(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.record(search("bmw"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.record(search("fiat"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.record(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.flush();
+
+        verify(elasticsearchClient, times(1)).bulk(bulkRequestArgumentCaptor.capture());
+        assertEquals(2, bulkRequestArgumentCaptor.getValue().operations().size());
+        assertEquals(1.0, meterRegistry.counter("listings.cache.recorded.searches.dropped").count());
+    }
+
+    @Test
+    public void testRecordDisabled() {
+        listingsProperties.getCache().getWarmUp().setEnabled(false);
+
+        listingSearchRecorder.record(search("audi"), 0, 10, ListingField.ID, Sort.Direction.ASC);
+        listingSearchRecorder.flush();
+
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    public void testGetTopSearches() {
+        List<RecordedSearch> recordedSearches = List.of(RecordedSearch.builder().id("1").count(5L).build());
+        when(recordedSearchRepository.findByLastRecordedAfter(any(Instant.class), any(Pageable.class))).thenReturn(recordedSearches);
+
+        assertEquals(recordedSearches, listingSearchRecorder.getTopSearches(5));
+
+        verify(recordedSearchRepository, times(1)).findByLastRecordedAfter(any(Instant.class), pageableArgumentCaptor.capture());
+        assertEquals(5, pageableArgumentCaptor.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "count"), pageableArgumentCaptor.getValue().getSort());
+        assertTrue(listingSearchRecorder.getTopSearches(0).isEmpty());
+    }
+
+    private SearchListingDto search(String make) {
+        return SearchListingDto
+                .builder()
+                .searchListingItems(List.of(SearchListingItemDto.builder().field(ListingField.MAKE).value(make).build()))
+                .build();
+    }
+}
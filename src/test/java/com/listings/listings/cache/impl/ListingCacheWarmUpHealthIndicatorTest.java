@@ -0,0 +1,42 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingCacheWarmUpProgress;
+import com.listings.listings.cache.ListingCacheWarmer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ListingCacheWarmUpHealthIndicatorTest {
+
+    @Mock
+    private ListingCacheWarmer listingCacheWarmer;
+
+    @InjectMocks
+    private ListingCacheWarmUpHealthIndicator healthIndicator;
+
+    @Test
+    public void testOutOfServiceUntilWarm() {
+        when(listingCacheWarmer.getProgress()).thenReturn(new ListingCacheWarmUpProgress(false, true, 3, 0, 10));
+
+        Health health = healthIndicator.health();
+
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(3, health.getDetails().get("loaded"));
+        assertEquals(10, health.getDetails().get("total"));
+    }
+
+    @Test
+    public void testUpWhenWarm() {
+        when(listingCacheWarmer.getProgress()).thenReturn(new ListingCacheWarmUpProgress(true, false, 9, 1, 10));
+
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+}
@@ -0,0 +1,75 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacets;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.util.CacheConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ListingPageCacheLoaderTest {
+
+    @Mock
+    private ObjectProvider<ListingPageLoader> listingPageLoaderProvider;
+
+    @Mock
+    private ListingPageLoader listingPageLoader;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ListingPageCacheLoader listingPageCacheLoader;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listingPageCacheLoader = new ListingPageCacheLoader(CacheConstants.ALL_LISTINGS_CACHE, listingPageLoaderProvider, meterRegistry);
+    }
+
+    @Test
+    public void testLoadLeavesMissToCachedMethod() {
+        assertNull(listingPageCacheLoader.load("key"));
+        verifyNoInteractions(listingPageLoaderProvider);
+    }
+
+    @Test
+    public void testReloadListingPage() {
+        ListingIdsPage cached = ListingIdsPage.of(ListingPage.builder().page(0).build());
+        ListingPage reloaded = ListingPage.builder().page(0).content(List.of(ListingDto.builder().id("1").build())).build();
+        when(listingPageLoaderProvider.getObject()).thenReturn(listingPageLoader);
+        when(listingPageLoader.reload(cached)).thenReturn(reloaded);
+
+        assertEquals(ListingIdsPage.of(reloaded), listingPageCacheLoader.reload("key", cached));
+        assertEquals(1, meterRegistry.get("listings.cache.refresh").tag("cache", CacheConstants.ALL_LISTINGS_CACHE).timer().count());
+    }
+
+    @Test
+    public void testReloadListingFacets() {
+        ListingFacets cached = ListingFacets.builder().totalElements(1L).facets(Map.of(ListingFacet.MAKE, List.of())).build();
+        ListingFacets reloaded = ListingFacets.builder().totalElements(2L).facets(Map.of(ListingFacet.MAKE, List.of())).build();
+        when(listingPageLoaderProvider.getObject()).thenReturn(listingPageLoader);
+        when(listingPageLoader.reload(cached)).thenReturn(reloaded);
+
+        assertSame(reloaded, listingPageCacheLoader.reload("key", cached));
+    }
+
+    @Test
+    public void testReloadOtherValue() {
+        assertNull(listingPageCacheLoader.reload("key", ListingPage.builder().page(0).build()));
+        verifyNoInteractions(listingPageLoaderProvider);
+    }
+}
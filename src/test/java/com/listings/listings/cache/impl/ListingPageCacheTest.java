@@ -0,0 +1,154 @@
+package com.listings.listings.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.rest.dto.listing.ListingDto;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.util.CacheConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ListingPageCacheTest {
+
+    @Mock
+    private ObjectProvider<ListingPageLoader> listingPageLoaderProvider;
+
+    @Mock
+    private ListingPageLoader listingPageLoader;
+
+    @Mock
+    private ListingEntityCache listingEntityCache;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final List<Runnable> deferredTasks = new ArrayList<>();
+
+    private boolean deferred;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ListingPageCache listingPageCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listingPageCache = new ListingPageCache(CacheConstants.ALL_LISTINGS_CACHE, Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofSeconds(5))
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .ticker(nanos::get)
+                .executor(task -> {
+                    if (deferred) {
+                        deferredTasks.add(task);
+                    } else {
+                        task.run();
+                    }
+                })
+                .buildAsync(new ListingPageCacheLoader(CacheConstants.ALL_LISTINGS_CACHE, listingPageLoaderProvider, meterRegistry)), listingEntityCache, meterRegistry);
+    }
+
+    @Test
+    public void testGetServesStalePageWhileItIsReloaded() {
+        ListingPage stale = page(1L, "1");
+        ListingPage reloaded = page(2L, "1", "2");
+        when(listingPageLoaderProvider.getObject()).thenReturn(listingPageLoader);
+        when(listingPageLoader.reload(ListingIdsPage.of(stale))).thenReturn(reloaded);
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(stale))).thenReturn(stale);
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(reloaded))).thenReturn(reloaded);
+        listingPageCache.put("key", stale);
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        deferred = true;
+
+        assertSame(stale, listingPageCache.get("key", () -> fail("the page should not be loaded")));
+        verifyNoInteractions(listingPageLoader);
+        deferred = false;
+        List.copyOf(deferredTasks).forEach(Runnable::run);
+        assertSame(reloaded, listingPageCache.get("key", () -> fail("the page should not be loaded")));
+        assertEquals(1, meterRegistry.get("listings.cache.stale.reads").tag("cache", CacheConstants.ALL_LISTINGS_CACHE).counter().count());
+        assertEquals(1, meterRegistry.get("listings.cache.refresh").tag("cache", CacheConstants.ALL_LISTINGS_CACHE).timer().count());
+    }
+
+    @Test
+    public void testGetFreshPage() {
+        ListingPage fresh = page(1L, "1");
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(fresh))).thenReturn(fresh);
+        listingPageCache.put("key", fresh);
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertSame(fresh, listingPageCache.get("key", () -> fail("the page should not be loaded")));
+        assertEquals(0, meterRegistry.get("listings.cache.stale.reads").counter().count());
+        verifyNoInteractions(listingPageLoaderProvider);
+    }
+
+    @Test
+    public void testGetExpiredPageLoadsIt() {
+        ListingPage expired = page(1L, "1");
+        ListingPage loaded = page(2L, "1", "2");
+        listingPageCache.put("key", expired);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertSame(loaded, listingPageCache.get("key", () -> loaded));
+        verifyNoInteractions(listingPageLoaderProvider);
+        verifyNoInteractions(listingEntityCache);
+    }
+
+    @Test
+    public void testPutKeepsListingIds() {
+        ListingPage listingPage = page(2L, "1", "2");
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(listingPage))).thenReturn(listingPage);
+
+        listingPageCache.put("key", listingPage);
+
+        assertEquals(ListingIdsPage.of(listingPage), listingPageCache.getNativeCache().getIfPresent("key"));
+        assertSame(listingPage, listingPageCache.get("key", ListingPage.class));
+    }
+
+    @Test
+    public void testGetLoadsPageOfRemovedListingAgain() {
+        ListingPage cached = page(2L, "1", "2");
+        ListingPage loaded = page(1L, "1");
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(cached))).thenReturn(null);
+        listingPageCache.put("key", cached);
+
+        assertSame(loaded, listingPageCache.get("key", () -> loaded));
+        assertEquals(ListingIdsPage.of(loaded), listingPageCache.getNativeCache().getIfPresent("key"));
+    }
+
+    @Test
+    public void testLookupEvictsPageOfRemovedListing() {
+        ListingPage cached = page(2L, "1", "2");
+        when(listingEntityCache.getListingPage(ListingIdsPage.of(cached))).thenReturn(null);
+        listingPageCache.put("key", cached);
+
+        assertNull(listingPageCache.get("key"));
+        assertNull(listingPageCache.getNativeCache().getIfPresent("key"));
+    }
+
+    private ListingPage page(long totalElements, String... listingIds) {
+        return ListingPage
+                .builder()
+                .page(0)
+                .size(10)
+                .totalElements(totalElements)
+                .content(List.of(listingIds).stream().map(id -> ListingDto.builder().id(id).build()).toList())
+                .build();
+    }
+}
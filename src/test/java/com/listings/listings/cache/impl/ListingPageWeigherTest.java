@@ -0,0 +1,78 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.rest.dto.listing.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListingPageWeigherTest {
+
+    private final ListingPageWeigher listingPageWeigher = new ListingPageWeigher();
+
+    @Test
+    public void testWeighEmptyPage() {
+        assertEquals(ListingPageWeigher.PAGE_BYTES, listingPageWeigher.weigh("key", page(null)));
+    }
+
+    @Test
+    public void testWeighGrowsWithListingIds() {
+        int one = listingPageWeigher.weigh("key", page(null, "1234"));
+        int two = listingPageWeigher.weigh("key", page(null, "1234", "5678"));
+
+        assertEquals(ListingPageWeigher.PAGE_BYTES + ListingPageWeigher.STRING_BYTES + 4, one);
+        assertEquals(one + ListingPageWeigher.STRING_BYTES + 4, two);
+    }
+
+    @Test
+    public void testWeighListing() {
+        ListingDto listing = ListingDto
+                .builder()
+                .id("1234")
+                .make("audi")
+                .model("a4")
+                .contactInfo(ContactInfoDto.builder().firstName("john").lastName("doe").email("john@doe.com").phoneNumber("123").build())
+                .build();
+
+        assertEquals(ListingPageWeigher.LISTING_BYTES + 32, listingPageWeigher.weigh("1234", listing));
+    }
+
+    @Test
+    public void testWeighCountsSearch() {
+        SearchListingDto search = SearchListingDto
+                .builder()
+                .searchListingItems(List.of(SearchListingItemDto.builder().field(ListingField.MAKE).value("audi").build()))
+                .build();
+
+        int weight = listingPageWeigher.weigh("key", page(search));
+
+        assertEquals(ListingPageWeigher.PAGE_BYTES + ListingPageWeigher.SEARCH_ITEM_BYTES + 4, weight);
+    }
+
+    @Test
+    public void testWeighFacets() {
+        ListingFacets listingFacets = ListingFacets
+                .builder()
+                .totalElements(3L)
+                .facets(Map.of(ListingFacet.MAKE, List.of(
+                        ListingFacetBucket.builder().key("audi").count(2L).build(),
+                        ListingFacetBucket.builder().key("bmw").count(1L).build()
+                )))
+                .build();
+
+        assertEquals(ListingPageWeigher.PAGE_BYTES + 2 * ListingPageWeigher.BUCKET_BYTES + 7, listingPageWeigher.weigh("key", listingFacets));
+    }
+
+    @Test
+    public void testWeighOtherValue() {
+        assertEquals(ListingPageWeigher.PAGE_BYTES, listingPageWeigher.weigh("key", "value"));
+    }
+
+    private ListingIdsPage page(SearchListingDto search, String... listingIds) {
+        return new ListingIdsPage(0, 10, ListingField.ID, Sort.Direction.ASC, (long) listingIds.length, 1, TotalElementsRelation.EXACT, TrackTotalHits.EXACT, search, List.of(listingIds));
+    }
+}
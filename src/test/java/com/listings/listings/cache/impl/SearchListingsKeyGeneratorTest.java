@@ -0,0 +1,137 @@
+package com.listings.listings.cache.impl;
+
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import com.listings.listings.rest.dto.listing.SearchOperator;
+import com.listings.listings.rest.dto.listing.TrackTotalHits;
+import com.listings.listings.service.ListingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchListingsKeyGeneratorTest {
+
+    private final SearchListingsKeyGenerator searchListingsKeyGenerator = new SearchListingsKeyGenerator();
+
+    @Test
+    public void testGenerateIgnoresOrderOfItems() {
+        assertEquals(
+                key(search(item(ListingField.MAKE, "audi"), item(ListingField.MODEL, "a4"))),
+                key(search(item(ListingField.MODEL, "a4"), item(ListingField.MAKE, "audi")))
+        );
+    }
+
+    @Test
+    public void testGenerateIgnoresDuplicateItems() {
+        assertEquals(
+                key(search(item(ListingField.MAKE, "audi"))),
+                key(search(item(ListingField.MAKE, "audi"), item(ListingField.MAKE, "audi")))
+        );
+    }
+
+    @Test
+    public void testGenerateCanonicalNumericValues() {
+        assertEquals(
+                key(search(item(ListingField.PRODUCTION_YEAR, "2000"))),
+                key(search(item(ListingField.PRODUCTION_YEAR, "02000")))
+        );
+        assertNotEquals(
+                key(search(item(ListingField.MAKE, "2000"))),
+                key(search(item(ListingField.MAKE, "02000")))
+        );
+    }
+
+    @Test
+    public void testGenerateCanonicalOperators() {
+        assertEquals(
+                key(search(in(ListingField.MAKE, "bmw", "audi"))),
+                key(search(in(ListingField.MAKE, "audi", "bmw", "audi")))
+        );
+        assertEquals(
+                key(search(item(ListingField.MAKE, "audi"))),
+                key(search(in(ListingField.MAKE, "audi")))
+        );
+        assertEquals(
+                key(search(SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).from("1000").build())),
+                key(search(SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).from("01000").value("ignored").build()))
+        );
+    }
+
+    @Test
+    public void testGenerateDistinguishesOperators() {
+        assertNotEquals(
+                key(search(item(ListingField.MODEL, "a"))),
+                key(search(SearchListingItemDto.builder().field(ListingField.MODEL).operator(SearchOperator.PREFIX).value("a").build()))
+        );
+        assertNotEquals(
+                key(search(SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).from("1000").build())),
+                key(search(SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).to("1000").build()))
+        );
+        assertNotEquals(key(search(in(ListingField.MAKE, "a", "b"))), key(search(in(ListingField.MAKE, "ab"))));
+    }
+
+    @Test
+    public void testGenerateDistinguishesSearches() {
+        assertNotEquals(key(search(item(ListingField.MAKE, "audi"))), key(search(item(ListingField.MAKE, "Audi"))));
+        assertNotEquals(key(search(item(ListingField.MAKE, "audi"))), key(search(item(ListingField.MODEL, "audi"))));
+        assertNotEquals(key(search(item(ListingField.MAKE, "a"), item(ListingField.MODEL, "b"))), key(search(item(ListingField.MAKE, "ab"))));
+        assertNotEquals(
+                searchListingsKeyGenerator.generate(search(item(ListingField.MAKE, "audi")), 0, 10, ListingField.ID, Sort.Direction.ASC),
+                searchListingsKeyGenerator.generate(search(item(ListingField.MAKE, "audi")), 1, 10, ListingField.ID, Sort.Direction.ASC)
+        );
+        assertNotEquals(
+                key(search(item(ListingField.MAKE, "audi"))),
+                searchListingsKeyGenerator.generate(search(item(ListingField.MAKE, "audi")), 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.upTo(10000))
+        );
+        assertNotEquals(
+                searchListingsKeyGenerator.generate(search(item(ListingField.MAKE, "audi")), 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.NONE),
+                searchListingsKeyGenerator.generate(search(item(ListingField.MAKE, "audi")), 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.upTo(10000))
+        );
+    }
+
+    @Test
+    public void testGenerateFromMethodParameters() throws Exception {
+        Method method = ListingService.class.getMethod("searchAll", SearchListingDto.class, Integer.class, Integer.class, ListingField.class, Sort.Direction.class, TrackTotalHits.class);
+        SearchListingDto search = search(item(ListingField.MAKE, "audi"));
+
+        assertEquals(key(search), searchListingsKeyGenerator.generate(new Object(), method, search, 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT));
+        assertThrows(IllegalArgumentException.class, () -> searchListingsKeyGenerator.generate(new Object(), method, 0, 10));
+    }
+
+    @Test
+    public void testGenerateFacets() throws Exception {
+        Method method = ListingService.class.getMethod("getFacets", SearchListingDto.class, Set.class);
+        SearchListingDto search = search(item(ListingField.MAKE, "audi"));
+
+        assertEquals(
+                searchListingsKeyGenerator.generate(search, List.of(ListingFacet.MODEL, ListingFacet.MAKE)),
+                searchListingsKeyGenerator.generate(new Object(), method, search(item(ListingField.MAKE, "audi"), item(ListingField.MAKE, "audi")), EnumSet.of(ListingFacet.MAKE, ListingFacet.MODEL))
+        );
+        assertNotEquals(searchListingsKeyGenerator.generate(search, Set.of(ListingFacet.MAKE)), searchListingsKeyGenerator.generate(search, Set.of(ListingFacet.MODEL)));
+        assertNotEquals(key(search), searchListingsKeyGenerator.generate(search, Set.of(ListingFacet.MAKE)));
+    }
+
+    private Object key(SearchListingDto search) {
+        return searchListingsKeyGenerator.generate(search, 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT);
+    }
+
+    private SearchListingDto search(SearchListingItemDto... items) {
+        return SearchListingDto.builder().searchListingItems(List.of(items)).build();
+    }
+
+    private SearchListingItemDto item(ListingField field, String value) {
+        return SearchListingItemDto.builder().field(field).value(value).build();
+    }
+
+    private SearchListingItemDto in(ListingField field, String... values) {
+        return SearchListingItemDto.builder().field(field).operator(SearchOperator.IN).values(List.of(values)).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.listings.listings.confg;
+
+import com.listings.listings.cache.ListingEntityCache;
+import com.listings.listings.cache.ListingIdsPage;
+import com.listings.listings.cache.ListingPageLoader;
+import com.listings.listings.cache.impl.ListingPageCache;
+import com.listings.listings.rest.dto.listing.ListingPage;
+import com.listings.listings.util.CacheConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ListingsServiceConfigTest {
+
+    @Mock
+    private ObjectProvider<ListingPageLoader> listingPageLoader;
+
+    @Mock
+    private ListingEntityCache listingEntityCache;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = new ListingsServiceConfig().cacheManager(new ListingsProperties(), listingPageLoader, listingEntityCache, new SimpleMeterRegistry());
+        ((SimpleCacheManager) cacheManager).initializeCaches();
+    }
+
+    @Test
+    public void testCacheManagerCreatesListingCaches() {
+        assertEquals(List.of(CacheConstants.ALL_LISTINGS_CACHE, CacheConstants.SEARCH_LISTINGS_CACHE, CacheConstants.SEARCH_FACETS_CACHE), List.copyOf(cacheManager.getCacheNames()));
+        assertNull(cacheManager.getCache("OTHER_CACHE"));
+    }
+
+    @Test
+    public void testCacheManagerAppliesCacheModes() {
+        ListingPageCache allListingsCache = (ListingPageCache) cacheManager.getCache(CacheConstants.ALL_LISTINGS_CACHE);
+        ListingPageCache searchListingsCache = (ListingPageCache) cacheManager.getCache(CacheConstants.SEARCH_LISTINGS_CACHE);
+
+        assertEquals(Duration.ofSeconds(5), allListingsCache.getNativeCache().policy().refreshAfterWrite().orElseThrow().getRefreshesAfter());
+        assertEquals(Duration.ofMinutes(1), allListingsCache.getNativeCache().policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertTrue(searchListingsCache.getNativeCache().policy().refreshAfterWrite().isEmpty());
+        assertEquals(Duration.ofMinutes(10), searchListingsCache.getNativeCache().policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    public void testCacheManagerLoadsConcurrentMissesOnce() throws Exception {
+        Cache cache = cacheManager.getCache(CacheConstants.SEARCH_LISTINGS_CACHE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ListingPage listingPage = ListingPage.builder().page(0).build();
+        when(listingEntityCache.getListingPage(any(ListingIdsPage.class))).thenReturn(listingPage);
+
+        CompletableFuture<ListingPage> first = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return listingPage;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ListingPage> second = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+            loads.incrementAndGet();
+            return ListingPage.builder().page(1).build();
+        }));
+        release.countDown();
+
+        assertSame(listingPage, first.get(5, TimeUnit.SECONDS));
+        assertSame(listingPage, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        verify(listingEntityCache, times(1)).getListingPage(ListingIdsPage.of(listingPage));
+    }
+}
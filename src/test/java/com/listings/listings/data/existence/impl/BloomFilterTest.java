@@ -0,0 +1,41 @@
+package com.listings.listings.data.existence.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter bloomFilter = BloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            bloomFilter.put("listing-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(bloomFilter.mightContain("listing-" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (bloomFilter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200, String.format("Too many false positives [%s]", falsePositives));
+        assertEquals(0.01, bloomFilter.expectedFalsePositiveRate(), 0.002);
+        assertEquals(11984, bloomFilter.sizeInBytes());
+    }
+}
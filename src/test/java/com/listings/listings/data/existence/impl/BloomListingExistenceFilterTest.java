@@ -0,0 +1,151 @@
+package com.listings.listings.data.existence.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BloomListingExistenceFilterTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private SearchHitsIterator<Listing> searchHitsIterator;
+
+    private ListingsProperties listingsProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BloomListingExistenceFilter existenceFilter;
+
+    @BeforeEach
+    public void setUp() {
+        listingsProperties = new ListingsProperties();
+        listingsProperties.getElasticsearch().getExistence().setExpectedInsertions(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        existenceFilter = new BloomListingExistenceFilter(elasticsearchOperations, taskScheduler, listingsProperties, meterRegistry);
+    }
+
+    @Test
+    public void testEveryListingMightExistUntilBuilt() {
+        assertTrue(existenceFilter.mightExist("1"));
+
+        existenceFilter.onNotFound("1");
+
+        assertEquals(0.0, meterRegistry.counter("listings.existence.filter.false.positives").count());
+    }
+
+    @Test
+    public void testRebuild() {
+        SearchHit<Listing> first = mock(SearchHit.class);
+        SearchHit<Listing> second = mock(SearchHit.class);
+        when(first.getId()).thenReturn("1");
+        when(second.getId()).thenReturn("2");
+        when(elasticsearchOperations.count(any(Query.class), eq(Listing.class))).thenReturn(2L);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(Listing.class))).thenReturn(searchHitsIterator);
+        when(searchHitsIterator.hasNext()).thenReturn(true, true, false);
+        when(searchHitsIterator.next()).thenReturn(first, second);
+
+        existenceFilter.rebuild();
+
+        verify(indexOperations, times(1)).refresh();
+        verify(searchHitsIterator, times(1)).close();
+        assertTrue(existenceFilter.mightExist("1"));
+        assertTrue(existenceFilter.mightExist("2"));
+        assertFalse(existenceFilter.mightExist("3"));
+
+        existenceFilter.onCreated("3");
+        assertTrue(existenceFilter.mightExist("3"));
+
+        existenceFilter.onNotFound("2");
+        assertEquals(1.0, meterRegistry.counter("listings.existence.filter.misses").count());
+        assertEquals(0.5, meterRegistry.get("listings.existence.filter.false.positive.rate").gauge().value());
+
+        assertFalse(existenceFilter.mightExist("4"));
+        existenceFilter.onFound("4");
+        assertTrue(existenceFilter.mightExist("4"));
+        assertEquals(1.0, meterRegistry.counter("listings.existence.filter.false.negatives").count());
+        assertEquals(0.5, meterRegistry.get("listings.existence.filter.false.positive.rate").gauge().value());
+        assertTrue(meterRegistry.get("listings.existence.filter.size").gauge().value() > 0);
+    }
+
+    @Test
+    public void testScheduleRebuildDropsFilter() throws InterruptedException {
+        when(elasticsearchOperations.count(any(Query.class), eq(Listing.class))).thenReturn(0L);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(Listing.class))).thenReturn(searchHitsIterator);
+        existenceFilter.rebuild();
+        assertFalse(existenceFilter.mightExist("1"));
+
+        existenceFilter.scheduleRebuild();
+
+        verify(elasticsearchOperations, timeout(5000).times(2)).searchForStream(any(Query.class), eq(Listing.class));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (existenceFilter.mightExist("1")) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    public void testRebuildsRunOffTheTaskScheduler() {
+        AtomicReference<Thread> rebuildThread = new AtomicReference<>();
+        when(elasticsearchOperations.count(any(Query.class), eq(Listing.class))).thenAnswer(invocation -> {
+            rebuildThread.set(Thread.currentThread());
+            return 0L;
+        });
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(Listing.class))).thenReturn(searchHitsIterator);
+        ArgumentCaptor<Runnable> rebuildArgumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        existenceFilter.scheduleRebuilds();
+        verify(taskScheduler, times(1)).scheduleWithFixedDelay(rebuildArgumentCaptor.capture(), any(Instant.class), any(Duration.class));
+        rebuildArgumentCaptor.getValue().run();
+
+        verify(elasticsearchOperations, timeout(5000).times(1)).searchForStream(any(Query.class), eq(Listing.class));
+        assertNotNull(rebuildThread.get());
+        assertNotEquals(Thread.currentThread(), rebuildThread.get());
+    }
+
+    @Test
+    public void testDisabled() {
+        listingsProperties.getElasticsearch().getExistence().setEnabled(false);
+
+        existenceFilter.scheduleRebuilds();
+        existenceFilter.scheduleRebuild();
+
+        assertTrue(existenceFilter.mightExist("1"));
+        verifyNoInteractions(taskScheduler, elasticsearchOperations);
+    }
+}
@@ -0,0 +1,173 @@
+package com.listings.listings.data.export.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.export.ListingExportCursor;
+import com.listings.listings.mapper.impl.DefaultListingMapper;
+import com.listings.listings.util.ExpiredExportCursorException;
+import com.listings.listings.util.ListingsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingExporterTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private DefaultListingExporter listingExporter;
+
+    @BeforeEach
+    public void setUp() {
+        MappingElasticsearchConverter elasticsearchConverter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        elasticsearchConverter.afterPropertiesSet();
+        ListingsProperties listingsProperties = new ListingsProperties();
+        listingsProperties.getElasticsearch().getExport().setSlices(2);
+        listingsProperties.getElasticsearch().getExport().setBatchSize(2);
+        listingExporter = new DefaultListingExporter(elasticsearchClient, elasticsearchConverter, new DefaultListingMapper(), objectMapper, listingsProperties);
+    }
+
+    @Test
+    public void testExportWritesSlicesWithCursors() throws IOException {
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(OpenPointInTimeResponse.of(response -> response.id("pit")));
+        when(elasticsearchClient.closePointInTime(any(ClosePointInTimeRequest.class))).thenReturn(ClosePointInTimeResponse.of(response -> response.succeeded(true).numFreed(1)));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Map.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            assertEquals("pit", request.pit().id());
+            assertNull(request.slice().field());
+            String after = request.searchAfter().isEmpty() ? null : request.searchAfter().get(0).stringValue();
+            if ("0".equals(request.slice().id())) {
+                return after == null ? searchResponse("1", "3") : searchResponse();
+            }
+            return searchResponse("2");
+        });
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        listingExporter.export(null, outputStream);
+
+        List<JsonNode> lines = lines(outputStream);
+        lines.forEach(line -> assertTrue(line.has("listing") != line.has("cursor")));
+        List<String> ids = lines
+                .stream()
+                .filter(line -> "LISTING".equals(line.get("type").asText()))
+                .map(line -> line.get("listing").get("id").asText())
+                .sorted()
+                .toList();
+        assertEquals(List.of("1", "2", "3"), ids);
+        assertEquals(3, lines.stream().filter(line -> "CURSOR".equals(line.get("type").asText())).count());
+        assertEquals("CURSOR", lines.get(lines.size() - 1).get("type").asText());
+
+        ListingExportCursor cursor = listingExporter.readCursor(lines.get(lines.size() - 1).get("cursor").asText());
+        assertEquals("pit", cursor.pointInTimeId());
+        assertEquals(List.of(new ListingExportCursor.Slice("3", true), new ListingExportCursor.Slice("2", true)), cursor.slices());
+        verify(elasticsearchClient, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    public void testExportResumesFromCursor() throws IOException {
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Map.class))).thenReturn(searchResponse("4"));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        listingExporter.export(new ListingExportCursor("pit", List.of(new ListingExportCursor.Slice("3", true), new ListingExportCursor.Slice("2", false))), outputStream);
+
+        verify(elasticsearchClient, times(1)).search(argThat((SearchRequest request) -> "pit".equals(request.pit().id())
+                && "1".equals(request.slice().id())
+                && "2".equals(request.searchAfter().get(0).stringValue())), eq(Map.class));
+        verify(elasticsearchClient, times(0)).openPointInTime(any(OpenPointInTimeRequest.class));
+        assertEquals("4", lines(outputStream).get(0).get("listing").get("id").asText());
+    }
+
+    @Test
+    public void testExportKeepsPointInTimeOfBrokenExport() throws IOException {
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(OpenPointInTimeResponse.of(response -> response.id("pit")));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Map.class))).thenThrow(new IOException("Connection refused"));
+
+        assertThrows(IOException.class, () -> listingExporter.export(null, new ByteArrayOutputStream()));
+        verify(elasticsearchClient, times(0)).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    public void testExportFailsOnExpiredPointInTime() throws IOException {
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Map.class))).thenThrow(new ElasticsearchException("search", ErrorResponse.of(error -> error
+                .status(404)
+                .error(ErrorCause.of(cause -> cause.type("search_context_missing_exception").reason("No search context found for id [1]"))))));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertThrows(ExpiredExportCursorException.class, () -> listingExporter.export(new ListingExportCursor("pit", List.of(new ListingExportCursor.Slice("2", false))), outputStream));
+        assertEquals(0, outputStream.size());
+        verify(elasticsearchClient, times(0)).closePointInTime(any(ClosePointInTimeRequest.class));
+    }
+
+    @Test
+    public void testExportOfFinishedCursor() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        listingExporter.export(new ListingExportCursor("pit", List.of(new ListingExportCursor.Slice("3", true))), outputStream);
+
+        assertEquals(0, outputStream.size());
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    public void testReadCursorRejectsInvalidCursor() {
+        assertThrows(ListingsException.class, () -> listingExporter.readCursor("not a cursor"));
+        String withoutPointInTime = Base64.getUrlEncoder().encodeToString("{\"slices\":[{\"lastId\":\"1\",\"finished\":false}]}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(ListingsException.class, () -> listingExporter.readCursor(withoutPointInTime));
+    }
+
+    private List<JsonNode> lines(ByteArrayOutputStream outputStream) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SearchResponse<Map> searchResponse(String... ids) {
+        List<Hit<Map>> hits = new ArrayList<>();
+        for (String id : ids) {
+            hits.add(Hit.of(hit -> hit
+                    .index("listings")
+                    .id(id)
+                    .source(Map.of("id", id, "make", "audi"))
+                    .sort(FieldValue.of(id))));
+        }
+        return SearchResponse.of(response -> response
+                .took(1)
+                .timedOut(false)
+                .shards(shards -> shards.total(1).successful(1).failed(0))
+                .hits(hitsMetadata -> hitsMetadata.hits(hits)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.listings.listings.data.query.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.data.query.ListingCursor;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.util.ListingsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultListingCursorCodecTest {
+
+    private final DefaultListingCursorCodec listingCursorCodec = new DefaultListingCursorCodec(new ObjectMapper());
+
+    @Test
+    public void testEncodeAndDecode() {
+        ListingCursor listingCursor = new ListingCursor("pit", ListingField.MILEAGE, Sort.Direction.DESC, List.of(12000, "id1"));
+
+        String cursor = listingCursorCodec.encode(listingCursor);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(listingCursor, listingCursorCodec.decode(cursor));
+    }
+
+    @Test
+    public void testDecodeRejectsInvalidCursor() {
+        assertThrows(ListingsException.class, () -> listingCursorCodec.decode("not a cursor"));
+        assertThrows(ListingsException.class, () -> listingCursorCodec.decode(Base64.getUrlEncoder().encodeToString("{\"sort\":\"ID\"}".getBytes())));
+    }
+}
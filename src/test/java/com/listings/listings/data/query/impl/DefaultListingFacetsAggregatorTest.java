@@ -0,0 +1,78 @@
+package com.listings.listings.data.query.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.rest.dto.listing.ListingFacet;
+import com.listings.listings.rest.dto.listing.ListingFacetBucket;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultListingFacetsAggregatorTest {
+
+    private final DefaultListingFacetsAggregator listingFacetsAggregator = new DefaultListingFacetsAggregator(new DefaultListingSearchQueryBuilder(), new ListingsProperties());
+
+    @Test
+    public void testBuildCountsOnly() {
+        SearchListingDto search = SearchListingDto
+                .builder()
+                .searchListingItems(List.of(SearchListingItemDto.builder().field(ListingField.MAKE).value("audi").build()))
+                .build();
+
+        NativeQuery query = listingFacetsAggregator.build(search, EnumSet.of(ListingFacet.MODEL, ListingFacet.PRODUCTION_YEAR, ListingFacet.MILEAGE));
+
+        assertEquals(0, query.getMaxResults());
+        assertTrue(query.getRequestCache());
+        assertEquals("audi", query.getQuery().bool().filter().get(0).term().value().stringValue());
+
+        Map<String, Aggregation> aggregations = query.getAggregations();
+
+        assertEquals(3, aggregations.size());
+        assertEquals("model", aggregations.get("MODEL").terms().field());
+        assertEquals(20, aggregations.get("MODEL").terms().size());
+        assertEquals("productionYear", aggregations.get("PRODUCTION_YEAR").histogram().field());
+        assertEquals(1.0, aggregations.get("PRODUCTION_YEAR").histogram().interval());
+        assertEquals("mileage", aggregations.get("MILEAGE").range().field());
+        assertEquals(6, aggregations.get("MILEAGE").range().ranges().size());
+        assertEquals("0-25000", aggregations.get("MILEAGE").range().ranges().get(0).key());
+        assertEquals("200000-*", aggregations.get("MILEAGE").range().ranges().get(5).key());
+        assertNull(aggregations.get("MILEAGE").range().ranges().get(5).to());
+    }
+
+    @Test
+    public void testReadBuckets() {
+        Aggregate make = Aggregate.of(aggregate -> aggregate.sterms(terms -> terms
+                .sumOtherDocCount(0L)
+                .buckets(buckets -> buckets.array(List.of(StringTermsBucket.of(bucket -> bucket.key("audi").docCount(2L)))))));
+        Aggregate productionYear = Aggregate.of(aggregate -> aggregate.histogram(histogram -> histogram
+                .buckets(buckets -> buckets.array(List.of(HistogramBucket.of(bucket -> bucket.key(2015.0).docCount(1L)))))));
+        Aggregate mileage = Aggregate.of(aggregate -> aggregate.range(range -> range
+                .buckets(buckets -> buckets.array(List.of(RangeBucket.of(bucket -> bucket.key("0-25000").from(0.0).to(25000.0).docCount(3L)))))));
+        SearchHits<Listing> searchHits = new SearchHitsImpl<>(3, TotalHitsRelation.EQUAL_TO, 0f, null, null, List.of(),
+                new ElasticsearchAggregations(Map.of("MAKE", make, "PRODUCTION_YEAR", productionYear, "MILEAGE", mileage)), null);
+
+        Map<ListingFacet, List<ListingFacetBucket>> facets = listingFacetsAggregator.read(searchHits, EnumSet.of(ListingFacet.MAKE, ListingFacet.PRODUCTION_YEAR, ListingFacet.MILEAGE, ListingFacet.MODEL));
+
+        assertEquals(List.of(ListingFacetBucket.builder().key("audi").count(2L).build()), facets.get(ListingFacet.MAKE));
+        assertEquals(List.of(ListingFacetBucket.builder().key("2015").count(1L).build()), facets.get(ListingFacet.PRODUCTION_YEAR));
+        assertEquals(List.of(ListingFacetBucket.builder().key("0-25000").from(0L).to(25000L).count(3L).build()), facets.get(ListingFacet.MILEAGE));
+        assertEquals(List.of(), facets.get(ListingFacet.MODEL));
+    }
+}
@@ -0,0 +1,64 @@
+package com.listings.listings.data.query.impl;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.listings.listings.rest.dto.listing.ListingField;
+import com.listings.listings.rest.dto.listing.SearchListingDto;
+import com.listings.listings.rest.dto.listing.SearchListingItemDto;
+import com.listings.listings.rest.dto.listing.SearchOperator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultListingSearchQueryBuilderTest {
+
+    private final DefaultListingSearchQueryBuilder listingSearchQueryBuilder = new DefaultListingSearchQueryBuilder();
+
+    @Test
+    public void testBuildFiltersOnly() {
+        Query query = listingSearchQueryBuilder.build(search(
+                SearchListingItemDto.builder().field(ListingField.MAKE).value("audi").build(),
+                SearchListingItemDto.builder().field(ListingField.MILEAGE).operator(SearchOperator.RANGE).from("1000").to("5000").build()
+        ));
+
+        assertTrue(query.isBool());
+        assertTrue(query.bool().must().isEmpty());
+        assertTrue(query.bool().should().isEmpty());
+        assertEquals(2, query.bool().filter().size());
+        assertEquals("audi", query.bool().filter().get(0).term().value().stringValue());
+        assertEquals("mileage", query.bool().filter().get(1).range().field());
+        assertEquals("1000", query.bool().filter().get(1).range().gte().to(String.class));
+        assertEquals("5000", query.bool().filter().get(1).range().lte().to(String.class));
+    }
+
+    @Test
+    public void testBuildInPrefixAndExists() {
+        Query query = listingSearchQueryBuilder.build(search(
+                SearchListingItemDto.builder().field(ListingField.FUEL_TYPE).operator(SearchOperator.IN).values(List.of("DIESEL", "PETROL")).build(),
+                SearchListingItemDto.builder().field(ListingField.MODEL).operator(SearchOperator.PREFIX).value("A").build(),
+                SearchListingItemDto.builder().field(ListingField.CONTACT_EMAIL).operator(SearchOperator.EXISTS).build()
+        ));
+
+        List<Query> filters = query.bool().filter();
+
+        assertEquals("fuelType", filters.get(0).terms().field());
+        assertEquals(List.of("DIESEL", "PETROL"), filters.get(0).terms().terms().value().stream().map(FieldValue::stringValue).toList());
+        assertEquals("model", filters.get(1).prefix().field());
+        assertEquals("A", filters.get(1).prefix().value());
+        assertEquals("contactInfo.email", filters.get(2).exists().field());
+    }
+
+    @Test
+    public void testBuildEmptySearch() {
+        Query query = listingSearchQueryBuilder.build(search());
+
+        assertTrue(query.isBool());
+        assertTrue(query.bool().filter().isEmpty());
+    }
+
+    private SearchListingDto search(SearchListingItemDto... items) {
+        return SearchListingDto.builder().searchListingItems(List.of(items)).build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.listings.listings.data.refresh.impl;
+
+import com.listings.listings.cache.ListingCacheInvalidator;
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.refresh.RefreshStrategy;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingRefreshCoordinatorTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ListingCacheInvalidator listingCacheInvalidator;
+
+    private ListingsProperties listingsProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        listingsProperties = new ListingsProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testCoalescedRefresh() {
+        listingsProperties.getElasticsearch().getRefresh().setInterval(Duration.ofMillis(250));
+        DefaultListingRefreshCoordinator coordinator = coordinator(RefreshStrategy.COALESCED);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+
+        coordinator.scheduleRefreshes();
+        verify(taskScheduler, times(1)).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofMillis(250)));
+
+        assertEquals(RefreshPolicy.NONE, coordinator.getRefreshPolicy());
+
+        coordinator.refreshPendingWrites();
+        verify(indexOperations, times(0)).refresh();
+
+        coordinator.onWrite(3);
+        coordinator.onWrite(1);
+        coordinator.refreshPendingWrites();
+        coordinator.refreshPendingWrites();
+
+        verify(indexOperations, times(1)).refresh();
+        assertEquals(1, meterRegistry.counter("listings.elasticsearch.refreshes").count());
+        assertEquals(4, meterRegistry.counter("listings.elasticsearch.refresh.coalesced.writes").count());
+    }
+
+    @Test
+    public void testCoalescedRefreshFailureKeepsPendingWrites() {
+        DefaultListingRefreshCoordinator coordinator = coordinator(RefreshStrategy.COALESCED);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+        doThrow(new RuntimeException("Connection refused")).doNothing().when(indexOperations).refresh();
+
+        coordinator.onWrite(2);
+        coordinator.refreshPendingWrites();
+        coordinator.refreshPendingWrites();
+
+        verify(indexOperations, times(2)).refresh();
+        assertEquals(1, meterRegistry.counter("listings.elasticsearch.refreshes").count());
+        assertEquals(2, meterRegistry.counter("listings.elasticsearch.refresh.coalesced.writes").count());
+    }
+
+    @Test
+    public void testCoalescedRefreshInvalidatesChangesAgain() {
+        DefaultListingRefreshCoordinator coordinator = coordinator(RefreshStrategy.COALESCED);
+        when(elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(indexOperations);
+        doThrow(new RuntimeException("Connection refused")).doNothing().when(indexOperations).refresh();
+        List<ListingChange> changes = List.of(ListingChange.of(ListingEventMode.UPDATE, Listing.builder().id("1").make("audi").build()));
+
+        coordinator.onWrite(1);
+        coordinator.onChanged(changes);
+        coordinator.refreshPendingWrites();
+
+        verifyNoInteractions(listingCacheInvalidator);
+
+        coordinator.refreshPendingWrites();
+
+        InOrder inOrder = inOrder(indexOperations, listingCacheInvalidator);
+        inOrder.verify(indexOperations, times(2)).refresh();
+        inOrder.verify(listingCacheInvalidator, times(1)).invalidate(changes);
+
+        coordinator.onChanged(changes);
+        coordinator.refreshPendingWrites();
+
+        verify(indexOperations, times(2)).refresh();
+        verify(listingCacheInvalidator, times(2)).invalidate(changes);
+    }
+
+    @Test
+    public void testPerWriteStrategies() {
+        DefaultListingRefreshCoordinator none = coordinator(RefreshStrategy.NONE);
+        none.scheduleRefreshes();
+        none.onWrite(5);
+        none.onChanged(List.of(ListingChange.of(ListingEventMode.DELETE, Listing.builder().id("1").build())));
+        none.refreshPendingWrites();
+        assertEquals(RefreshPolicy.NONE, none.getRefreshPolicy());
+
+        assertEquals(RefreshPolicy.WAIT_UNTIL, coordinator(RefreshStrategy.WAIT_UNTIL).getRefreshPolicy());
+        assertEquals(RefreshPolicy.IMMEDIATE, coordinator(RefreshStrategy.IMMEDIATE).getRefreshPolicy());
+
+        verifyNoInteractions(taskScheduler);
+        verifyNoInteractions(elasticsearchOperations);
+        verifyNoInteractions(listingCacheInvalidator);
+    }
+
+    private DefaultListingRefreshCoordinator coordinator(RefreshStrategy strategy) {
+        listingsProperties.getElasticsearch().getRefresh().setStrategy(strategy);
+        return new DefaultListingRefreshCoordinator(elasticsearchOperations, taskScheduler, listingCacheInvalidator, listingsProperties, meterRegistry);
+    }
+}
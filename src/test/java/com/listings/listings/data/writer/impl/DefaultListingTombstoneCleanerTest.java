@@ -0,0 +1,78 @@
+package com.listings.listings.data.writer.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryRequest;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.util.ElasticSearchConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingTombstoneCleanerTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<DeleteByQueryRequest> deleteByQueryRequestArgumentCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DefaultListingTombstoneCleaner defaultListingTombstoneCleaner;
+
+    @BeforeEach
+    public void setUp() {
+        ListingsProperties listingsProperties = new ListingsProperties();
+        listingsProperties.getElasticsearch().getTombstones().setRetention(Duration.ofDays(1));
+        meterRegistry = new SimpleMeterRegistry();
+        defaultListingTombstoneCleaner = new DefaultListingTombstoneCleaner(elasticsearchClient, taskScheduler, listingsProperties, meterRegistry);
+    }
+
+    @Test
+    public void testCleanUpRemovesTombstonesOlderThanRetention() throws IOException {
+        DeleteByQueryResponse deleteByQueryResponse = mock(DeleteByQueryResponse.class);
+        when(deleteByQueryResponse.deleted()).thenReturn(3L);
+        when(elasticsearchClient.deleteByQuery(any(DeleteByQueryRequest.class))).thenReturn(deleteByQueryResponse);
+        long before = Instant.now().minus(Duration.ofDays(1)).toEpochMilli();
+
+        long removed = defaultListingTombstoneCleaner.cleanUp();
+
+        assertEquals(3L, removed);
+        assertEquals(3.0, meterRegistry.counter("listings.tombstones.removed").count());
+        verify(elasticsearchClient, times(1)).deleteByQuery(deleteByQueryRequestArgumentCaptor.capture());
+        DeleteByQueryRequest deleteByQueryRequest = deleteByQueryRequestArgumentCaptor.getValue();
+        assertEquals(List.of(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME), deleteByQueryRequest.index());
+        assertEquals(Conflicts.Proceed, deleteByQueryRequest.conflicts());
+        assertEquals("deletedAt", deleteByQueryRequest.query().range().field());
+        long deletedBefore = deleteByQueryRequest.query().range().lt().to(Long.class);
+        assertTrue(deletedBefore >= before && deletedBefore <= Instant.now().minus(Duration.ofDays(1)).toEpochMilli());
+    }
+
+    @Test
+    public void testCleanUpFailure() throws IOException {
+        when(elasticsearchClient.deleteByQuery(any(DeleteByQueryRequest.class))).thenThrow(new IOException("connection refused"));
+
+        assertEquals(0L, defaultListingTombstoneCleaner.cleanUp());
+        assertEquals(0.0, meterRegistry.counter("listings.tombstones.removed").count());
+    }
+}
@@ -0,0 +1,156 @@
+package com.listings.listings.data.writer.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.writer.CompactedListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultListingWriteCompactorTest {
+
+    private ListingsProperties listingsProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DefaultListingWriteCompactor defaultListingWriteCompactor;
+
+    @BeforeEach
+    public void setUp() {
+        listingsProperties = new ListingsProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        defaultListingWriteCompactor = new DefaultListingWriteCompactor(listingsProperties, meterRegistry);
+    }
+
+    @Test
+    public void testCompactCreateAndUpdatesIntoCreate() {
+        ListingWriteOperation create = operation(ListingEventMode.CREATE, listing("1", "audi", "a4", 1L));
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", null, "a6", 2L));
+        ListingWriteOperation lastUpdate = operation(ListingEventMode.UPDATE, listing("1", "bmw", null, 3L));
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(create, update, lastUpdate));
+
+        assertEquals(1, compacted.size());
+        assertEquals(0, compacted.get(0).firstIndex());
+        assertEquals(3, compacted.get(0).events());
+        ListingWriteOperation operation = compacted.get(0).operation();
+        assertEquals(ListingEventMode.CREATE, operation.mode());
+        assertEquals("bmw", operation.listing().getMake());
+        assertEquals("a6", operation.listing().getModel());
+        assertEquals(3L, operation.listing().getEventVersion());
+        assertNotNull(operation.listing().getDateUpdated());
+        assertEquals("a4", create.listing().getModel());
+        assertEquals(3.0, meterRegistry.counter("listings.kafka.batch.compaction.events").count());
+        assertEquals(2.0, meterRegistry.counter("listings.kafka.batch.compaction.saved.writes").count());
+    }
+
+    @Test
+    public void testCompactUpdatesIntoLastState() {
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", "audi", "a4", null));
+        ListingWriteOperation lastUpdate = operation(ListingEventMode.UPDATE, listing("1", null, "a6", null));
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(update, lastUpdate));
+
+        assertEquals(1, compacted.size());
+        assertEquals(operation(ListingEventMode.UPDATE, listing("1", "audi", "a6", null)), compacted.get(0).operation());
+    }
+
+    @Test
+    public void testCompactKeepsReplayedCreateOutOfOrder() {
+        ListingWriteOperation create = new ListingWriteOperation(ListingEventMode.CREATE, listing("1", "audi", "a4", 1L), true);
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", null, "a6", 2L));
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(create, update));
+
+        assertEquals(1, compacted.size());
+        assertEquals(ListingEventMode.CREATE, compacted.get(0).operation().mode());
+        assertTrue(compacted.get(0).operation().outOfOrder());
+    }
+
+    @Test
+    public void testCompactDeleteWins() {
+        ListingWriteOperation create = operation(ListingEventMode.CREATE, listing("1", "audi", "a4", 1L));
+        ListingWriteOperation delete = operation(ListingEventMode.DELETE, Listing.builder().id("1").eventVersion(2L).build());
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", "bmw", "m3", 3L));
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(create, delete, update));
+
+        assertEquals(1, compacted.size());
+        assertEquals(delete, compacted.get(0).operation());
+    }
+
+    @Test
+    public void testCompactKeepsDeleteOfCreatedListing() {
+        ListingWriteOperation create = operation(ListingEventMode.CREATE, listing("1", "audi", "a4", 1L));
+        ListingWriteOperation delete = operation(ListingEventMode.DELETE, Listing.builder().id("1").eventVersion(2L).build());
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(create, delete));
+
+        assertEquals(1, compacted.size());
+        assertEquals(delete, compacted.get(0).operation());
+        assertEquals(0, compacted.get(0).firstIndex());
+        assertEquals(2, compacted.get(0).events());
+    }
+
+    @Test
+    public void testCompactDropsStaleOperations() {
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", "audi", "a4", 5L));
+        ListingWriteOperation stale = operation(ListingEventMode.DELETE, Listing.builder().id("1").eventVersion(4L).build());
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(update, stale));
+
+        assertEquals(1, compacted.size());
+        assertEquals(update, compacted.get(0).operation());
+    }
+
+    @Test
+    public void testCompactKeepsOtherListingsAndOperationsWithoutId() {
+        ListingWriteOperation first = operation(ListingEventMode.CREATE, listing(null, "audi", "a4", null));
+        ListingWriteOperation second = operation(ListingEventMode.UPDATE, listing("2", "audi", "a4", null));
+        ListingWriteOperation third = operation(ListingEventMode.CREATE, listing(null, "bmw", "m3", null));
+        ListingWriteOperation fourth = operation(ListingEventMode.DELETE, Listing.builder().id("2").build());
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(first, second, third, fourth));
+
+        assertEquals(3, compacted.size());
+        assertEquals(first, compacted.get(0).operation());
+        assertEquals(fourth, compacted.get(1).operation());
+        assertEquals(1, compacted.get(1).firstIndex());
+        assertEquals(third, compacted.get(2).operation());
+        assertEquals(2, compacted.get(2).firstIndex());
+    }
+
+    @Test
+    public void testCompactDisabled() {
+        listingsProperties.getKafka().getBatch().setCompaction(false);
+        ListingWriteOperation update = operation(ListingEventMode.UPDATE, listing("1", "audi", "a4", null));
+        ListingWriteOperation delete = operation(ListingEventMode.DELETE, Listing.builder().id("1").build());
+
+        List<CompactedListingWriteOperation> compacted = defaultListingWriteCompactor.compact(List.of(update, delete));
+
+        assertEquals(2, compacted.size());
+        assertEquals(update, compacted.get(0).operation());
+        assertEquals(delete, compacted.get(1).operation());
+        assertEquals(0.0, meterRegistry.counter("listings.kafka.batch.compaction.saved.writes").count());
+    }
+
+    private ListingWriteOperation operation(ListingEventMode mode, Listing listing) {
+        return new ListingWriteOperation(mode, listing);
+    }
+
+    private Listing listing(String id, String make, String model, Long version) {
+        return Listing
+                .builder()
+                .id(id)
+                .make(make)
+                .model(model)
+                .eventVersion(version)
+                .build();
+    }
+}
@@ -0,0 +1,397 @@
+package com.listings.listings.data.writer.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.GetRequest;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.UpdateRequest;
+import co.elastic.clients.elasticsearch.core.UpdateResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import com.listings.listings.data.domain.ContactInfo;
+import com.listings.listings.data.domain.FuelType;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.domain.TransmissionType;
+import com.listings.listings.data.refresh.ListingRefreshCoordinator;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.util.ElasticSearchConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingWriterTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ListingRefreshCoordinator listingRefreshCoordinator;
+
+    @Captor
+    private ArgumentCaptor<BulkRequest> bulkRequestArgumentCaptor;
+
+    @Captor
+    private ArgumentCaptor<UpdateRequest<?, ?>> updateRequestArgumentCaptor;
+
+    private DefaultListingWriter defaultListingWriter;
+
+    @BeforeEach
+    public void setUp() {
+        MappingElasticsearchConverter elasticsearchConverter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        elasticsearchConverter.afterPropertiesSet();
+        defaultListingWriter = new DefaultListingWriter(elasticsearchClient, elasticsearchConverter, listingRefreshCoordinator);
+        lenient().when(listingRefreshCoordinator.getRefreshPolicy()).thenReturn(RefreshPolicy.NONE);
+    }
+
+    @Test
+    public void testWriteSendsSingleBulkRequest() throws IOException {
+        List<ListingWriteOperation> operations = List.of(
+                new ListingWriteOperation(ListingEventMode.CREATE, versionedListing("1", 5L)),
+                new ListingWriteOperation(ListingEventMode.UPDATE, listing("2")),
+                new ListingWriteOperation(ListingEventMode.DELETE, Listing.builder().id("3").build())
+        );
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse(
+                item(OperationType.Update, "1", 201, "created", null),
+                item(OperationType.Update, "2", 200, "updated", null),
+                item(OperationType.Update, "3", 200, "deleted", null)
+        ));
+
+        List<ListingWriteResult> results = defaultListingWriter.write(operations);
+
+        verify(elasticsearchClient, times(1)).bulk(bulkRequestArgumentCaptor.capture());
+        BulkRequest bulkRequest = bulkRequestArgumentCaptor.getValue();
+        assertEquals(ElasticSearchConstants.LISTINGS_INDEX_NAME, bulkRequest.index());
+        assertEquals(Refresh.False, bulkRequest.refresh());
+        assertEquals(3, bulkRequest.operations().size());
+
+        BulkOperation createOperation = bulkRequest.operations().get(0);
+        assertTrue(createOperation.isUpdate());
+        assertEquals("1", createOperation.update().id());
+        assertEquals(ElasticSearchConstants.RETRY_ON_CONFLICT, createOperation.update().retryOnConflict());
+        assertTrue(createOperation.update().action().scriptedUpsert());
+        assertNotNull(createOperation.update().action().upsert());
+        Script createScript = createOperation.update().action().script();
+        assertEquals(ElasticSearchConstants.CREATE_LISTING_SCRIPT, createScript.inline().source());
+        assertEquals(5L, createScript.inline().params().get("version").to(Long.class));
+        Map<?, ?> createdDocument = createScript.inline().params().get("doc").to(Map.class);
+        assertEquals("make", createdDocument.get("make"));
+        assertNotNull(createdDocument.get("dateCreated"));
+
+        BulkOperation updateOperation = bulkRequest.operations().get(1);
+        assertTrue(updateOperation.isUpdate());
+        assertEquals("2", updateOperation.update().id());
+        assertNull(updateOperation.update().action().doc());
+        assertNull(updateOperation.update().action().upsert());
+        Script updateScript = updateOperation.update().action().script();
+        assertEquals(ElasticSearchConstants.UPDATE_LISTING_SCRIPT, updateScript.inline().source());
+        Map<?, ?> updatedDocument = updateScript.inline().params().get("doc").to(Map.class);
+        assertEquals("make", updatedDocument.get("make"));
+        assertFalse(updatedDocument.containsKey("dateUpdated"));
+        assertFalse(updatedDocument.containsKey("dateCreated"));
+
+        BulkOperation deleteOperation = bulkRequest.operations().get(2);
+        assertTrue(deleteOperation.isUpdate());
+        assertEquals("3", deleteOperation.update().id());
+        Script deleteScript = deleteOperation.update().action().script();
+        assertEquals(ElasticSearchConstants.DELETE_LISTING_SCRIPT, deleteScript.inline().source());
+        assertFalse(deleteScript.inline().params().containsKey("version"));
+
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(ListingWriteStatus.SUCCESS, result.status()));
+        verify(listingRefreshCoordinator, times(1)).onWrite(3);
+        verify(elasticsearchClient, times(0)).mget(any(MgetRequest.class), eq(Map.class));
+    }
+
+    @Test
+    public void testWriteClassifiesItemFailures() throws IOException {
+        List<ListingWriteOperation> operations = List.of(
+                new ListingWriteOperation(ListingEventMode.UPDATE, listing("1")),
+                new ListingWriteOperation(ListingEventMode.CREATE, listing("2")),
+                new ListingWriteOperation(ListingEventMode.CREATE, listing("3")),
+                new ListingWriteOperation(ListingEventMode.DELETE, Listing.builder().id("4").build()),
+                new ListingWriteOperation(ListingEventMode.UPDATE, versionedListing("5", 1L))
+        );
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse(
+                item(OperationType.Update, "1", 404, null, "document_missing_exception"),
+                item(OperationType.Update, "2", 429, null, "es_rejected_execution_exception"),
+                item(OperationType.Update, "3", 400, null, "mapper_parsing_exception"),
+                item(OperationType.Update, "4", 503, null, "unavailable_shards_exception"),
+                item(OperationType.Update, "5", 200, "noop", null)
+        ));
+
+        List<ListingWriteResult> results = defaultListingWriter.write(operations);
+
+        assertEquals(ListingWriteStatus.NOT_FOUND, results.get(0).status());
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, results.get(1).status());
+        assertEquals(ListingWriteStatus.PERMANENT_FAILURE, results.get(2).status());
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, results.get(3).status());
+        assertEquals(ListingWriteStatus.STALE, results.get(4).status());
+        assertTrue(results.get(2).message().contains("mapper_parsing_exception"));
+        assertTrue(results.get(1).rejected());
+        assertFalse(results.get(3).rejected());
+        verify(listingRefreshCoordinator, times(1)).onWrite(0);
+    }
+
+    @Test
+    public void testWriteFailsAllOnRequestFailure() throws IOException {
+        List<ListingWriteOperation> operations = List.of(
+                new ListingWriteOperation(ListingEventMode.CREATE, listing("1")),
+                new ListingWriteOperation(ListingEventMode.DELETE, Listing.builder().id("2").build())
+        );
+        when(elasticsearchClient.bulk(any(BulkRequest.class)))
+                .thenThrow(new IOException("Connection refused"))
+                .thenThrow(new ElasticsearchException("bulk", ErrorResponse.of(error -> error
+                        .status(429)
+                        .error(ErrorCause.of(cause -> cause.type("es_rejected_execution_exception").reason("rejected"))))));
+
+        defaultListingWriter.write(operations).forEach(result -> {
+            assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, result.status());
+            assertFalse(result.rejected());
+        });
+        defaultListingWriter.write(operations).forEach(result -> {
+            assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, result.status());
+            assertTrue(result.rejected());
+        });
+    }
+
+    @Test
+    public void testWriteDropsCreateReplayedAfterDelete() throws IOException {
+        Map<String, Long> tombstones = new HashMap<>();
+        when(elasticsearchClient.mget(any(MgetRequest.class), eq(Map.class))).thenAnswer(invocation -> {
+            MgetRequest mgetRequest = invocation.getArgument(0);
+            assertEquals(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME, mgetRequest.index());
+            Map<String, Map<String, Object>> documents = new HashMap<>();
+            mgetRequest.ids().forEach(id -> documents.put(id, tombstones.containsKey(id) ? Map.of("eventVersion", tombstones.get(id)) : Map.of()));
+            return mgetResponse(documents);
+        });
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            BulkRequest bulkRequest = invocation.getArgument(0);
+            List<BulkResponseItem> items = new ArrayList<>();
+            for (BulkOperation operation : bulkRequest.operations()) {
+                if (ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME.equals(operation.update().index())) {
+                    assertEquals(ElasticSearchConstants.DELETE_TOMBSTONE_SCRIPT, operation.update().action().script().inline().source());
+                    assertTrue(operation.update().action().scriptedUpsert());
+                    tombstones.put(operation.update().id(), operation.update().action().script().inline().params().get("version").to(Long.class));
+                }
+                items.add(item(OperationType.Update, operation.update().id(), 200, "updated", null));
+            }
+            return bulkResponse(items.toArray(BulkResponseItem[]::new));
+        });
+
+        assertEquals(ListingWriteStatus.SUCCESS, defaultListingWriter.write(List.of(new ListingWriteOperation(ListingEventMode.CREATE, versionedListing("1", 1L)))).get(0).status());
+        assertEquals(ListingWriteStatus.SUCCESS, defaultListingWriter.write(List.of(new ListingWriteOperation(ListingEventMode.DELETE, versionedListing("1", 2L)))).get(0).status());
+        assertEquals(Map.of("1", 2L), tombstones);
+
+        List<ListingWriteResult> results = defaultListingWriter.write(List.of(new ListingWriteOperation(ListingEventMode.CREATE, versionedListing("1", 1L), true)));
+
+        assertEquals(ListingWriteStatus.STALE, results.get(0).status());
+        assertEquals("1", results.get(0).listingId());
+        verify(elasticsearchClient, times(2)).bulk(bulkRequestArgumentCaptor.capture());
+        BulkRequest deleteRequest = bulkRequestArgumentCaptor.getAllValues().get(1);
+        assertEquals(2, deleteRequest.operations().size());
+        assertEquals(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME, deleteRequest.operations().get(0).update().index());
+        assertNull(deleteRequest.operations().get(1).update().index());
+        verify(listingRefreshCoordinator, times(2)).onWrite(1);
+    }
+
+    @Test
+    public void testWriteDropsSingleCreateReplayedAfterDelete() throws IOException {
+        when(elasticsearchClient.mget(any(MgetRequest.class), eq(Map.class)))
+                .thenReturn(mgetResponse(Map.of("1", Map.of("eventVersion", 2L))));
+
+        ListingWriteResult result = defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.CREATE, versionedListing("1", 1L), true));
+
+        assertEquals(ListingWriteStatus.STALE, result.status());
+        verify(elasticsearchClient, times(0)).update(any(UpdateRequest.class), eq((Type) Map.class));
+        verify(listingRefreshCoordinator, times(0)).onWrite(anyInt());
+    }
+
+    @Test
+    public void testWriteKeepsTombstoneOfSingleDelete() throws IOException {
+        when(elasticsearchClient.update(any(UpdateRequest.class), eq((Type) Map.class))).thenReturn(updateResponse("1", Result.Updated));
+
+        ListingWriteResult result = defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, versionedListing("1", 2L)));
+
+        verify(elasticsearchClient, times(2)).update(updateRequestArgumentCaptor.capture(), eq((Type) Map.class));
+        UpdateRequest<?, ?> tombstoneRequest = updateRequestArgumentCaptor.getAllValues().get(0);
+        assertEquals(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME, tombstoneRequest.index());
+        assertEquals("1", tombstoneRequest.id());
+        assertTrue(tombstoneRequest.scriptedUpsert());
+        assertEquals(ElasticSearchConstants.DELETE_TOMBSTONE_SCRIPT, tombstoneRequest.script().inline().source());
+        assertEquals(2L, tombstoneRequest.script().inline().params().get("version").to(Long.class));
+        assertEquals(ElasticSearchConstants.LISTINGS_INDEX_NAME, updateRequestArgumentCaptor.getAllValues().get(1).index());
+        assertEquals(ListingWriteStatus.SUCCESS, result.status());
+        verify(elasticsearchClient, times(0)).mget(any(MgetRequest.class), eq(Map.class));
+    }
+
+    @Test
+    public void testWriteNoOperations() throws IOException {
+        assertTrue(defaultListingWriter.write(List.of()).isEmpty());
+        verify(elasticsearchClient, times(0)).bulk(any(BulkRequest.class));
+    }
+
+    @Test
+    public void testWriteSendsSingleUpdateRequest() throws IOException {
+        when(elasticsearchClient.update(any(UpdateRequest.class), eq((Type) Map.class)))
+                .thenReturn(updateResponse("1", Result.Updated))
+                .thenReturn(updateResponse("1", Result.NoOp));
+
+        ListingWriteResult result = defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, versionedListing("1", 7L)));
+
+        verify(elasticsearchClient, times(1)).update(updateRequestArgumentCaptor.capture(), eq((Type) Map.class));
+        UpdateRequest<?, ?> updateRequest = updateRequestArgumentCaptor.getValue();
+        assertEquals(ElasticSearchConstants.LISTINGS_INDEX_NAME, updateRequest.index());
+        assertEquals("1", updateRequest.id());
+        assertEquals(Refresh.False, updateRequest.refresh());
+        assertEquals(ElasticSearchConstants.RETRY_ON_CONFLICT, updateRequest.retryOnConflict());
+        assertNull(updateRequest.doc());
+        assertNull(updateRequest.upsert());
+        assertEquals(ElasticSearchConstants.UPDATE_LISTING_SCRIPT, updateRequest.script().inline().source());
+        assertEquals(7L, updateRequest.script().inline().params().get("version").to(Long.class));
+        assertNotNull(updateRequest.script().inline().params().get("zone"));
+
+        assertEquals(ListingWriteStatus.SUCCESS, result.status());
+        verify(listingRefreshCoordinator, times(1)).onWrite(1);
+
+        result = defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, versionedListing("1", 6L)));
+
+        assertEquals(ListingWriteStatus.STALE, result.status());
+        verify(listingRefreshCoordinator, times(1)).onWrite(1);
+        verify(elasticsearchClient, times(0)).get(any(GetRequest.class), any());
+    }
+
+    @Test
+    public void testWriteUpsertsCreatedListing() throws IOException {
+        when(elasticsearchClient.update(any(UpdateRequest.class), eq((Type) Map.class))).thenReturn(updateResponse("generated", Result.Created));
+        Listing listing = listing(null);
+
+        ListingWriteResult result = defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.CREATE, listing));
+
+        verify(elasticsearchClient, times(1)).update(updateRequestArgumentCaptor.capture(), eq((Type) Map.class));
+        UpdateRequest<?, ?> updateRequest = updateRequestArgumentCaptor.getValue();
+        assertNotNull(listing.getId());
+        assertEquals(listing.getId(), updateRequest.id());
+        assertEquals(listing.getId(), result.listingId());
+        assertTrue(updateRequest.scriptedUpsert());
+        assertNotNull(updateRequest.upsert());
+        assertEquals(ElasticSearchConstants.CREATE_LISTING_SCRIPT, updateRequest.script().inline().source());
+        assertNotNull(listing.getDateCreated());
+        assertEquals(ListingWriteStatus.SUCCESS, result.status());
+    }
+
+    @Test
+    public void testWriteClassifiesUpdateFailures() throws IOException {
+        when(elasticsearchClient.update(any(UpdateRequest.class), eq((Type) Map.class)))
+                .thenThrow(new ElasticsearchException("update", ErrorResponse.of(error -> error
+                        .status(404)
+                        .error(ErrorCause.of(cause -> cause.type("document_missing_exception").reason("missing"))))))
+                .thenThrow(new IOException("Connection refused"));
+
+        assertEquals(ListingWriteStatus.NOT_FOUND, defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing("1"))).status());
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, defaultListingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing("1"))).status());
+        verify(listingRefreshCoordinator, times(0)).onWrite(anyInt());
+    }
+
+    private UpdateResponse<Map> updateResponse(String id, Result result) {
+        return UpdateResponse.of(response -> response
+                .index(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                .id(id)
+                .version(2)
+                .seqNo(1)
+                .primaryTerm(1)
+                .result(result)
+                .shards(shards -> shards.total(1).successful(1).failed(0)));
+    }
+
+    private MgetResponse mgetResponse(Map<String, Map<String, Object>> documents) {
+        return MgetResponse.<Map>of(response -> response
+                .docs(documents
+                        .entrySet()
+                        .stream()
+                        .map(document -> MultiGetResponseItem.<Map>of(item -> item
+                                .result(result -> result
+                                        .index(ElasticSearchConstants.LISTING_TOMBSTONES_INDEX_NAME)
+                                        .id(document.getKey())
+                                        .found(!document.getValue().isEmpty())
+                                        .source(document.getValue().isEmpty() ? null : document.getValue()))))
+                        .toList()));
+    }
+
+    private BulkResponse bulkResponse(BulkResponseItem... items) {
+        return BulkResponse.of(response -> response
+                .took(1)
+                .errors(false)
+                .items(List.of(items)));
+    }
+
+    private BulkResponseItem item(OperationType operationType, String id, int status, String result, String errorType) {
+        return BulkResponseItem.of(item -> {
+            item.operationType(operationType)
+                    .index(ElasticSearchConstants.LISTINGS_INDEX_NAME)
+                    .id(id)
+                    .result(result)
+                    .status(status);
+            if (errorType != null) {
+                item.error(error -> error.type(errorType).reason(errorType));
+            }
+            return item;
+        });
+    }
+
+    private Listing versionedListing(String id, Long eventVersion) {
+        Listing listing = listing(id);
+        listing.setEventVersion(eventVersion);
+        return listing;
+    }
+
+    private Listing listing(String id) {
+        return Listing
+                .builder()
+                .id(id)
+                .make("make")
+                .model("model")
+                .productionYear(2000)
+                .mileage(2000L)
+                .transmissionType(TransmissionType.AUTOMATIC)
+                .fuelType(FuelType.DIESEL)
+                .contactInfo(ContactInfo
+                        .builder()
+                        .firstName("firstName")
+                        .lastName("lastName")
+                        .email("email")
+                        .phoneNumber("phoneNumber")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.listings.listings.data.writer.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.data.writer.ListingWriter;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KeyOrderedListingWriteExecutorTest {
+
+    @Mock
+    private ListingWriter listingWriter;
+
+    private KeyOrderedListingWriteExecutor keyOrderedListingWriteExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        keyOrderedListingWriteExecutor = new KeyOrderedListingWriteExecutor(listingWriter, new ListingsProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        keyOrderedListingWriteExecutor.shutdown();
+    }
+
+    @Test
+    public void testExecuteAppliesOperationsOfListingInOrder() {
+        ListingWriteOperation first = operation(ListingEventMode.CREATE, "1");
+        ListingWriteOperation second = operation(ListingEventMode.UPDATE, "1");
+        ListingWriteOperation third = operation(ListingEventMode.DELETE, "1");
+        when(listingWriter.write(any(ListingWriteOperation.class)))
+                .thenAnswer(invocation -> success(invocation.getArgument(0)));
+
+        List<ListingWriteResult> results = keyOrderedListingWriteExecutor.execute(List.of(first, second, third));
+
+        InOrder inOrder = inOrder(listingWriter);
+        inOrder.verify(listingWriter).write(first);
+        inOrder.verify(listingWriter).write(second);
+        inOrder.verify(listingWriter).write(third);
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(ListingWriteStatus.SUCCESS, result.status()));
+    }
+
+    @Test
+    public void testExecuteAppliesDifferentListingsInParallel() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(listingWriter.write(any(ListingWriteOperation.class))).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return success(invocation.getArgument(0));
+        });
+
+        List<ListingWriteResult> results = keyOrderedListingWriteExecutor.execute(List.of(
+                operation(ListingEventMode.UPDATE, "1"),
+                operation(ListingEventMode.UPDATE, "2")
+        ));
+
+        assertEquals(ListingWriteStatus.SUCCESS, results.get(0).status());
+        assertEquals(ListingWriteStatus.SUCCESS, results.get(1).status());
+    }
+
+    @Test
+    public void testExecuteSkipsOperationsOfListingAfterRetryableFailure() {
+        ListingWriteOperation failed = operation(ListingEventMode.UPDATE, "1");
+        ListingWriteOperation other = operation(ListingEventMode.UPDATE, "2");
+        ListingWriteOperation skipped = operation(ListingEventMode.DELETE, "1");
+        when(listingWriter.write(failed)).thenReturn(new ListingWriteResult("1", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception"));
+        when(listingWriter.write(other)).thenThrow(new IllegalStateException("unexpected"));
+
+        List<ListingWriteResult> results = keyOrderedListingWriteExecutor.execute(List.of(failed, other, skipped));
+
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, results.get(0).status());
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, results.get(1).status());
+        assertEquals(ListingWriteStatus.RETRYABLE_FAILURE, results.get(2).status());
+        verify(listingWriter, times(0)).write(skipped);
+    }
+
+    @Test
+    public void testExecuteNoOperations() {
+        assertTrue(keyOrderedListingWriteExecutor.execute(List.of()).isEmpty());
+        verifyNoInteractions(listingWriter);
+    }
+
+    private ListingWriteOperation operation(ListingEventMode mode, String id) {
+        return new ListingWriteOperation(mode, Listing.builder().id(id).make(mode.name()).build());
+    }
+
+    private ListingWriteResult success(ListingWriteOperation operation) {
+        return new ListingWriteResult(operation.listing().getId(), ListingWriteStatus.SUCCESS, null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.listings.listings.kafka.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.listings.listings.data.domain.FuelType;
+import com.listings.listings.data.domain.TransmissionType;
+import com.listings.listings.kafka.codec.impl.JsonListingEventCodec;
+import com.listings.listings.kafka.codec.impl.SmileListingEventCodec;
+import com.listings.listings.kafka.domain.ListingEvent;
+import com.listings.listings.kafka.domain.ListingEventContactInfo;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encoded size, the encode and decode time and the allocation rate of a listing event for the
+ * String JSON encoding used before the codecs, the ObjectMapper used per call and the available codecs.
+ * Run the main method after "mvn test-compile".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingEventCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private ListingEventCodec jsonCodec;
+
+    private ListingEventCodec smileCodec;
+
+    private ListingEvent listingEvent;
+
+    private String jsonString;
+
+    private byte[] jsonValue;
+
+    private byte[] smileValue;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+        jsonCodec = new JsonListingEventCodec(objectMapper);
+        smileCodec = new SmileListingEventCodec(objectMapper);
+        listingEvent = listingEvent();
+        jsonString = objectMapper.writeValueAsString(listingEvent);
+        jsonValue = jsonCodec.encode(listingEvent);
+        smileValue = smileCodec.encode(listingEvent);
+    }
+
+    @Benchmark
+    public byte[] encodeJsonString() throws IOException {
+        return objectMapper.writeValueAsString(listingEvent).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ListingEvent decodeJsonString() throws IOException {
+        return objectMapper.readValue(new String(jsonValue, StandardCharsets.UTF_8), ListingEvent.class);
+    }
+
+    @Benchmark
+    public byte[] encodeJsonMapper() throws IOException {
+        return objectMapper.writeValueAsBytes(listingEvent);
+    }
+
+    @Benchmark
+    public ListingEvent decodeJsonMapper() throws IOException {
+        return objectMapper.readValue(jsonValue, ListingEvent.class);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonCodec.encode(listingEvent);
+    }
+
+    @Benchmark
+    public ListingEvent decodeJson() throws IOException {
+        return jsonCodec.decode(jsonValue);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileCodec.encode(listingEvent);
+    }
+
+    @Benchmark
+    public ListingEvent decodeSmile() throws IOException {
+        return smileCodec.decode(smileValue);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        ListingEventCodecBenchmark benchmark = new ListingEventCodecBenchmark();
+        benchmark.setUp();
+        System.out.printf("Encoded size: JSON [%s] bytes, Smile [%s] bytes%n", benchmark.jsonString.getBytes(StandardCharsets.UTF_8).length, benchmark.smileValue.length);
+
+        Options options = new OptionsBuilder()
+                .include(ListingEventCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    private static ListingEvent listingEvent() {
+        return ListingEvent
+                .builder()
+                .id("7f2c3b9e-8d4a-4f6b-9a1e-2c5d8e7f9a0b")
+                .make("volkswagen")
+                .model("golf")
+                .productionYear(2018)
+                .mileage(125000L)
+                .transmissionType(TransmissionType.AUTOMATIC)
+                .fuelType(FuelType.DIESEL)
+                .contactInfo(ListingEventContactInfo
+                        .builder()
+                        .firstName("firstName")
+                        .lastName("lastName")
+                        .email("email@example.com")
+                        .phoneNumber("+385911234567")
+                        .build())
+                .mode(ListingEventMode.UPDATE)
+                .eventId("0b6e2f4c-1d3a-4e5b-8c7d-9f0a1b2c3d4e")
+                .version(1718000000000000L)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.listings.listings.kafka.codec.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultListingEventCodecResolverTest {
+
+    private JsonListingEventCodec jsonListingEventCodec;
+
+    private SmileListingEventCodec smileListingEventCodec;
+
+    private ListingsProperties listingsProperties;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonListingEventCodec = new JsonListingEventCodec(objectMapper);
+        smileListingEventCodec = new SmileListingEventCodec(objectMapper);
+        listingsProperties = new ListingsProperties();
+    }
+
+    @Test
+    public void testGetCodec() {
+        DefaultListingEventCodecResolver resolver = new DefaultListingEventCodecResolver(List.of(jsonListingEventCodec, smileListingEventCodec), listingsProperties);
+
+        assertSame(jsonListingEventCodec, resolver.getProducerCodec());
+        assertSame(smileListingEventCodec, resolver.getCodec(KafkaConstants.SMILE_CONTENT_TYPE));
+        assertSame(jsonListingEventCodec, resolver.getCodec(KafkaConstants.JSON_CONTENT_TYPE));
+        assertSame(jsonListingEventCodec, resolver.getCodec(null));
+        assertNull(resolver.getCodec("application/unknown"));
+    }
+
+    @Test
+    public void testSmileProducerContentType() {
+        listingsProperties.getKafka().getProducer().setContentType(KafkaConstants.SMILE_CONTENT_TYPE);
+
+        DefaultListingEventCodecResolver resolver = new DefaultListingEventCodecResolver(List.of(jsonListingEventCodec, smileListingEventCodec), listingsProperties);
+
+        assertSame(smileListingEventCodec, resolver.getProducerCodec());
+    }
+
+    @Test
+    public void testUnknownProducerContentType() {
+        listingsProperties.getKafka().getProducer().setContentType("application/unknown");
+
+        assertThrows(ListingsException.class, () -> new DefaultListingEventCodecResolver(List.of(jsonListingEventCodec, smileListingEventCodec), listingsProperties));
+    }
+}
@@ -0,0 +1,74 @@
+package com.listings.listings.kafka.codec.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.listings.listings.data.domain.FuelType;
+import com.listings.listings.data.domain.TransmissionType;
+import com.listings.listings.kafka.domain.ListingEvent;
+import com.listings.listings.kafka.domain.ListingEventContactInfo;
+import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.util.KafkaConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmileListingEventCodecTest {
+
+    private JsonListingEventCodec jsonListingEventCodec;
+
+    private SmileListingEventCodec smileListingEventCodec;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        jsonListingEventCodec = new JsonListingEventCodec(objectMapper);
+        smileListingEventCodec = new SmileListingEventCodec(objectMapper);
+    }
+
+    @Test
+    public void testEncodeAndDecode() throws IOException {
+        ListingEvent listingEvent = listingEvent();
+
+        byte[] value = smileListingEventCodec.encode(listingEvent);
+        ListingEvent decoded = smileListingEventCodec.decode(value);
+
+        assertEquals(KafkaConstants.SMILE_CONTENT_TYPE, smileListingEventCodec.getContentType());
+        assertEquals(listingEvent.toString(), decoded.toString());
+        assertTrue(value.length < jsonListingEventCodec.encode(listingEvent).length);
+    }
+
+    @Test
+    public void testDecodeRejectsJson() throws IOException {
+        byte[] json = jsonListingEventCodec.encode(listingEvent());
+
+        assertThrows(IOException.class, () -> smileListingEventCodec.decode(json));
+        assertEquals(listingEvent().toString(), jsonListingEventCodec.decode(json).toString());
+    }
+
+    private ListingEvent listingEvent() {
+        return ListingEvent
+                .builder()
+                .id("7f2c3b9e-8d4a-4f6b-9a1e-2c5d8e7f9a0b")
+                .make("audi")
+                .model("a4")
+                .productionYear(2018)
+                .mileage(125000L)
+                .transmissionType(TransmissionType.AUTOMATIC)
+                .fuelType(FuelType.DIESEL)
+                .contactInfo(ListingEventContactInfo
+                        .builder()
+                        .firstName("firstName")
+                        .lastName("lastName")
+                        .email("email@example.com")
+                        .phoneNumber("+385911234567")
+                        .build())
+                .mode(ListingEventMode.UPDATE)
+                .eventId("0b6e2f4c-1d3a-4e5b-8c7d-9f0a1b2c3d4e")
+                .version(1718000000000000L)
+                .build();
+    }
+}
@@ -1,26 +1,51 @@
 package com.listings.listings.kafka.consumer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.cache.ListingCacheInvalidator;
+import com.listings.listings.cache.ListingCacheWarmer;
+import com.listings.listings.cache.ListingChange;
+import com.listings.listings.confg.ListingsProperties;
 import com.listings.listings.data.domain.ContactInfo;
 import com.listings.listings.data.domain.FuelType;
 import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.data.refresh.ListingRefreshCoordinator;
 import com.listings.listings.data.domain.TransmissionType;
-import com.listings.listings.data.repositories.ListingRepository;
+import com.listings.listings.data.writer.ListingWriteCompactor;
+import com.listings.listings.data.writer.ListingWriteExecutor;
+import com.listings.listings.data.writer.impl.DefaultListingWriteCompactor;
+import com.listings.listings.data.writer.ListingWriteOperation;
+import com.listings.listings.data.writer.ListingWriteResult;
+import com.listings.listings.data.writer.ListingWriteStatus;
+import com.listings.listings.data.writer.ListingWriter;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.codec.ListingEventCodecResolver;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.kafka.domain.ListingEventMode;
+import com.listings.listings.kafka.flow.ListingsFlowController;
 import com.listings.listings.mapper.ListingMapper;
+import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingEventVersions;
+import com.listings.listings.util.NonRetryableListingsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.elasticsearch.core.RefreshPolicy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 
@@ -28,22 +53,63 @@ import static org.mockito.Mockito.*;
 public class ListingsTopicConsumerTest {
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ListingEventCodecResolver listingEventCodecResolver;
 
     @Mock
-    private ListingRepository listingRepository;
+    private ListingEventCodec listingEventCodec;
 
     @Mock
     private ListingMapper listingMapper;
 
+    @Mock
+    private ListingWriter listingWriter;
+
+    @Mock
+    private ListingWriteExecutor listingWriteExecutor;
+
+    @Spy
+    private ListingWriteCompactor listingWriteCompactor = new DefaultListingWriteCompactor(new ListingsProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    private ListingCacheInvalidator listingCacheInvalidator;
+
+    @Mock
+    private ListingRefreshCoordinator listingRefreshCoordinator;
+
+    @Mock
+    private ListingCacheWarmer listingCacheWarmer;
+
+    @Mock
+    private ListingsFlowController listingsFlowController;
+
+    @Mock
+    private ListingExistenceFilter listingExistenceFilter;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @Spy
+    private ListingsProperties listingsProperties = new ListingsProperties();
+
     @InjectMocks
     private ListingsTopicConsumer listingsTopicConsumer;
 
     @Captor
-    private ArgumentCaptor<Listing> listingArgumentCaptor;
+    private ArgumentCaptor<ListingWriteOperation> writeOperationArgumentCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<ListingWriteOperation>> writeOperationsArgumentCaptor;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(listingEventCodecResolver.getCodec(any())).thenReturn(listingEventCodec);
+        int maxPollRecords = listingsProperties.getKafka().getBatch().getMaxPollRecords();
+        lenient().when(listingsFlowController.getBatchSize()).thenReturn(maxPollRecords);
+        lenient().when(listingExistenceFilter.mightExist(anyString())).thenReturn(true);
+    }
 
     @Test
-    public void testConsumeListingDelete() throws JsonProcessingException {
+    public void testConsumeListingDelete() throws IOException {
         String message = "{}";
         Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
         doNothing().when(acknowledgment).acknowledge();
@@ -56,21 +122,23 @@ public class ListingsTopicConsumerTest {
                 .id("12")
                 .build();
 
-        when(objectMapper.readValue(message, ListingEvent.class)).thenReturn(listingEvent);
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
         when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
-        when(listingRepository.existsById(listing.getId())).thenReturn(true);
-        doNothing().when(listingRepository).deleteById(listing.getId());
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null));
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
 
-        verify(objectMapper, times(1)).readValue(message, ListingEvent.class);
+        verify(listingEventCodec, times(1)).decode(value(message));
         verify(listingMapper, times(1)).mapToListing(listingEvent);
-        verify(listingRepository, times(1)).existsById(listing.getId());
-        verify(listingRepository, times(1)).deleteById(listing.getId());
+        verify(listingWriter, times(1)).write(new ListingWriteOperation(ListingEventMode.DELETE, listing));
+        verify(acknowledgment, times(1)).acknowledge();
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, listing)));
+        verify(listingRefreshCoordinator, times(1)).onChanged(List.of(ListingChange.of(ListingEventMode.DELETE, listing)));
+        verify(listingCacheWarmer, times(1)).onIngested(1);
     }
 
     @Test
-    public void testConsumeListingDeleteNotExisting() throws JsonProcessingException {
+    public void testConsumeListingDeleteNotExisting() throws IOException {
         String message = "{}";
         Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
         doNothing().when(acknowledgment).acknowledge();
@@ -83,20 +151,22 @@ public class ListingsTopicConsumerTest {
                 .id("12")
                 .build();
 
-        when(objectMapper.readValue(message, ListingEvent.class)).thenReturn(listingEvent);
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
         when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
-        when(listingRepository.existsById(listing.getId())).thenReturn(false);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.NOT_FOUND, null));
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
 
-        verify(objectMapper, times(1)).readValue(message, ListingEvent.class);
+        verify(listingEventCodec, times(1)).decode(value(message));
         verify(listingMapper, times(1)).mapToListing(listingEvent);
-        verify(listingRepository, times(1)).existsById(listing.getId());
-        verify(listingRepository, times(0)).deleteById(listing.getId());
+        verify(listingWriter, times(1)).write(new ListingWriteOperation(ListingEventMode.DELETE, listing));
+        verify(acknowledgment, times(1)).acknowledge();
+        verify(listingCacheInvalidator, times(0)).invalidate(any());
+        verify(listingCacheWarmer, times(0)).onIngested(anyInt());
     }
 
     @Test
-    public void testConsumeListingDeleteValidationFailed() throws JsonProcessingException {
+    public void testConsumeListingDeleteValidationFailed() throws IOException {
         String message = "{}";
         Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
         doNothing().when(acknowledgment).acknowledge();
@@ -108,19 +178,18 @@ public class ListingsTopicConsumerTest {
                 .builder()
                 .build();
 
-        when(objectMapper.readValue(message, ListingEvent.class)).thenReturn(listingEvent);
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
         when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
 
-        verify(objectMapper, times(1)).readValue(message, ListingEvent.class);
+        verify(listingEventCodec, times(1)).decode(value(message));
         verify(listingMapper, times(1)).mapToListing(listingEvent);
-        verify(listingRepository, times(0)).existsById(listing.getId());
-        verify(listingRepository, times(0)).deleteById(listing.getId());
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
     }
 
     @Test
-    public void testConsumeListingCreate() throws JsonProcessingException {
+    public void testConsumeListingCreate() throws IOException {
         String message = "{}";
         Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
         doNothing().when(acknowledgment).acknowledge();
@@ -132,95 +201,96 @@ public class ListingsTopicConsumerTest {
                 .builder()
                 .build();
 
-        when(objectMapper.readValue(message, ListingEvent.class)).thenReturn(listingEvent);
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
         when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMake("make");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setModel("model");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(1800);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(LocalDate.now().getYear() + 1);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(2000);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMileage(-10L);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMileage(2000L);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setTransmissionType(TransmissionType.AUTOMATIC);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setFuelType(FuelType.DIESEL);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setContactInfo(ContactInfo.builder().build());
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setFirstName("firstName");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setLastName("lastName");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setEmail("email");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setPhoneNumber("phoneNumber");
 
-        when(listingRepository.save(listing)).thenReturn(listing);
+        when(listingWriter.write(any(ListingWriteOperation.class))).thenReturn(new ListingWriteResult("id", ListingWriteStatus.SUCCESS, null));
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
 
-        verify(listingRepository, times(1)).save(listingArgumentCaptor.capture(), eq(RefreshPolicy.IMMEDIATE));
+        verify(listingWriter, times(1)).write(writeOperationArgumentCaptor.capture());
 
-        Listing savedListing = listingArgumentCaptor.getValue();
+        ListingWriteOperation operation = writeOperationArgumentCaptor.getValue();
 
-        assertNotNull(savedListing);
+        assertEquals(ListingEventMode.CREATE, operation.mode());
 
-        assertNotNull(savedListing.getDateCreated());
+        assertEquals(listing, operation.listing());
 
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, listing)));
     }
 
     @Test
-    public void testConsumeListingUpdate() throws JsonProcessingException {
+    public void testConsumeListingUpdate() throws IOException {
         String message = "{}";
         Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
         doNothing().when(acknowledgment).acknowledge();
@@ -232,116 +302,479 @@ public class ListingsTopicConsumerTest {
                 .builder()
                 .build();
 
-        Listing oldListing = Listing
-                .builder()
-                .id("id")
-                .make("make")
-                .model("model")
-                .productionYear(2000)
-                .mileage(2000L)
-                .transmissionType(TransmissionType.AUTOMATIC)
-                .fuelType(FuelType.DIESEL)
-                .contactInfo(ContactInfo
-                        .builder()
-                        .firstName("firstName")
-                        .lastName("lastName")
-                        .email("email")
-                        .phoneNumber("phoneNumber")
-                        .build())
-                .dateCreated(LocalDate.now())
-                .build();
 
-        when(objectMapper.readValue(message, ListingEvent.class)).thenReturn(listingEvent);
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
         when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setId("id");
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMake("make");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setModel("model");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(1800);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(LocalDate.now().getYear() + 1);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setProductionYear(2000);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMileage(-10L);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setMileage(2000L);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setTransmissionType(TransmissionType.AUTOMATIC);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setFuelType(FuelType.DIESEL);
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.setContactInfo(ContactInfo.builder().build());
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setFirstName("firstName");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setLastName("lastName");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setEmail("email");
 
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingWriter, times(0)).write(any(ListingWriteOperation.class));
 
         listing.getContactInfo().setPhoneNumber("phoneNumber");
 
-        when(listingRepository.findById(listing.getId())).thenReturn(Optional.empty());
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
-        verify(listingRepository, times(0)).save(any(), any());
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, listing))).thenReturn(new ListingWriteResult("id", ListingWriteStatus.NOT_FOUND, null));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+        verify(listingCacheInvalidator, times(0)).invalidate(any());
+
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, listing))).thenReturn(new ListingWriteResult("id", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception"));
+        assertThrows(IllegalStateException.class, () -> listingsTopicConsumer.consumeListing(record(0, message), acknowledgment));
+        verify(acknowledgment, times(0)).nack(any());
+        verify(listingCacheInvalidator, times(0)).invalidate(any());
+
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, listing))).thenReturn(new ListingWriteResult("id", ListingWriteStatus.SUCCESS, null));
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
+
+        verify(listingWriter, times(3)).write(new ListingWriteOperation(ListingEventMode.UPDATE, listing));
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.UPDATE, listing)));
+    }
+
+    @Test
+    public void testConsumeListingsBulkWrite() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent createEvent = ListingEvent.builder().mode(ListingEventMode.CREATE).build();
+        ListingEvent deleteEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+        Listing createListing = validListing(null);
+        Listing deleteListing = Listing.builder().id("12").build();
+
+        when(listingEventCodec.decode(value("create"))).thenReturn(createEvent);
+        when(listingEventCodec.decode(value("delete"))).thenReturn(deleteEvent);
+        when(listingMapper.mapToListing(createEvent)).thenReturn(createListing);
+        when(listingMapper.mapToListing(deleteEvent)).thenReturn(deleteListing);
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(
+                new ListingWriteResult("1", ListingWriteStatus.SUCCESS, null),
+                new ListingWriteResult("12", ListingWriteStatus.NOT_FOUND, null)
+        ));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "create"), record(1, "delete")), acknowledgment);
+
+        verify(listingWriteExecutor, times(1)).execute(writeOperationsArgumentCaptor.capture());
+        List<ListingWriteOperation> operations = writeOperationsArgumentCaptor.getValue();
+        assertEquals(2, operations.size());
+        assertEquals(ListingEventMode.CREATE, operations.get(0).mode());
+        assertEquals(createListing, operations.get(0).listing());
+        assertEquals(ListingEventMode.DELETE, operations.get(1).mode());
+        assertEquals(deleteListing, operations.get(1).listing());
+
+        verify(acknowledgment, times(1)).acknowledge();
+        verify(acknowledgment, times(0)).nack(anyInt(), any());
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.CREATE, createListing)));
+        verify(listingCacheWarmer, times(1)).onIngested(1);
+        assertEquals("1", createListing.getId());
+    }
+
+    @Test
+    public void testConsumeListingsSkipsInvalidEvents() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent invalidEvent = ListingEvent.builder().mode(ListingEventMode.UPDATE).build();
+        ListingEvent validEvent = ListingEvent.builder().mode(ListingEventMode.UPDATE).build();
+        Listing validListing = validListing("12");
+
+        when(listingEventCodec.decode(value("malformed"))).thenThrow(JsonProcessingException.class);
+        when(listingEventCodec.decode(value("invalid"))).thenReturn(invalidEvent);
+        when(listingEventCodec.decode(value("valid"))).thenReturn(validEvent);
+        when(listingMapper.mapToListing(invalidEvent)).thenReturn(Listing.builder().id("11").build());
+        when(listingMapper.mapToListing(validEvent)).thenReturn(validListing);
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null)));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "malformed"), record(1, null), record(2, "invalid"), record(3, "valid")), acknowledgment);
+
+        verify(listingWriteExecutor, times(1)).execute(writeOperationsArgumentCaptor.capture());
+        List<ListingWriteOperation> operations = writeOperationsArgumentCaptor.getValue();
+        assertEquals(1, operations.size());
+        assertEquals(validListing, operations.get(0).listing());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void testConsumeListingsRedeliversFromFirstRetryableFailure() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+
+        when(listingEventCodec.decode(any())).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(
+                Listing.builder().id("1").build(),
+                Listing.builder().id("2").build(),
+                Listing.builder().id("3").build(),
+                Listing.builder().id("4").build());
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(
+                new ListingWriteResult("1", ListingWriteStatus.SUCCESS, null),
+                new ListingWriteResult("2", ListingWriteStatus.PERMANENT_FAILURE, "mapper_parsing_exception"),
+                new ListingWriteResult("3", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception"),
+                new ListingWriteResult("4", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception")
+        ));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "a"), record(1, "b"), record(2, "c"), record(3, "d")), acknowledgment);
+
+        verify(acknowledgment, times(0)).acknowledge();
+        verify(acknowledgment, times(1)).nack(2, listingsProperties.getKafka().getBatch().getRetryBackoff());
+    }
+
+    @Test
+    public void testConsumeListingsCompactsEventsOfSameListing() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent createEvent = ListingEvent.builder().mode(ListingEventMode.CREATE).build();
+        ListingEvent otherEvent = ListingEvent.builder().mode(ListingEventMode.UPDATE).build();
+        ListingEvent deleteEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+        Listing deleteListing = Listing.builder().id("12").build();
+
+        when(listingEventCodec.decode(value("create"))).thenReturn(createEvent);
+        when(listingEventCodec.decode(value("other"))).thenReturn(otherEvent);
+        when(listingEventCodec.decode(value("delete"))).thenReturn(deleteEvent);
+        when(listingMapper.mapToListing(createEvent)).thenReturn(validListing("12"));
+        when(listingMapper.mapToListing(otherEvent)).thenReturn(validListing("13"));
+        when(listingMapper.mapToListing(deleteEvent)).thenReturn(deleteListing);
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(
+                new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null),
+                new ListingWriteResult("13", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception")
+        ));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "create"), record(1, "other"), record(2, "delete")), acknowledgment);
+
+        verify(listingWriteExecutor, times(1)).execute(writeOperationsArgumentCaptor.capture());
+        List<ListingWriteOperation> operations = writeOperationsArgumentCaptor.getValue();
+        assertEquals(2, operations.size());
+        assertEquals(new ListingWriteOperation(ListingEventMode.DELETE, deleteListing), operations.get(0));
+        assertEquals(ListingEventMode.UPDATE, operations.get(1).mode());
+
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, deleteListing)));
+        verify(listingRefreshCoordinator, times(1)).onChanged(List.of(ListingChange.of(ListingEventMode.DELETE, deleteListing)));
+        verify(acknowledgment, times(1)).nack(1, listingsProperties.getKafka().getBatch().getRetryBackoff());
+    }
+
+    @Test
+    public void testConsumeListingsWritesInChunksOfFlowBatchSize() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+
+        when(listingsFlowController.getBatchSize()).thenReturn(2);
+        when(listingEventCodec.decode(any())).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(
+                Listing.builder().id("1").build(),
+                Listing.builder().id("2").build(),
+                Listing.builder().id("3").build(),
+                Listing.builder().id("4").build(),
+                Listing.builder().id("5").build());
+        when(listingWriteExecutor.execute(anyList())).thenReturn(
+                List.of(
+                        new ListingWriteResult("1", ListingWriteStatus.SUCCESS, null),
+                        new ListingWriteResult("2", ListingWriteStatus.SUCCESS, null)),
+                List.of(
+                        new ListingWriteResult("3", ListingWriteStatus.SUCCESS, null),
+                        new ListingWriteResult("4", ListingWriteStatus.RETRYABLE_FAILURE, "es_rejected_execution_exception", true)));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "a"), record(1, "b"), record(2, "c"), record(3, "d"), record(4, "e")), acknowledgment);
+
+        verify(listingWriteExecutor, times(2)).execute(writeOperationsArgumentCaptor.capture());
+        assertEquals(2, writeOperationsArgumentCaptor.getAllValues().get(0).size());
+        assertEquals("3", writeOperationsArgumentCaptor.getAllValues().get(1).get(0).listing().getId());
+        verify(listingsFlowController, times(1)).onWrites(eq(2), eq(0), any());
+        verify(listingsFlowController, times(1)).onWrites(eq(2), eq(1), any());
+        verify(acknowledgment, times(1)).nack(3, listingsProperties.getKafka().getBatch().getRetryBackoff());
+    }
+
+    @Test
+    public void testConsumeListingsReportsOnlyRejectionsToFlowController() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+
+        when(listingEventCodec.decode(any())).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(
+                Listing.builder().id("1").build(),
+                Listing.builder().id("2").build());
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(
+                new ListingWriteResult("1", ListingWriteStatus.RETRYABLE_FAILURE, "unavailable_shards_exception"),
+                new ListingWriteResult("2", ListingWriteStatus.RETRYABLE_FAILURE, "Skipped after a failed operation of the same listing")));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "a"), record(1, "b")), acknowledgment);
+
+        verify(listingsFlowController, times(1)).onWrites(eq(2), eq(0), any());
+        verify(acknowledgment, times(1)).nack(0, listingsProperties.getKafka().getBatch().getRetryBackoff());
+    }
+
+    @Test
+    public void testConsumeListingAppliesListingMissingFromExistenceFilter() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+        Listing listing = Listing.builder().id("12").build();
+
+        when(listingEventCodec.decode(value("{}"))).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
+        when(listingExistenceFilter.mightExist("12")).thenReturn(false);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing)))
+                .thenReturn(new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null))
+                .thenReturn(new ListingWriteResult("12", ListingWriteStatus.NOT_FOUND, null));
+
+        listingsTopicConsumer.consumeListing(record(0, "{}"), acknowledgment);
+
+        verify(listingWriter, times(1)).write(new ListingWriteOperation(ListingEventMode.DELETE, listing));
+        verify(listingCacheInvalidator, times(1)).invalidate(List.of(ListingChange.of(ListingEventMode.DELETE, listing)));
+        verify(listingExistenceFilter, times(1)).onFound("12");
+
+        listingsTopicConsumer.consumeListing(record(1, "{}"), acknowledgment);
+
+        verify(listingWriter, times(2)).write(new ListingWriteOperation(ListingEventMode.DELETE, listing));
+        verify(listingExistenceFilter, times(0)).onNotFound("12");
+        verify(acknowledgment, times(2)).acknowledge();
+    }
+
+    @Test
+    public void testConsumeListingsAppliesListingsMissingFromExistenceFilter() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent createEvent = ListingEvent.builder().mode(ListingEventMode.CREATE).build();
+        ListingEvent updateEvent = ListingEvent.builder().mode(ListingEventMode.UPDATE).build();
+        ListingEvent deleteEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+
+        when(listingEventCodec.decode(value("create"))).thenReturn(createEvent);
+        when(listingEventCodec.decode(value("update"))).thenReturn(updateEvent);
+        when(listingEventCodec.decode(value("delete"))).thenReturn(deleteEvent);
+        when(listingMapper.mapToListing(createEvent)).thenReturn(validListing("11"));
+        when(listingMapper.mapToListing(updateEvent)).thenReturn(validListing("12"));
+        when(listingMapper.mapToListing(deleteEvent)).thenReturn(Listing.builder().id("13").build());
+        when(listingExistenceFilter.mightExist("12")).thenReturn(false);
+        when(listingWriteExecutor.execute(anyList())).thenReturn(List.of(
+                new ListingWriteResult("11", ListingWriteStatus.SUCCESS, null),
+                new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null),
+                new ListingWriteResult("13", ListingWriteStatus.NOT_FOUND, null)
+        ));
+
+        listingsTopicConsumer.consumeListings(List.of(record(0, "create"), record(1, "update"), record(2, "delete")), acknowledgment);
+
+        verify(listingWriteExecutor, times(1)).execute(writeOperationsArgumentCaptor.capture());
+        List<ListingWriteOperation> operations = writeOperationsArgumentCaptor.getValue();
+        assertEquals(3, operations.size());
+        assertEquals("11", operations.get(0).listing().getId());
+        assertEquals("12", operations.get(1).listing().getId());
+        assertEquals("13", operations.get(2).listing().getId());
+        verify(listingExistenceFilter, times(0)).mightExist("11");
+        verify(listingExistenceFilter, times(1)).onCreated("11");
+        verify(listingExistenceFilter, times(1)).onFound("12");
+        verify(listingExistenceFilter, times(1)).onNotFound("13");
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void testConsumeListingSkipsStaleEvent() throws IOException {
+        String message = "{}";
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent
+                .builder()
+                .mode(ListingEventMode.UPDATE)
+                .version(1L)
+                .build();
+        Listing listing = validListing("12");
+        listing.setEventVersion(1L);
+
+        when(listingEventCodec.decode(value(message))).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, listing))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.STALE, null));
+
+        listingsTopicConsumer.consumeListing(record(0, message), acknowledgment);
 
-        when(listingRepository.findById(listing.getId())).thenReturn(Optional.of(oldListing));
-        listingsTopicConsumer.consumeListing(message, acknowledgment);
+        verify(acknowledgment, times(1)).acknowledge();
+        verify(acknowledgment, times(0)).nack(any());
+        verify(listingCacheInvalidator, times(0)).invalidate(any());
+    }
 
-        verify(listingRepository, times(1)).save(listingArgumentCaptor.capture(), any());
+    @Test
+    public void testConsumeListingSendsNonRetryableEventsToDlt() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.UPDATE).build();
+        Listing listing = validListing("12");
 
-        Listing savedListing = listingArgumentCaptor.getValue();
+        when(listingEventCodec.decode(value("malformed"))).thenThrow(JsonProcessingException.class);
+        when(listingEventCodec.decode(value("rejected"))).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.UPDATE, listing))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.PERMANENT_FAILURE, "mapper_parsing_exception"));
 
-        assertNotNull(savedListing);
+        assertThrows(NonRetryableListingsException.class, () -> listingsTopicConsumer.consumeListing(record(0, "malformed"), acknowledgment));
+        assertThrows(NonRetryableListingsException.class, () -> listingsTopicConsumer.consumeListing(record(0, "rejected"), acknowledgment));
 
-        assertNotNull(savedListing.getDateUpdated());
+        verify(acknowledgment, times(0)).acknowledge();
+        verify(acknowledgment, times(0)).nack(any());
+    }
+
+    @Test
+    public void testConsumeListingDecodesByContentType() throws IOException {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        ListingEventCodec smileCodec = Mockito.mock(ListingEventCodec.class);
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+        Listing listing = Listing.builder().id("12").build();
+        ConsumerRecord<String, byte[]> smileRecord = record(0, "smile");
+        smileRecord.headers().add(KafkaConstants.CONTENT_TYPE_HEADER, KafkaConstants.SMILE_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> unknownRecord = record(1, "unknown");
+        unknownRecord.headers().add(KafkaConstants.CONTENT_TYPE_HEADER, "application/unknown".getBytes(StandardCharsets.UTF_8));
+
+        when(listingEventCodecResolver.getCodec(KafkaConstants.SMILE_CONTENT_TYPE)).thenReturn(smileCodec);
+        when(listingEventCodecResolver.getCodec("application/unknown")).thenReturn(null);
+        when(smileCodec.decode(value("smile"))).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null));
+
+        listingsTopicConsumer.consumeListing(smileRecord, acknowledgment);
+
+        assertThrows(NonRetryableListingsException.class, () -> listingsTopicConsumer.consumeListing(unknownRecord, acknowledgment));
+        verify(acknowledgment, times(1)).acknowledge();
+        verifyNoInteractions(listingEventCodec);
+    }
+
+    @Test
+    public void testConsumeListingNullMessage() {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+
+        listingsTopicConsumer.consumeListing(record(0, null), acknowledgment);
+
+        verify(acknowledgment, times(1)).acknowledge();
+        verifyNoInteractions(listingEventCodec, listingWriter);
+    }
+
+    @Test
+    public void testConsumeListingVersionsEventWithOffset() throws IOException {
+        ListingEvent listingEvent = consumeDelete(record(7, "{}"), false);
+
+        assertEquals(ListingEventVersions.OFFSET_VERSION_BASE + 7, listingEvent.getVersion());
+    }
+
+    @Test
+    public void testConsumeListingVersionsRetriedEventWithOriginalOffset() throws IOException {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(KafkaConstants.LISTINGS_TOPIC + "-retry-1", 0, 3, "12", value("{}"));
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(42).array());
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(0).array());
 
+        ListingEvent listingEvent = consumeDelete(record, true);
+
+        assertEquals(ListingEventVersions.OFFSET_VERSION_BASE + 42, listingEvent.getVersion());
+    }
+
+    @Test
+    public void testConsumeListingKeepsVersionOfReplayedEvent() throws IOException {
+        ConsumerRecord<String, byte[]> record = record(90, "{}");
+        record.headers().add(KafkaConstants.EVENT_VERSION_HEADER, ListingEventVersions.toHeaderValue(ListingEventVersions.OFFSET_VERSION_BASE + 42));
+
+        ListingEvent listingEvent = consumeDelete(record, true);
+
+        assertEquals(ListingEventVersions.OFFSET_VERSION_BASE + 42, listingEvent.getVersion());
+    }
+
+    @Test
+    public void testConsumeDeadLetter() {
+        Acknowledgment acknowledgment = Mockito.mock(Acknowledgment.class);
+        Counter counter = Mockito.mock(Counter.class);
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(KafkaConstants.LISTINGS_DLT_TOPIC, 0, 3, "12", value("{}"));
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(42).array());
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "mapper_parsing_exception".getBytes(StandardCharsets.UTF_8));
+        when(meterRegistry.counter("listings.kafka.dlt.records")).thenReturn(counter);
+
+        listingsTopicConsumer.consumeDeadLetter(record, acknowledgment);
+
+        verify(counter, times(1)).increment();
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    private ListingEvent consumeDelete(ConsumerRecord<String, byte[]> record, boolean outOfOrder) throws IOException {
+        ListingEvent listingEvent = ListingEvent.builder().mode(ListingEventMode.DELETE).build();
+        Listing listing = Listing.builder().id("12").build();
+        when(listingEventCodec.decode(record.value())).thenReturn(listingEvent);
+        when(listingMapper.mapToListing(listingEvent)).thenReturn(listing);
+        when(listingWriter.write(new ListingWriteOperation(ListingEventMode.DELETE, listing, outOfOrder))).thenReturn(new ListingWriteResult("12", ListingWriteStatus.SUCCESS, null));
+
+        listingsTopicConsumer.consumeListing(record, Mockito.mock(Acknowledgment.class));
+
+        return listingEvent;
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String value) {
+        return new ConsumerRecord<>(KafkaConstants.LISTINGS_TOPIC, 0, offset, null, value(value));
+    }
+
+    private byte[] value(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private Listing validListing(String id) {
+        return Listing
+                .builder()
+                .id(id)
+                .make("make")
+                .model("model")
+                .productionYear(2000)
+                .mileage(2000L)
+                .transmissionType(TransmissionType.AUTOMATIC)
+                .fuelType(FuelType.DIESEL)
+                .contactInfo(ContactInfo
+                        .builder()
+                        .firstName("firstName")
+                        .lastName("lastName")
+                        .email("email")
+                        .phoneNumber("phoneNumber")
+                        .build())
+                .build();
     }
 }
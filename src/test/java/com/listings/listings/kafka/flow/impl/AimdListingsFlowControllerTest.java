@@ -0,0 +1,116 @@
+package com.listings.listings.kafka.flow.impl;
+
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.util.KafkaConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AimdListingsFlowControllerTest {
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    @Mock
+    private MessageListenerContainer retryContainer;
+
+    @Mock
+    private MessageListenerContainer deadLetterContainer;
+
+    private ListingsProperties listingsProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AimdListingsFlowController flowController;
+
+    @BeforeEach
+    public void setUp() {
+        listingsProperties = new ListingsProperties();
+        listingsProperties.getKafka().getBatch().setMaxPollRecords(100);
+        meterRegistry = new SimpleMeterRegistry();
+        flowController = new AimdListingsFlowController(kafkaListenerEndpointRegistry, taskScheduler, listingsProperties, meterRegistry);
+    }
+
+    @Test
+    public void testSlowWritesDecreaseAndFastWritesIncreaseBatchSize() {
+        assertEquals(100, flowController.getBatchSize());
+
+        flowController.onWrites(100, 0, Duration.ofSeconds(2));
+        assertEquals(50, flowController.getBatchSize());
+
+        flowController.onWrites(50, 0, Duration.ofSeconds(2));
+        flowController.onWrites(25, 0, Duration.ofSeconds(2));
+        flowController.onWrites(12, 0, Duration.ofSeconds(2));
+        assertEquals(10, flowController.getBatchSize());
+
+        flowController.onWrites(10, 0, Duration.ofMillis(20));
+        assertEquals(20, flowController.getBatchSize());
+        assertEquals(20.0, meterRegistry.get("listings.kafka.flow.batch.size").gauge().value());
+
+        for (int i = 0; i < 20; i++) {
+            flowController.onWrites(20, 0, Duration.ofMillis(20));
+        }
+        assertEquals(100, flowController.getBatchSize());
+        verifyNoInteractions(kafkaListenerEndpointRegistry, taskScheduler);
+    }
+
+    @Test
+    public void testRejectedWritesPauseConsumption() {
+        when(kafkaListenerEndpointRegistry.getListenerContainers()).thenReturn(List.of(container, retryContainer, deadLetterContainer));
+        when(container.getListenerId()).thenReturn(KafkaConstants.LISTINGS_LISTENER_ID);
+        when(retryContainer.getListenerId()).thenReturn(KafkaConstants.LISTINGS_LISTENER_ID + KafkaConstants.RETRY_TOPIC_SUFFIX + "-0");
+        when(deadLetterContainer.getListenerId()).thenReturn(KafkaConstants.LISTINGS_LISTENER_ID + KafkaConstants.DLT_TOPIC_SUFFIX);
+        when(container.isRunning()).thenReturn(true);
+        when(retryContainer.isRunning()).thenReturn(true);
+        ArgumentCaptor<Runnable> resumeArgumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        flowController.onWrites(100, 3, Duration.ofMillis(20));
+        flowController.onWrites(50, 3, Duration.ofMillis(20));
+
+        assertEquals(25, flowController.getBatchSize());
+        verify(container, times(1)).pause();
+        verify(retryContainer, times(1)).pause();
+        verify(deadLetterContainer, times(0)).pause();
+        verify(taskScheduler, times(1)).schedule(resumeArgumentCaptor.capture(), any(Instant.class));
+        assertEquals(1.0, meterRegistry.counter("listings.kafka.flow.pauses").count());
+        assertEquals(6.0, meterRegistry.counter("listings.kafka.flow.rejected.writes").count());
+
+        resumeArgumentCaptor.getValue().run();
+        verify(container, times(1)).resume();
+        verify(retryContainer, times(1)).resume();
+
+        flowController.onWrites(25, 1, Duration.ofMillis(20));
+        verify(container, times(2)).pause();
+    }
+
+    @Test
+    public void testDisabled() {
+        listingsProperties.getKafka().getFlow().setEnabled(false);
+
+        flowController.onWrites(100, 100, Duration.ofSeconds(2));
+
+        assertEquals(100, flowController.getBatchSize());
+        verifyNoInteractions(kafkaListenerEndpointRegistry, taskScheduler);
+    }
+}
@@ -0,0 +1,25 @@
+package com.listings.listings.kafka.producer;
+
+import com.listings.listings.util.KafkaConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ListingsProducerListenerTest {
+
+    @Test
+    public void testCountsSentAndFailedRecords() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ListingsProducerListener listingsProducerListener = new ListingsProducerListener(meterRegistry);
+        ProducerRecord<Object, Object> producerRecord = new ProducerRecord<>(KafkaConstants.LISTINGS_TOPIC, "12", "{}");
+
+        listingsProducerListener.onSuccess(producerRecord, null);
+        listingsProducerListener.onSuccess(producerRecord, null);
+        listingsProducerListener.onError(producerRecord, null, new IllegalStateException("broker unavailable"));
+
+        assertEquals(2, meterRegistry.get("listings.kafka.producer.records").tag("result", "sent").counter().count());
+        assertEquals(1, meterRegistry.get("listings.kafka.producer.records").tag("result", "failed").counter().count());
+    }
+}
@@ -1,49 +1,115 @@
 package com.listings.listings.kafka.producer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.kafka.codec.ListingEventCodec;
+import com.listings.listings.kafka.codec.ListingEventCodecResolver;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingsException;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ListingsTopicProducerTest {
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ListingEventCodecResolver listingEventCodecResolver;
+
+    @Mock
+    private ListingEventCodec listingEventCodec;
+
+    @Spy
+    private ListingsProperties listingsProperties = new ListingsProperties();
 
     @InjectMocks
     private ListingsTopicProducer listingsTopicProducer;
 
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, byte[]>> producerRecordArgumentCaptor;
+
+    @BeforeEach
+    public void setUp() {
+        when(listingEventCodecResolver.getProducerCodec()).thenReturn(listingEventCodec);
+        lenient().when(listingEventCodec.getContentType()).thenReturn(KafkaConstants.SMILE_CONTENT_TYPE);
+    }
+
     @Test
-    public void voidTestProduceListing() throws JsonProcessingException, ExecutionException, InterruptedException {
-        ListingEvent listingEvent = ListingEvent.builder().build();
-        String json = "{}";
-        when(objectMapper.writeValueAsString(listingEvent)).thenReturn(json);
-        SendResult<String, String> sendResult = Mockito.mock(SendResult.class);
-        CompletableFuture<SendResult<String, String>> completableFuture = Mockito.mock(CompletableFuture.class);
+    public void voidTestProduceListing() throws IOException, ExecutionException, InterruptedException {
+        listingsProperties.getKafka().getProducer().setAsync(false);
+        ListingEvent listingEvent = ListingEvent.builder().id("12").build();
+        byte[] value = new byte[]{1, 2, 3};
+        when(listingEventCodec.encode(listingEvent)).thenReturn(value);
+        SendResult<String, byte[]> sendResult = Mockito.mock(SendResult.class);
+        CompletableFuture<SendResult<String, byte[]>> completableFuture = Mockito.mock(CompletableFuture.class);
         when(completableFuture.get()).thenReturn(sendResult);
-        when(kafkaTemplate.send(KafkaConstants.LISTINGS_TOPIC, json)).thenReturn(completableFuture);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(completableFuture);
 
         assertDoesNotThrow(() -> listingsTopicProducer.produceListing(listingEvent));
 
-        verify(objectMapper, times(1)).writeValueAsString(listingEvent);
-        verify(kafkaTemplate, times(1)).send(KafkaConstants.LISTINGS_TOPIC, json);
+        verify(listingEventCodec, times(1)).encode(listingEvent);
+        verify(kafkaTemplate, times(1)).send(producerRecordArgumentCaptor.capture());
+        ProducerRecord<String, byte[]> producerRecord = producerRecordArgumentCaptor.getValue();
+        assertEquals(KafkaConstants.LISTINGS_TOPIC, producerRecord.topic());
+        assertEquals("12", producerRecord.key());
+        assertArrayEquals(value, producerRecord.value());
+        assertEquals(KafkaConstants.SMILE_CONTENT_TYPE, new String(producerRecord.headers().lastHeader(KafkaConstants.CONTENT_TYPE_HEADER).value(), StandardCharsets.UTF_8));
+        assertNotNull(listingEvent.getEventId());
+    }
+
+    @Test
+    public void testProduceListingAsync() throws IOException {
+        ListingEvent listingEvent = ListingEvent.builder().id("12").build();
+        CompletableFuture<SendResult<String, byte[]>> completableFuture = new CompletableFuture<>();
+        when(listingEventCodec.encode(listingEvent)).thenReturn(new byte[0]);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(completableFuture);
+
+        assertDoesNotThrow(() -> listingsTopicProducer.produceListing(listingEvent));
+
+        assertFalse(completableFuture.isDone());
+        assertNotNull(listingEvent.getEventId());
+        completableFuture.completeExceptionally(new IllegalStateException("broker unavailable"));
+    }
+
+    @Test
+    public void testProduceListingSerializationFailure() throws IOException {
+        ListingEvent listingEvent = ListingEvent.builder().id("12").build();
+        when(listingEventCodec.encode(listingEvent)).thenThrow(JsonProcessingException.class);
+
+        assertThrows(ListingsException.class, () -> listingsTopicProducer.produceListing(listingEvent));
+        verify(kafkaTemplate, times(0)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    public void testProduceListingLeavesVersionToConsumer() throws IOException {
+        ListingEvent listingEvent = ListingEvent.builder().id("12").build();
+        when(listingEventCodec.encode(any())).thenReturn(new byte[0]);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(Mockito.mock(SendResult.class)));
+
+        listingsTopicProducer.produceListing(listingEvent);
+
+        assertNull(listingEvent.getVersion());
     }
 }
@@ -0,0 +1,99 @@
+package com.listings.listings.kafka.replay.impl;
+
+import com.listings.listings.util.KafkaConstants;
+import com.listings.listings.util.ListingEventVersions;
+import com.listings.listings.util.ListingsException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultListingsDltReplayerTest {
+
+    private static final TopicPartition TOPIC_PARTITION = new TopicPartition(KafkaConstants.LISTINGS_DLT_TOPIC, 0);
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Mock
+    private Consumer<String, byte[]> consumer;
+
+    @InjectMocks
+    private DefaultListingsDltReplayer defaultListingsDltReplayer;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, byte[]>> producerRecordArgumentCaptor;
+
+    @Test
+    public void testReplaySendsRangeToListingsTopic() {
+        when(consumerFactory.createConsumer(null, "-dlt-replay")).thenReturn(consumer);
+        when(consumer.endOffsets(List.of(TOPIC_PARTITION))).thenReturn(Map.of(TOPIC_PARTITION, 10L));
+        when(consumer.position(TOPIC_PARTITION)).thenReturn(2L, 5L);
+        when(consumer.poll(any(Duration.class))).thenReturn(new ConsumerRecords<>(Map.of(TOPIC_PARTITION, List.of(
+                record(2, "1"),
+                record(3, "2"),
+                record(4, "3")
+        ))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        int replayed = defaultListingsDltReplayer.replay(0, 2, 3);
+
+        assertEquals(2, replayed);
+        verify(consumer, times(1)).assign(List.of(TOPIC_PARTITION));
+        verify(consumer, times(1)).seek(TOPIC_PARTITION, 2);
+        verify(kafkaTemplate, times(2)).send(producerRecordArgumentCaptor.capture());
+        List<ProducerRecord<String, byte[]>> producerRecords = producerRecordArgumentCaptor.getAllValues();
+        assertEquals("1", producerRecords.get(0).key());
+        assertEquals("2", producerRecords.get(1).key());
+        assertEquals(KafkaConstants.LISTINGS_TOPIC, producerRecords.get(1).topic());
+        assertArrayEquals(value("2"), producerRecords.get(1).value());
+        assertNotNull(producerRecords.get(1).headers().lastHeader(KafkaConstants.CONTENT_TYPE_HEADER));
+        assertNull(producerRecords.get(1).headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertArrayEquals(ListingEventVersions.toHeaderValue(ListingEventVersions.OFFSET_VERSION_BASE + 13),
+                producerRecords.get(1).headers().lastHeader(KafkaConstants.EVENT_VERSION_HEADER).value());
+        verify(consumer, times(1)).close();
+    }
+
+    @Test
+    public void testReplayInvalidRange() {
+        assertThrows(ListingsException.class, () -> defaultListingsDltReplayer.replay(0, 5, 4));
+        verifyNoInteractions(consumerFactory, kafkaTemplate);
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String id) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(KafkaConstants.LISTINGS_DLT_TOPIC, 0, offset, id, value(id));
+        record.headers().add(KafkaConstants.CONTENT_TYPE_HEADER, KafkaConstants.SMILE_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "es_rejected_execution_exception".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(offset + 10).array());
+        return record;
+    }
+
+    private byte[] value(String id) {
+        return String.format("{\"id\":\"%s\"}", id).getBytes(StandardCharsets.UTF_8);
+    }
+}
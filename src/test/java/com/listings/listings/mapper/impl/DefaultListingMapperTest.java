@@ -164,6 +164,7 @@ public class DefaultListingMapperTest {
                 .id("id1")
                 .make("make1")
                 .model("model1")
+                .version(3L)
                 .productionYear(20001)
                 .mileage(200001L)
                 .transmissionType(TransmissionType.MANUAL)
@@ -195,6 +196,7 @@ public class DefaultListingMapperTest {
 
         assertEquals(listingEvent.getId(), listing.getId());
         assertEquals(listingEvent.getMake(), listing.getMake());
+        assertEquals(listingEvent.getVersion(), listing.getEventVersion());
         assertEquals(listingEvent.getModel(), listing.getModel());
         assertEquals(listingEvent.getProductionYear(), listing.getProductionYear());
         assertEquals(listingEvent.getMileage(), listing.getMileage());
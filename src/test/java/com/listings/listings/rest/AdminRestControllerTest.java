@@ -0,0 +1,39 @@
+package com.listings.listings.rest;
+
+import com.listings.listings.kafka.replay.ListingsDltReplayer;
+import com.listings.listings.rest.dto.admin.DltReplayDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminRestControllerTest {
+
+    @Mock
+    private ListingsDltReplayer listingsDltReplayer;
+
+    @InjectMocks
+    private AdminRestController adminRestController;
+
+    @Test
+    public void testReplayDlt() {
+        when(listingsDltReplayer.replay(1, 10L, 20L)).thenReturn(11);
+
+        ResponseEntity<DltReplayDto> responseEntity = adminRestController.replayDlt(1, 10L, 20L);
+
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(11, responseEntity.getBody().getReplayed());
+        assertEquals(1, responseEntity.getBody().getPartition());
+
+        verify(listingsDltReplayer, times(1)).replay(1, 10L, 20L);
+    }
+}
@@ -1,5 +1,9 @@
 package com.listings.listings.rest;
 
+import com.listings.listings.cache.ListingSearchRecorder;
+import com.listings.listings.confg.ListingsProperties;
+import com.listings.listings.data.export.ListingExportCursor;
+import com.listings.listings.data.export.ListingExporter;
 import com.listings.listings.kafka.domain.ListingEventMode;
 import com.listings.listings.rest.dto.listing.*;
 import com.listings.listings.service.ListingService;
@@ -7,12 +11,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +36,15 @@ public class ListingRestControllerTest {
     @Mock
     private ListingService listingService;
 
+    @Mock
+    private ListingSearchRecorder listingSearchRecorder;
+
+    @Mock
+    private ListingExporter listingExporter;
+
+    @Spy
+    private ListingsProperties listingsProperties = new ListingsProperties();
+
     @InjectMocks
     private ListingRestController listingRestController;
 
@@ -59,9 +81,9 @@ public class ListingRestControllerTest {
                 )
                 .build();
 
-        when(listingService.getAll(page, size, sort, sortDirection)).thenReturn(listingPage);
+        when(listingService.getAll(page, size, sort, sortDirection, TrackTotalHits.EXACT)).thenReturn(listingPage);
 
-        ResponseEntity<ListingPage> responseEntity = listingRestController.getAll(page, size, sort, sortDirection);
+        ResponseEntity<ListingPage> responseEntity = listingRestController.getAll(page, size, sort, sortDirection, null, null);
 
         assertNotNull(responseEntity);
         assertNotNull(responseEntity.getStatusCode());
@@ -82,7 +104,7 @@ public class ListingRestControllerTest {
             assertEquals(listingPage.getContent().get(i), responseEntity.getBody().getContent().get(i));
         }
 
-        verify(listingService, times(1)).getAll(page, size, sort, sortDirection);
+        verify(listingService, times(1)).getAll(page, size, sort, sortDirection, TrackTotalHits.EXACT);
     }
 
     @Test
@@ -133,9 +155,11 @@ public class ListingRestControllerTest {
                 )
                 .build();
 
-        when(listingService.searchAll(searchListingDto, page, size, sort, sortDirection)).thenReturn(listingPage);
+        when(listingService.searchAll(searchListingDto, page, size, sort, sortDirection, TrackTotalHits.EXACT)).thenReturn(listingPage);
+
+        ResponseEntity<ListingPage> responseEntity = listingRestController.searchAll(searchListingDto, page, size, sort, sortDirection, null, null);
 
-        ResponseEntity<ListingPage> responseEntity = listingRestController.searchAll(searchListingDto, page, size, sort, sortDirection);
+        verify(listingSearchRecorder, times(1)).record(searchListingDto, page, size, sort, sortDirection);
 
         assertNotNull(responseEntity);
         assertNotNull(responseEntity.getStatusCode());
@@ -157,7 +181,111 @@ public class ListingRestControllerTest {
             assertEquals(listingPage.getContent().get(i), responseEntity.getBody().getContent().get(i));
         }
 
-        verify(listingService, times(1)).searchAll(searchListingDto, page, size, sort, sortDirection);
+        verify(listingService, times(1)).searchAll(searchListingDto, page, size, sort, sortDirection, TrackTotalHits.EXACT);
+    }
+
+    @Test
+    public void testGetAllByCursor() {
+        ListingPage listingPage = ListingPage.builder().size(10).cursor("next").build();
+
+        when(listingService.getAllByCursor("", 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT)).thenReturn(listingPage);
+
+        ResponseEntity<ListingPage> responseEntity = listingRestController.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, "", null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(listingPage, responseEntity.getBody());
+        verify(listingService, never()).getAll(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testSearchAllByCursor() {
+        SearchListingDto searchListingDto = SearchListingDto.builder().searchListingItems(List.of()).build();
+        ListingPage listingPage = ListingPage.builder().size(10).build();
+
+        when(listingService.searchAllByCursor(searchListingDto, "cursor", 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.NONE)).thenReturn(listingPage);
+
+        ResponseEntity<ListingPage> responseEntity = listingRestController.searchAll(searchListingDto, 0, 10, ListingField.ID, Sort.Direction.ASC, "cursor", TrackTotalHits.NONE);
+
+        assertEquals(listingPage, responseEntity.getBody());
+        verifyNoInteractions(listingSearchRecorder);
+    }
+
+    @Test
+    public void testGetAllCountsByServerDefault() {
+        listingsProperties.getElasticsearch().setTrackTotalHits(TrackTotalHits.upTo(1000));
+        ListingPage listingPage = ListingPage.builder().totalElements(1000L).totalElementsRelation(TotalElementsRelation.LOWER_BOUND).build();
+
+        when(listingService.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.upTo(1000))).thenReturn(listingPage);
+
+        assertEquals(listingPage, listingRestController.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, null, null).getBody());
+
+        when(listingService.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT)).thenReturn(ListingPage.builder().build());
+
+        listingRestController.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, null, TrackTotalHits.EXACT);
+
+        verify(listingService, times(1)).getAll(0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT);
+    }
+
+    @Test
+    public void testGetFacets() {
+        SearchListingDto searchListingDto = SearchListingDto.builder().searchListingItems(List.of()).build();
+        ListingFacets listingFacets = ListingFacets
+                .builder()
+                .totalElements(3L)
+                .facets(Map.of(ListingFacet.MAKE, List.of(ListingFacetBucket.builder().key("audi").count(3L).build())))
+                .build();
+
+        when(listingService.getFacets(searchListingDto, EnumSet.of(ListingFacet.MAKE))).thenReturn(listingFacets);
+
+        ResponseEntity<ListingFacets> responseEntity = listingRestController.getFacets(searchListingDto, Set.of(ListingFacet.MAKE));
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(listingFacets, responseEntity.getBody());
+    }
+
+    @Test
+    public void testGetFacetsDefaultsToAllFacets() {
+        SearchListingDto searchListingDto = SearchListingDto.builder().searchListingItems(List.of()).build();
+
+        when(listingService.getFacets(searchListingDto, EnumSet.allOf(ListingFacet.class))).thenReturn(ListingFacets.builder().build());
+
+        ResponseEntity<ListingFacets> responseEntity = listingRestController.getFacets(searchListingDto, null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(listingService, times(1)).getFacets(searchListingDto, EnumSet.allOf(ListingFacet.class));
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        ListingExportCursor exportCursor = new ListingExportCursor("pit", List.of(new ListingExportCursor.Slice("1", false)));
+        when(listingExporter.readCursor("cursor")).thenReturn(exportCursor);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("{\"id\":\"2\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(listingExporter).export(eq(exportCursor), any(OutputStream.class));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        listingRestController.export("cursor", false, response);
+
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals("{\"id\":\"2\"}\n", response.getContentAsString());
+    }
+
+    @Test
+    public void testExportGzip() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(listingExporter).export(isNull(), any(OutputStream.class));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        listingRestController.export(null, true, response);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("{\"id\":\"1\"}\n", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(listingExporter, never()).readCursor(any());
     }
 
     @Test
@@ -165,15 +293,17 @@ public class ListingRestControllerTest {
         ListingEventDto listingEventDto = ListingEventDto.builder().build();
         ListingEventMode mode = ListingEventMode.CREATE;
 
-        doNothing().when(listingService).produceListingEvent(listingEventDto, mode);
+        ProducedListingEventDto producedListingEventDto = ProducedListingEventDto.builder().eventId("eventId").listingId("listingId").build();
 
-        ResponseEntity<Void> responseEntity = listingRestController.produceListingEvent(listingEventDto, mode);
+        when(listingService.produceListingEvent(listingEventDto, mode)).thenReturn(producedListingEventDto);
+
+        ResponseEntity<ProducedListingEventDto> responseEntity = listingRestController.produceListingEvent(listingEventDto, mode);
 
         assertNotNull(responseEntity);
         assertNotNull(responseEntity.getStatusCode());
-        assertNull(responseEntity.getBody());
+        assertEquals(producedListingEventDto, responseEntity.getBody());
 
-        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, responseEntity.getStatusCode());
 
         verify(listingService, times(1)).produceListingEvent(listingEventDto, mode);
     }
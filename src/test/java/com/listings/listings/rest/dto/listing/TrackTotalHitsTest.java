@@ -0,0 +1,33 @@
+package com.listings.listings.rest.dto.listing;
+
+import com.listings.listings.confg.ListingsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackTotalHitsTest {
+
+    @Test
+    public void testValueOf() {
+        assertEquals(TrackTotalHits.EXACT, TrackTotalHits.valueOf("exact"));
+        assertEquals(TrackTotalHits.NONE, TrackTotalHits.valueOf("NONE"));
+        assertEquals(TrackTotalHits.upTo(10000), TrackTotalHits.valueOf(" 10000 "));
+        assertEquals("10000", TrackTotalHits.upTo(10000).toString());
+        assertThrows(IllegalArgumentException.class, () -> TrackTotalHits.valueOf("0"));
+        assertThrows(IllegalArgumentException.class, () -> TrackTotalHits.valueOf("all"));
+    }
+
+    @Test
+    public void testBindDefault() {
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of("listings.elasticsearch.track-total-hits", "10000")));
+
+        ListingsProperties listingsProperties = binder.bind("listings", ListingsProperties.class).get();
+
+        assertEquals(TrackTotalHits.upTo(10000), listingsProperties.getElasticsearch().getTrackTotalHits());
+        assertEquals(TrackTotalHits.EXACT, new ListingsProperties().getElasticsearch().getTrackTotalHits());
+    }
+}
@@ -1,6 +1,16 @@
 package com.listings.listings.service;
 
+import com.listings.listings.cache.ListingIdsPage;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.listings.listings.confg.ListingsProperties;
 import com.listings.listings.data.domain.Listing;
+import com.listings.listings.data.existence.ListingExistenceFilter;
+import com.listings.listings.data.query.ListingCursor;
+import com.listings.listings.data.query.ListingCursorCodec;
+import com.listings.listings.data.query.ListingFacetsAggregator;
+import com.listings.listings.data.query.impl.DefaultListingCursorCodec;
+import com.listings.listings.data.query.impl.DefaultListingSearchQueryBuilder;
 import com.listings.listings.data.repositories.ListingRepository;
 import com.listings.listings.kafka.domain.ListingEvent;
 import com.listings.listings.kafka.domain.ListingEventMode;
@@ -8,6 +18,7 @@ import com.listings.listings.kafka.producer.ListingsTopicProducer;
 import com.listings.listings.mapper.ListingMapper;
 import com.listings.listings.rest.dto.listing.*;
 import com.listings.listings.util.ElasticSearchConstants;
+import com.listings.listings.util.ListingsException;
 import com.listings.listings.util.ListingsUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,16 +26,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.*;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.Criteria;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,11 +58,26 @@ public class DefaultListingServiceTest {
     @Mock
     private ListingsTopicProducer listingsTopicProducer;
 
+    @Spy
+    private DefaultListingSearchQueryBuilder listingSearchQueryBuilder;
+
+    @Mock
+    private ListingFacetsAggregator listingFacetsAggregator;
+
+    @Spy
+    private ListingCursorCodec listingCursorCodec = new DefaultListingCursorCodec(new ObjectMapper());
+
+    @Spy
+    private ListingsProperties listingsProperties = new ListingsProperties();
+
+    @Mock
+    private ListingExistenceFilter listingExistenceFilter;
+
     @InjectMocks
     private DefaultListingService defaultListingService;
 
     @Captor
-    private ArgumentCaptor<CriteriaQuery> criteriaQueryArgumentCaptor;
+    private ArgumentCaptor<NativeQuery> nativeQueryArgumentCaptor;
 
     @Captor
     private ArgumentCaptor<List<Listing>> listingsArgumentCaptor;
@@ -63,14 +91,13 @@ public class DefaultListingServiceTest {
 
         Long totalElements = 100L;
         List<Listing> listings = List.of(Listing.builder().id("1").build());
-        PageRequest pageRequest = ListingsUtils.createPageRequest(page, size, sort.getValue(), sortDirection);
-        PageImpl<Listing> pageObject = new PageImpl<>(listings, pageRequest, totalElements);
-        when(listingRepository.findAll(pageRequest)).thenReturn(pageObject);
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+                .thenReturn(hits(totalElements, TotalHitsRelation.EQUAL_TO, listings));
 
         List<ListingDto> listingDtos = List.of(ListingDto.builder().id("1").build());
         when(listingMapper.mapToListingsDtos(listings)).thenReturn(listingDtos);
 
-        ListingPage listingPage = defaultListingService.getAll(page, size, sort, sortDirection);
+        ListingPage listingPage = defaultListingService.getAll(page, size, sort, sortDirection, TrackTotalHits.EXACT);
 
         assertNotNull(listingPage);
         assertNotNull(listingPage.getPage());
@@ -88,15 +115,58 @@ public class DefaultListingServiceTest {
         assertEquals(sort, listingPage.getSort());
         assertEquals(sortDirection, listingPage.getSortDirection());
         assertEquals(totalElements, listingPage.getTotalElements());
-        assertEquals(pageObject.getTotalPages(), listingPage.getTotalPages());
+        assertEquals(10, listingPage.getTotalPages());
+        assertEquals(TotalElementsRelation.EXACT, listingPage.getTotalElementsRelation());
+        assertEquals(TrackTotalHits.EXACT, listingPage.getTrackTotalHits());
 
         for (int i = 0; i < listingDtos.size(); i++) {
             assertEquals(listingDtos.get(i).getId(), listingPage.getContent().get(i).getId());
         }
 
-        verify(listingRepository, times(1)).findAll(pageRequest);
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
         verify(listingMapper, times(1)).mapToListingsDtos(listings);
 
+        NativeQuery nativeQuery = nativeQueryArgumentCaptor.getValue();
+
+        assertEquals(ListingsUtils.createPageRequest(page, size, sort.getValue(), sortDirection), nativeQuery.getPageable());
+        assertTrue(nativeQuery.getQuery().isMatchAll());
+        assertTrue(nativeQuery.getTrackTotalHits());
+    }
+
+    @Test
+    public void testGetAllWithoutCounting() {
+        List<Listing> listings = List.of(Listing.builder().id("1").build());
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+                .thenReturn(hits(0, TotalHitsRelation.OFF, listings));
+        when(listingMapper.mapToListingsDtos(listings)).thenReturn(List.of(ListingDto.builder().id("1").build()));
+
+        ListingPage listingPage = defaultListingService.getAll(0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.NONE);
+
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
+
+        assertFalse(nativeQueryArgumentCaptor.getValue().getTrackTotalHits());
+        assertNull(listingPage.getTotalElements());
+        assertNull(listingPage.getTotalPages());
+        assertNull(listingPage.getTotalElementsRelation());
+        assertEquals(1, listingPage.getContent().size());
+    }
+
+    @Test
+    public void testReloadAllListingsPage() {
+        List<Listing> listings = List.of(Listing.builder().id("1").build());
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+                .thenReturn(hits(11L, TotalHitsRelation.EQUAL_TO, listings));
+        when(listingMapper.mapToListingsDtos(listings)).thenReturn(List.of(ListingDto.builder().id("1").build()));
+
+        ListingPage listingPage = defaultListingService.reload(new ListingIdsPage(1, 10, ListingField.MAKE, Sort.Direction.DESC, 11L, 2,
+                TotalElementsRelation.EXACT, TrackTotalHits.upTo(100), null, List.of("1")));
+
+        assertEquals(1, listingPage.getPage());
+        assertEquals(11L, listingPage.getTotalElements());
+        assertEquals("1", listingPage.getContent().get(0).getId());
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
+        assertEquals(ListingsUtils.createPageRequest(1, 10, ListingField.MAKE.getValue(), Sort.Direction.DESC), nativeQueryArgumentCaptor.getValue().getPageable());
+        assertEquals(100, nativeQueryArgumentCaptor.getValue().getTrackTotalHitsUpTo());
     }
 
     @Test
@@ -122,7 +192,8 @@ public class DefaultListingServiceTest {
                         SearchListingItemDto
                                 .builder()
                                 .field(ListingField.PRODUCTION_YEAR)
-                                .value("2000")
+                                .operator(SearchOperator.RANGE)
+                                .from("2000")
                                 .build()
                 ))
                 .build();
@@ -143,12 +214,12 @@ public class DefaultListingServiceTest {
                 null,
                 null
         );
-        when(elasticsearchOperations.search(any(CriteriaQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
                 .thenReturn(searchHits);
 
         when(listingMapper.mapToListingsDtos(listings)).thenReturn(listingDtos);
 
-        ListingPage listingPage = defaultListingService.searchAll(searchListingDto, page, size, sort, sortDirection);
+        ListingPage listingPage = defaultListingService.searchAll(searchListingDto, page, size, sort, sortDirection, TrackTotalHits.EXACT);
 
         assertNotNull(listingPage);
         assertNotNull(listingPage.getPage());
@@ -172,74 +243,180 @@ public class DefaultListingServiceTest {
             assertEquals(listingDtos.get(i).getId(), listingPage.getContent().get(i).getId());
         }
 
-        verify(elasticsearchOperations, times(1)).search(criteriaQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
         verify(listingMapper, times(1)).mapToListingsDtos(listings);
 
-        CriteriaQuery criteriaQuery = criteriaQueryArgumentCaptor.getValue();
-
-        assertNotNull(criteriaQuery);
-        assertNotNull(criteriaQuery.getCriteria());
-        assertNotNull(criteriaQuery.getCriteria().getCriteriaChain());
-        assertFalse(criteriaQuery.getCriteria().getCriteriaChain().isEmpty());
-
-        List<Criteria> criteriaList = criteriaQuery.getCriteria().getCriteriaChain();
-
-        assertEquals(3, criteriaList.size());
-
-        assertNotNull(criteriaList.get(0));
-        assertNotNull(criteriaList.get(0).getField());
-        assertNotNull(criteriaList.get(0).getField().getName());
-        assertNotNull(criteriaList.get(0).getQueryCriteriaEntries());
-        assertFalse(criteriaList.get(0).getQueryCriteriaEntries().isEmpty());
-        assertEquals(1, criteriaList.get(0).getQueryCriteriaEntries().size());
-        assertEquals(Criteria.OperationKey.MATCHES, criteriaList.get(0).getQueryCriteriaEntries().stream().findFirst().get().getKey());
-        assertEquals("make1", criteriaList.get(0).getQueryCriteriaEntries().stream().findFirst().get().getValue());
-        assertEquals("make", criteriaList.get(0).getField().getName());
-
-        assertNotNull(criteriaList.get(1));
-        assertNotNull(criteriaList.get(1).getField());
-        assertNotNull(criteriaList.get(1).getField().getName());
-        assertNotNull(criteriaList.get(1).getQueryCriteriaEntries());
-        assertFalse(criteriaList.get(1).getQueryCriteriaEntries().isEmpty());
-        assertEquals(1, criteriaList.get(1).getQueryCriteriaEntries().size());
-        assertEquals(Criteria.OperationKey.MATCHES, criteriaList.get(1).getQueryCriteriaEntries().stream().findFirst().get().getKey());
-        assertEquals("model1", criteriaList.get(1).getQueryCriteriaEntries().stream().findFirst().get().getValue());
-        assertEquals("model", criteriaList.get(1).getField().getName());
-
-        assertNotNull(criteriaList.get(2));
-        assertNotNull(criteriaList.get(2).getField());
-        assertNotNull(criteriaList.get(2).getField().getName());
-        assertNotNull(criteriaList.get(2).getQueryCriteriaEntries());
-        assertFalse(criteriaList.get(2).getQueryCriteriaEntries().isEmpty());
-        assertEquals(1, criteriaList.get(2).getQueryCriteriaEntries().size());
-        assertEquals(Criteria.OperationKey.MATCHES, criteriaList.get(2).getQueryCriteriaEntries().stream().findFirst().get().getKey());
-        assertEquals("2000", criteriaList.get(2).getQueryCriteriaEntries().stream().findFirst().get().getValue());
-        assertEquals("productionYear", criteriaList.get(2).getField().getName());
+        NativeQuery nativeQuery = nativeQueryArgumentCaptor.getValue();
+
+        assertNotNull(nativeQuery);
+        assertEquals(PageRequest.of(page, size, Sort.by(sortDirection, sort.getValue())), nativeQuery.getPageable());
+        assertNotNull(nativeQuery.getQuery());
+        assertTrue(nativeQuery.getQuery().isBool());
+        assertTrue(nativeQuery.getQuery().bool().must().isEmpty());
+
+        List<Query> filters = nativeQuery.getQuery().bool().filter();
+
+        assertEquals(3, filters.size());
+
+        assertTrue(filters.get(0).isTerm());
+        assertEquals("make", filters.get(0).term().field());
+        assertEquals("make1", filters.get(0).term().value().stringValue());
+
+        assertTrue(filters.get(1).isTerm());
+        assertEquals("model", filters.get(1).term().field());
+        assertEquals("model1", filters.get(1).term().value().stringValue());
+
+        assertTrue(filters.get(2).isRange());
+        assertEquals("productionYear", filters.get(2).range().field());
+        assertEquals("2000", filters.get(2).range().gte().to(String.class));
+        assertNull(filters.get(2).range().lte());
+    }
+
+    @Test
+    public void testSearchAllCountsUpToBound() {
+        SearchListingDto searchListingDto = SearchListingDto
+                .builder()
+                .searchListingItems(List.of(SearchListingItemDto.builder().field(ListingField.MAKE).value("make1").build()))
+                .build();
+        List<Listing> listings = List.of(Listing.builder().id("1").build());
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))))
+                .thenReturn(hits(50, TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO, listings));
+        when(listingMapper.mapToListingsDtos(listings)).thenReturn(List.of(ListingDto.builder().id("1").build()));
+
+        ListingPage listingPage = defaultListingService.searchAll(searchListingDto, 0, 10, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.upTo(50));
+
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class), eq(IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME)));
+
+        assertEquals(50, nativeQueryArgumentCaptor.getValue().getTrackTotalHitsUpTo());
+        assertNull(nativeQueryArgumentCaptor.getValue().getTrackTotalHits());
+        assertEquals(50L, listingPage.getTotalElements());
+        assertEquals(5, listingPage.getTotalPages());
+        assertEquals(TotalElementsRelation.LOWER_BOUND, listingPage.getTotalElementsRelation());
+        assertEquals(searchListingDto, listingPage.getSearch());
+    }
+
+    @Test
+    public void testGetAllByCursorOpensPointInTime() {
+        IndexCoordinates index = IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME);
+        List<Listing> listings = List.of(Listing.builder().id("1").build(), Listing.builder().id("2").build());
+        when(elasticsearchOperations.openPointInTime(index, Duration.ofMinutes(1))).thenReturn("pit");
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class))).thenReturn(sortedHits("pit2", listings));
+        when(listingMapper.mapToListingsDtos(listings)).thenReturn(List.of(ListingDto.builder().id("1").build(), ListingDto.builder().id("2").build()));
+
+        ListingPage listingPage = defaultListingService.getAllByCursor("", 2, ListingField.MODEL, Sort.Direction.DESC, TrackTotalHits.EXACT);
+
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class));
+        verify(elasticsearchOperations, never()).closePointInTime(any());
+
+        NativeQuery nativeQuery = nativeQueryArgumentCaptor.getValue();
+
+        assertEquals("pit", nativeQuery.getPointInTime().id());
+        assertEquals(Sort.by(Sort.Direction.DESC, "model").and(Sort.by(Sort.Direction.DESC, "id")), nativeQuery.getSort());
+        assertNull(nativeQuery.getSearchAfter());
+        assertTrue(nativeQuery.getQuery().isMatchAll());
+
+        assertNull(listingPage.getPage());
+        assertEquals(2, listingPage.getContent().size());
+        assertEquals(new ListingCursor("pit2", ListingField.MODEL, Sort.Direction.DESC, List.of("model2", "2")), listingCursorCodec.decode(listingPage.getCursor()));
+    }
+
+    @Test
+    public void testSearchAllByCursorClosesPointInTimeOnLastPage() {
+        SearchListingDto searchListingDto = SearchListingDto
+                .builder()
+                .searchListingItems(List.of(SearchListingItemDto.builder().field(ListingField.MAKE).value("audi").build()))
+                .build();
+        String cursor = listingCursorCodec.encode(new ListingCursor("pit", ListingField.ID, Sort.Direction.ASC, List.of("2")));
+        List<Listing> listings = List.of(Listing.builder().id("3").build());
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Listing.class))).thenReturn(sortedHits(null, listings));
+        when(listingMapper.mapToListingsDtos(listings)).thenReturn(List.of(ListingDto.builder().id("3").build()));
+
+        ListingPage listingPage = defaultListingService.searchAllByCursor(searchListingDto, cursor, 2, ListingField.MODEL, Sort.Direction.DESC, TrackTotalHits.EXACT);
+
+        verify(elasticsearchOperations, times(1)).search(nativeQueryArgumentCaptor.capture(), eq(Listing.class));
+        verify(elasticsearchOperations, times(1)).closePointInTime("pit");
+        verify(elasticsearchOperations, never()).openPointInTime(any(), any());
+
+        NativeQuery nativeQuery = nativeQueryArgumentCaptor.getValue();
+
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), nativeQuery.getSort());
+        assertEquals(List.of("2"), nativeQuery.getSearchAfter());
+        assertEquals("audi", nativeQuery.getQuery().bool().filter().get(0).term().value().stringValue());
+
+        assertEquals(ListingField.ID, listingPage.getSort());
+        assertNull(listingPage.getCursor());
+    }
+
+    @Test
+    public void testGetAllByCursorRejectsInvalidCursor() {
+        assertThrows(ListingsException.class, () -> defaultListingService.getAllByCursor("not a cursor", 2, ListingField.ID, Sort.Direction.ASC, TrackTotalHits.EXACT));
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    public void testGetFacets() {
+        SearchListingDto searchListingDto = SearchListingDto.builder().searchListingItems(List.of()).build();
+        Set<ListingFacet> facets = Set.of(ListingFacet.MAKE);
+        NativeQuery nativeQuery = NativeQuery.builder().withMaxResults(0).build();
+        SearchHits<Listing> searchHits = new SearchHitsImpl<>(7, TotalHitsRelation.EQUAL_TO, 0f, null, null, List.of(), null, null);
+        Map<ListingFacet, List<ListingFacetBucket>> buckets = Map.of(ListingFacet.MAKE, List.of(ListingFacetBucket.builder().key("audi").count(7L).build()));
+
+        when(listingFacetsAggregator.build(searchListingDto, facets)).thenReturn(nativeQuery);
+        when(elasticsearchOperations.search(nativeQuery, Listing.class, IndexCoordinates.of(ElasticSearchConstants.LISTINGS_INDEX_NAME))).thenReturn(searchHits);
+        when(listingFacetsAggregator.read(searchHits, facets)).thenReturn(buckets);
+
+        ListingFacets listingFacets = defaultListingService.getFacets(searchListingDto, facets);
+
+        assertEquals(7L, listingFacets.getTotalElements());
+        assertEquals(buckets, listingFacets.getFacets());
+        assertEquals(searchListingDto, listingFacets.getSearch());
     }
 
     @Test
     public void testProduceListingEvent() {
         ListingEventDto listingEventDto = ListingEventDto.builder().id("12").build();
         ListingEventMode mode = ListingEventMode.CREATE;
-        ListingEvent listingEvent = ListingEvent.builder().id("12").build();
+        ListingEvent listingEvent = ListingEvent.builder().id("12").eventId("eventId").build();
 
         when(listingMapper.mapToListingEvent(listingEventDto, mode)).thenReturn(listingEvent);
         doNothing().when(listingsTopicProducer).produceListing(listingEvent);
 
-        defaultListingService.produceListingEvent(listingEventDto, mode);
+        ProducedListingEventDto producedListingEventDto = defaultListingService.produceListingEvent(listingEventDto, mode);
+
+        assertEquals("eventId", producedListingEventDto.getEventId());
+        assertEquals("12", producedListingEventDto.getListingId());
 
         verify(listingMapper, times(1)).mapToListingEvent(listingEventDto, mode);
         verify(listingsTopicProducer, times(1)).produceListing(listingEvent);
+        assertEquals("12", listingEvent.getId());
+    }
+
+    @Test
+    public void testProduceListingEventAssignsIdToCreatedListing() {
+        ListingEventDto listingEventDto = ListingEventDto.builder().build();
+        ListingEvent createEvent = ListingEvent.builder().build();
+        ListingEvent updateEvent = ListingEvent.builder().build();
+
+        when(listingMapper.mapToListingEvent(listingEventDto, ListingEventMode.CREATE)).thenReturn(createEvent);
+        when(listingMapper.mapToListingEvent(listingEventDto, ListingEventMode.UPDATE)).thenReturn(updateEvent);
+
+        ProducedListingEventDto producedListingEventDto = defaultListingService.produceListingEvent(listingEventDto, ListingEventMode.CREATE);
+        defaultListingService.produceListingEvent(listingEventDto, ListingEventMode.UPDATE);
+
+        assertNotNull(createEvent.getId());
+        assertEquals(createEvent.getId(), producedListingEventDto.getListingId());
+        assertNull(updateEvent.getId());
     }
 
     @Test
     public void testGenerateRandomListings() {
 
-        when(listingRepository.saveAll(anyList())).thenReturn(List.of());
+        when(listingRepository.saveAll(anyList())).thenReturn(List.of(Listing.builder().id("1").build()));
 
         defaultListingService.generateRandomListings();
 
         verify(listingRepository, times(1)).saveAll(listingsArgumentCaptor.capture());
+        verify(listingExistenceFilter, times(1)).onCreated("1");
 
         List<Listing> listings = listingsArgumentCaptor.getValue();
 
@@ -264,4 +441,36 @@ public class DefaultListingServiceTest {
                     assertNull(listing.getDateUpdated());
                 });
     }
+
+    private SearchHits<Listing> hits(long totalHits, TotalHitsRelation totalHitsRelation, List<Listing> listings) {
+        return new SearchHitsImpl<>(
+                totalHits,
+                totalHitsRelation,
+                0f,
+                null,
+                null,
+                listings
+                        .stream()
+                        .map(listing -> new SearchHit<>(null, null, null, 0f, null, null, null, null, null, null, listing))
+                        .toList(),
+                null,
+                null
+        );
+    }
+
+    private SearchHits<Listing> sortedHits(String pointInTimeId, List<Listing> listings) {
+        return new SearchHitsImpl<>(
+                listings.size(),
+                TotalHitsRelation.EQUAL_TO,
+                0f,
+                null,
+                pointInTimeId,
+                listings
+                        .stream()
+                        .map(listing -> new SearchHit<>(null, null, null, 0f, new Object[]{"model" + listing.getId(), listing.getId()}, null, null, null, null, null, listing))
+                        .toList(),
+                null,
+                null
+        );
+    }
 }